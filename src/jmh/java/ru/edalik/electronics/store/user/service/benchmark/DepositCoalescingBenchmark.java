@@ -0,0 +1,113 @@
+package ru.edalik.electronics.store.user.service.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+import ru.edalik.electronics.store.user.service.UserServiceApplication;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceDto;
+import ru.edalik.electronics.store.user.service.model.entity.User;
+import ru.edalik.electronics.store.user.service.repository.UserRepository;
+import ru.edalik.electronics.store.user.service.service.security.UserAuthenticationConverter;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.setup.SecurityMockMvcConfigurers.springSecurity;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+@Threads(16)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class DepositCoalescingBenchmark {
+
+    static final String DEPOSIT_URL = "/api/v1/users/balance/deposit";
+
+    @Param({"false", "true"})
+    boolean coalescing;
+
+    final UUID userId = UUID.randomUUID();
+
+    ConfigurableApplicationContext context;
+
+    MockMvc mockMvc;
+
+    Authentication authentication;
+
+    String amountJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        context = new SpringApplicationBuilder(UserServiceApplication.class)
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=jdbc:h2:mem:coalescing-" + coalescing + ";DB_CLOSE_DELAY=-1",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.datasource.hikari.schema=PUBLIC",
+                "cache.invalidation.enabled=false",
+                "outbox.relay-enabled=false",
+                "balance.coalescing.enabled=" + coalescing,
+                "logging.level.root=WARN"
+            )
+            .run();
+
+        context.getBean(UserRepository.class).save(
+            User.builder()
+                .id(userId)
+                .login("hot-account")
+                .balanceSnapshot(BigDecimal.ZERO)
+                .ledgerPosition(0L)
+                .build()
+        );
+
+        authentication = context.getBean(UserAuthenticationConverter.class).convert(
+            Jwt.withTokenValue("token")
+                .header("alg", "none")
+                .subject(userId.toString())
+                .claim("preferred_username", "hot-account")
+                .build()
+        );
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context)
+            .apply(springSecurity())
+            .build();
+        amountJson = context.getBean(ObjectMapper.class).writeValueAsString(new BalanceDto(BigDecimal.ONE));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult hotAccountDeposit() throws Exception {
+        return mockMvc.perform(
+            post(DEPOSIT_URL)
+                .with(authentication(authentication))
+                .with(csrf())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(amountJson)
+        ).andReturn();
+    }
+
+}
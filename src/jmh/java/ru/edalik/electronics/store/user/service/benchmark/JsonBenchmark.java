@@ -0,0 +1,78 @@
+package ru.edalik.electronics.store.user.service.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceDto;
+import ru.edalik.electronics.store.user.service.model.dto.UserDto;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JsonBenchmark {
+
+    final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    UserDto userDto;
+
+    BalanceDto balanceDto;
+
+    String userJson;
+
+    String balanceJson;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        userDto = UserDto.builder()
+            .id(UUID.randomUUID())
+            .login("login")
+            .name("Иван")
+            .surname("Иванов")
+            .patronymic("Иванович")
+            .gender(true)
+            .birthdate(LocalDate.of(1990, 1, 1))
+            .phoneNumber("+79991234567")
+            .email("user@example.com")
+            .balance(new BigDecimal("1500.50"))
+            .createdTime(ZonedDateTime.now())
+            .updatedTime(ZonedDateTime.now())
+            .build();
+        balanceDto = new BalanceDto(new BigDecimal("123.45"));
+        userJson = objectMapper.writeValueAsString(userDto);
+        balanceJson = objectMapper.writeValueAsString(balanceDto);
+    }
+
+    @Benchmark
+    public String serializeUserDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(userDto);
+    }
+
+    @Benchmark
+    public UserDto deserializeUserDto() throws JsonProcessingException {
+        return objectMapper.readValue(userJson, UserDto.class);
+    }
+
+    @Benchmark
+    public String serializeBalanceDto() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(balanceDto);
+    }
+
+    @Benchmark
+    public BalanceDto deserializeBalanceDto() throws JsonProcessingException {
+        return objectMapper.readValue(balanceJson, BalanceDto.class);
+    }
+
+}
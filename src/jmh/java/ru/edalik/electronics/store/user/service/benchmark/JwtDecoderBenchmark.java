@@ -0,0 +1,71 @@
+package ru.edalik.electronics.store.user.service.benchmark;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import ru.edalik.electronics.store.user.service.service.security.CachingJwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JwtDecoderBenchmark {
+
+    JwtDecoder nimbusJwtDecoder;
+
+    JwtDecoder cachingJwtDecoder;
+
+    String token;
+
+    @Setup
+    public void setUp() throws JOSEException {
+        RSAKey key = new RSAKeyGenerator(2048).keyID("benchmark").generate();
+        nimbusJwtDecoder = NimbusJwtDecoder.withPublicKey(key.toRSAPublicKey()).build();
+        cachingJwtDecoder = new CachingJwtDecoder(nimbusJwtDecoder, 10000, Duration.ofSeconds(30), Clock.systemUTC());
+
+        SignedJWT jwt = new SignedJWT(
+            new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(),
+            new JWTClaimsSet.Builder()
+                .subject(UUID.randomUUID().toString())
+                .claim("preferred_username", "login")
+                .claim("email", "user@example.com")
+                .issueTime(new Date())
+                .expirationTime(Date.from(Instant.now().plus(Duration.ofHours(1))))
+                .build()
+        );
+        jwt.sign(new RSASSASigner(key));
+        token = jwt.serialize();
+    }
+
+    @Benchmark
+    public Jwt nimbusDecode() {
+        return nimbusJwtDecoder.decode(token);
+    }
+
+    @Benchmark
+    public Jwt cachedDecode() {
+        return cachingJwtDecoder.decode(token);
+    }
+
+}
@@ -0,0 +1,55 @@
+package ru.edalik.electronics.store.user.service.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import ru.edalik.electronics.store.user.service.service.security.UserAuthenticationConverter;
+import ru.edalik.electronics.store.user.service.service.security.UserContextService;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserContextServiceBenchmark {
+
+    final UserContextService userContextService = new UserContextService();
+
+    @Setup
+    public void setUp() {
+        Jwt jwt = Jwt.withTokenValue("token")
+            .header("alg", "none")
+            .subject(UUID.randomUUID().toString())
+            .claim("preferred_username", "login")
+            .claim("email", "user@example.com")
+            .build();
+        SecurityContextHolder.getContext().setAuthentication(
+            new UserAuthenticationConverter(new JwtGrantedAuthoritiesConverter()).convert(jwt)
+        );
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public UUID getUserGuid() {
+        return userContextService.getUserGuid();
+    }
+
+    @Benchmark
+    public String getEmail() {
+        return userContextService.getEmail();
+    }
+
+}
@@ -0,0 +1,62 @@
+package ru.edalik.electronics.store.user.service.benchmark;
+
+import org.mapstruct.factory.Mappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import ru.edalik.electronics.store.user.service.mapper.UserMapper;
+import ru.edalik.electronics.store.user.service.model.dto.UserDto;
+import ru.edalik.electronics.store.user.service.model.dto.UserUpdateDto;
+import ru.edalik.electronics.store.user.service.model.entity.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserMapperBenchmark {
+
+    final UserMapper userMapper = Mappers.getMapper(UserMapper.class);
+
+    User user;
+
+    UserUpdateDto userUpdateDto;
+
+    @Setup
+    public void setUp() {
+        user = User.builder()
+            .id(UUID.randomUUID())
+            .login("login")
+            .name("Иван")
+            .surname("Иванов")
+            .patronymic("Иванович")
+            .gender(true)
+            .birthdate(LocalDate.of(1990, 1, 1))
+            .phoneNumber("+79991234567")
+            .email("user@example.com")
+            .balance(new BigDecimal("1500.50"))
+            .createdTime(ZonedDateTime.now())
+            .updatedTime(ZonedDateTime.now())
+            .build();
+        userUpdateDto = new UserUpdateDto("Пётр", "Петров", null, false, LocalDate.of(1991, 2, 2), null);
+    }
+
+    @Benchmark
+    public UserDto toDto() {
+        return userMapper.toDto(user);
+    }
+
+    @Benchmark
+    public User partialUpdate() {
+        return userMapper.partialUpdate(userUpdateDto, user);
+    }
+
+}
@@ -0,0 +1,111 @@
+package ru.edalik.electronics.store.user.service.benchmark;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.edalik.electronics.store.user.service.UserServiceApplication;
+import ru.edalik.electronics.store.user.service.model.entity.User;
+import ru.edalik.electronics.store.user.service.repository.UserRepository;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class UserWriteBatchingBenchmark {
+
+    static final int USERS = 500;
+
+    @Param({"default", "jdbc-batching"})
+    String profile;
+
+    EmbeddedPostgres postgres;
+
+    ConfigurableApplicationContext context;
+
+    UserRepository userRepository;
+
+    TransactionTemplate transactionTemplate;
+
+    List<UUID> ids;
+
+    int revision;
+
+    @Setup
+    public void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        context = new SpringApplicationBuilder(UserServiceApplication.class)
+            .profiles(profile)
+            .properties(
+                "server.port=0",
+                "spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "spring.datasource.username=postgres",
+                "spring.datasource.password=postgres",
+                "cache.invalidation.enabled=false",
+                "outbox.relay-enabled=false",
+                "balance.holds.reaper-enabled=false",
+                "logging.level.root=WARN"
+            )
+            .run();
+        userRepository = context.getBean(UserRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        ids = IntStream.range(0, USERS).mapToObj(i -> UUID.randomUUID()).toList();
+        userRepository.saveAll(ids.stream().map(UserWriteBatchingBenchmark::user).toList());
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Benchmark
+    public void insertUsers() {
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.saveAll(IntStream.range(0, USERS).mapToObj(i -> user(UUID.randomUUID())).toList());
+            userRepository.flush();
+            status.setRollbackOnly();
+        });
+    }
+
+    @Benchmark
+    public void updateMixedColumns() {
+        int current = ++revision;
+        transactionTemplate.executeWithoutResult(status -> {
+            List<User> users = userRepository.findAllById(ids);
+            for (int i = 0; i < users.size(); i++) {
+                if (i % 2 == 0) {
+                    users.get(i).setName("Name" + current);
+                } else {
+                    users.get(i).setSurname("Surname" + current);
+                }
+            }
+        });
+    }
+
+    private static User user(UUID id) {
+        return User.builder()
+            .id(id)
+            .login("batch-" + id)
+            .balanceSnapshot(BigDecimal.ZERO)
+            .ledgerPosition(0L)
+            .build();
+    }
+
+}
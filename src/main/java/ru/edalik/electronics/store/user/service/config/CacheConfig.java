@@ -0,0 +1,31 @@
+package ru.edalik.electronics.store.user.service.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.edalik.electronics.store.user.service.config.properties.UserCacheProperties;
+
+@Configuration
+public class CacheConfig {
+
+    public static final String USERS_CACHE = "users";
+
+    @Bean
+    public CacheManager cacheManager(UserCacheProperties properties) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(USERS_CACHE);
+        cacheManager.setCaffeine(
+            Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.ttl())
+                .recordStats()
+        );
+        cacheManager.setAllowNullValues(false);
+        cacheManager.setAsyncCacheMode(true);
+
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,87 @@
+package ru.edalik.electronics.store.user.service.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.oauth2.resource.OAuth2ResourceServerProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.web.client.RestClient;
+import ru.edalik.electronics.store.user.service.config.properties.JwtDecoderProperties;
+import ru.edalik.electronics.store.user.service.service.security.CachingJwtDecoder;
+import ru.edalik.electronics.store.user.service.service.security.RemoteJwkSetSource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Configuration
+@ConditionalOnProperty(name = "spring.security.oauth2.resourceserver.jwt.jwk-set-uri")
+public class JwtDecoderConfig {
+
+    private static final Duration JWKS_TIMEOUT = Duration.ofSeconds(5);
+
+    @Bean
+    public RemoteJwkSetSource jwkSetSource(
+        OAuth2ResourceServerProperties resourceServerProperties,
+        JwtDecoderProperties properties
+    ) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(JWKS_TIMEOUT);
+        requestFactory.setReadTimeout(JWKS_TIMEOUT);
+
+        RemoteJwkSetSource jwkSetSource = new RemoteJwkSetSource(
+            RestClient.builder().requestFactory(requestFactory).build(),
+            resourceServerProperties.getJwt().getJwkSetUri(),
+            properties.jwksMinRefreshInterval(),
+            Clock.systemUTC()
+        );
+        jwkSetSource.prefetch();
+
+        return jwkSetSource;
+    }
+
+    @Bean
+    public CachingJwtDecoder jwtDecoder(
+        RemoteJwkSetSource jwkSetSource,
+        OAuth2ResourceServerProperties resourceServerProperties,
+        JwtDecoderProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        OAuth2ResourceServerProperties.Jwt jwt = resourceServerProperties.getJwt();
+        Set<JWSAlgorithm> algorithms = jwt.getJwsAlgorithms().stream()
+            .map(JWSAlgorithm::parse)
+            .collect(Collectors.toSet());
+
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(algorithms, jwkSetSource));
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+
+        NimbusJwtDecoder delegate = new NimbusJwtDecoder(jwtProcessor);
+        delegate.setJwtValidator(
+            jwt.getIssuerUri() == null
+                ? JwtValidators.createDefault()
+                : JwtValidators.createDefaultWithIssuer(jwt.getIssuerUri())
+        );
+
+        CachingJwtDecoder jwtDecoder = new CachingJwtDecoder(
+            delegate,
+            properties.cacheMaximumSize(),
+            properties.expirySkew(),
+            Clock.systemUTC()
+        );
+        CaffeineCacheMetrics.monitor(meterRegistry, jwtDecoder.getCache(), "jwt");
+
+        return jwtDecoder;
+    }
+
+}
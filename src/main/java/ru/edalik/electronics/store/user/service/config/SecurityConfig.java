@@ -6,15 +6,19 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
+import ru.edalik.electronics.store.user.service.service.security.UserAuthenticationConverter;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(securedEnabled = true, jsr250Enabled = true)
 public class SecurityConfig {
 
+    public static final String ADMIN_ROLE = "ROLE_ADMIN";
+
+    public static final String SERVICE_ROLE = "ROLE_SERVICE";
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -24,13 +28,15 @@ public class SecurityConfig {
                         "/*/v3/api-docs/**",
                         "/actuator/health"
                     ).permitAll()
+                    .requestMatchers("/actuator/prometheus").hasAnyAuthority(SERVICE_ROLE, ADMIN_ROLE)
+                    .requestMatchers("/actuator/**").hasAuthority(ADMIN_ROLE)
                     .anyRequest().authenticated()
             )
             .oauth2ResourceServer(
                 oauth2 -> oauth2
                     .jwt(
                         jwtConfigurer -> jwtConfigurer
-                            .jwtAuthenticationConverter(jwtAuthenticationConverter())
+                            .jwtAuthenticationConverter(userAuthenticationConverter())
                     )
             )
             .sessionManagement(
@@ -42,14 +48,12 @@ public class SecurityConfig {
     }
 
     @Bean
-    public JwtAuthenticationConverter jwtAuthenticationConverter() {
+    public UserAuthenticationConverter userAuthenticationConverter() {
         JwtGrantedAuthoritiesConverter converter = new JwtGrantedAuthoritiesConverter();
         converter.setAuthoritiesClaimName("roles");
         converter.setAuthorityPrefix("ROLE_");
 
-        JwtAuthenticationConverter jwtConverter = new JwtAuthenticationConverter();
-        jwtConverter.setJwtGrantedAuthoritiesConverter(converter);
-        return jwtConverter;
+        return new UserAuthenticationConverter(converter);
     }
 
 }
\ No newline at end of file
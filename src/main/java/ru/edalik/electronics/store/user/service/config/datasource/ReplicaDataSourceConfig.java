@@ -0,0 +1,63 @@
+package ru.edalik.electronics.store.user.service.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import ru.edalik.electronics.store.user.service.config.properties.ReplicaProperties;
+import ru.edalik.electronics.store.user.service.service.replica.ReplicaRoutingPolicy;
+
+import javax.sql.DataSource;
+
+@Configuration
+@ConditionalOnProperty(name = "replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    public static final String PRIMARY_DATA_SOURCE = "primaryDataSource";
+    public static final String REPLICA_DATA_SOURCE = "replicaDataSource";
+
+    @Bean(PRIMARY_DATA_SOURCE)
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder()
+            .type(HikariDataSource.class)
+            .build();
+    }
+
+    @Bean(REPLICA_DATA_SOURCE)
+    @ConfigurationProperties("replica.hikari")
+    public HikariDataSource replicaDataSource(ReplicaProperties properties) {
+        return DataSourceBuilder.create()
+            .type(HikariDataSource.class)
+            .url(properties.url())
+            .username(properties.username())
+            .password(properties.password())
+            .build();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+        @Qualifier(PRIMARY_DATA_SOURCE) DataSource primaryDataSource,
+        @Qualifier(REPLICA_DATA_SOURCE) DataSource replicaDataSource,
+        ReplicaRoutingPolicy replicaRoutingPolicy,
+        ReplicaProperties properties
+    ) {
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(
+            primaryDataSource,
+            replicaDataSource,
+            replicaRoutingPolicy,
+            (int) Math.max(1, properties.validationTimeout().toSeconds())
+        );
+        routingDataSource.afterPropertiesSet();
+
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+}
@@ -0,0 +1,107 @@
+package ru.edalik.electronics.store.user.service.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.edalik.electronics.store.user.service.model.enums.DataSourceRole;
+import ru.edalik.electronics.store.user.service.service.replica.ReplicaRoutingPolicy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Map;
+
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String INVALID_CONNECTION = "Replica connection is no longer valid";
+    static final String CONNECTION_DOES_NOT_EXIST = "08003";
+
+    private final DataSource primaryDataSource;
+
+    private final DataSource replicaDataSource;
+
+    private final ReplicaRoutingPolicy policy;
+
+    private final int validationTimeoutSeconds;
+
+    public ReplicaRoutingDataSource(
+        DataSource primaryDataSource,
+        DataSource replicaDataSource,
+        ReplicaRoutingPolicy policy,
+        int validationTimeoutSeconds
+    ) {
+        this.primaryDataSource = primaryDataSource;
+        this.replicaDataSource = replicaDataSource;
+        this.policy = policy;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        setTargetDataSources(Map.of(DataSourceRole.PRIMARY, primaryDataSource, DataSourceRole.REPLICA, replicaDataSource));
+        setDefaultTargetDataSource(primaryDataSource);
+        setLenientFallback(false);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                policy.pinAfterCommit();
+            }
+
+            return DataSourceRole.PRIMARY;
+        }
+
+        return policy.readFromReplica() ? DataSourceRole.REPLICA : DataSourceRole.PRIMARY;
+    }
+
+    private Connection connect(ConnectionFactory factory) throws SQLException {
+        DataSource target = determineTargetDataSource();
+        if (target != replicaDataSource) {
+            return factory.connect(target);
+        }
+
+        Connection connection = null;
+        try {
+            connection = factory.connect(replicaDataSource);
+            if (connection.isValid(validationTimeoutSeconds)) {
+                return connection;
+            }
+
+            throw new SQLTransientConnectionException(INVALID_CONNECTION, CONNECTION_DOES_NOT_EXIST);
+        } catch (SQLException e) {
+            discard(connection);
+            policy.replicaFailed(e);
+            return factory.connect(primaryDataSource);
+        }
+    }
+
+    private static void discard(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Couldn't close invalid replica connection: {}", e.getMessage());
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionFactory {
+
+        Connection connect(DataSource dataSource) throws SQLException;
+
+    }
+
+}
@@ -4,6 +4,7 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.MessageSourceResolvable;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -17,8 +18,14 @@ import org.springframework.web.servlet.mvc.support.DefaultHandlerExceptionResolv
 import ru.edalik.electronics.store.user.service.model.dto.exception.ErrorDto;
 import ru.edalik.electronics.store.user.service.model.dto.exception.ValidationErrorDto;
 import ru.edalik.electronics.store.user.service.model.dto.exception.ValidationErrorFieldDto;
+import ru.edalik.electronics.store.user.service.model.exception.HoldNotActiveException;
+import ru.edalik.electronics.store.user.service.model.exception.IdempotencyKeyReusedException;
+import ru.edalik.electronics.store.user.service.model.exception.ImportJobConflictException;
 import ru.edalik.electronics.store.user.service.model.exception.InsufficientFunds;
+import ru.edalik.electronics.store.user.service.model.exception.InvalidCursorException;
+import ru.edalik.electronics.store.user.service.model.exception.InvalidImportFileException;
 import ru.edalik.electronics.store.user.service.model.exception.NotFoundException;
+import ru.edalik.electronics.store.user.service.model.exception.PreconditionFailedException;
 
 import java.time.ZonedDateTime;
 import java.util.ArrayList;
@@ -92,6 +99,71 @@ public class GlobalExceptionHandler extends DefaultHandlerExceptionResolver {
         return new ResponseEntity<>(errorDto, HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(value = InvalidCursorException.class)
+    public ResponseEntity<ErrorDto> handleInvalidCursor(InvalidCursorException ex, HttpServletRequest request) {
+        ErrorDto errorDto = getErrorDto(HttpStatus.BAD_REQUEST, ex, request);
+        log.warn("Invalid Cursor: {}", errorDto);
+
+        return new ResponseEntity<>(errorDto, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(value = InvalidImportFileException.class)
+    public ResponseEntity<ErrorDto> handleInvalidImportFile(InvalidImportFileException ex, HttpServletRequest request) {
+        ErrorDto errorDto = getErrorDto(HttpStatus.BAD_REQUEST, ex, request);
+        log.warn("Invalid Import File: {}", errorDto);
+
+        return new ResponseEntity<>(errorDto, HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(value = ImportJobConflictException.class)
+    public ResponseEntity<ErrorDto> handleImportJobConflict(ImportJobConflictException ex, HttpServletRequest request) {
+        ErrorDto errorDto = getErrorDto(HttpStatus.CONFLICT, ex, request);
+        log.warn("Import Job Conflict: {}", errorDto);
+
+        return new ResponseEntity<>(errorDto, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(value = IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorDto> handleIdempotencyKeyReused(
+        IdempotencyKeyReusedException ex,
+        HttpServletRequest request
+    ) {
+        ErrorDto errorDto = getErrorDto(HttpStatus.CONFLICT, ex, request);
+        log.warn("Idempotency Key Reused: {}", errorDto);
+
+        return new ResponseEntity<>(errorDto, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(value = HoldNotActiveException.class)
+    public ResponseEntity<ErrorDto> handleHoldNotActive(HoldNotActiveException ex, HttpServletRequest request) {
+        ErrorDto errorDto = getErrorDto(HttpStatus.CONFLICT, ex, request);
+        log.warn("Hold Not Active: {}", errorDto);
+
+        return new ResponseEntity<>(errorDto, HttpStatus.CONFLICT);
+    }
+
+    @ExceptionHandler(value = PreconditionFailedException.class)
+    public ResponseEntity<ErrorDto> handlePreconditionFailed(
+        PreconditionFailedException ex,
+        HttpServletRequest request
+    ) {
+        ErrorDto errorDto = getErrorDto(HttpStatus.PRECONDITION_FAILED, ex, request);
+        log.warn("Precondition Failed: {}", errorDto);
+
+        return new ResponseEntity<>(errorDto, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(value = OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorDto> handleOptimisticLockingFailure(
+        OptimisticLockingFailureException ex,
+        HttpServletRequest request
+    ) {
+        ErrorDto errorDto = getErrorDto(HttpStatus.CONFLICT, ex, request);
+        log.warn("Optimistic Locking Failure: {}", errorDto);
+
+        return new ResponseEntity<>(errorDto, HttpStatus.CONFLICT);
+    }
+
     private static ErrorDto getErrorDto(HttpStatus status, Exception ex, HttpServletRequest request) {
         return ErrorDto.builder()
             .timestamp(ZonedDateTime.now())
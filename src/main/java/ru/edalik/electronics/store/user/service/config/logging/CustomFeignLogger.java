@@ -3,12 +3,21 @@ package ru.edalik.electronics.store.user.service.config.logging;
 import feign.Logger;
 import feign.Request;
 import feign.Response;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
 
+import java.io.FilterInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 @Slf4j
+@RequiredArgsConstructor
 public class CustomFeignLogger extends Logger {
 
     private static final String REQUEST_LOG = "Feign client request: {}";
@@ -21,6 +30,8 @@ public class CustomFeignLogger extends Logger {
     private static final String RESPONSE_BODY = "response.body";
     private static final String RESPONSE_STATUS = "response.status";
 
+    private final int maxBodySize;
+
     @Override
     protected void log(String configKey, String format, Object... args) {
         // not implemented because: spamming logs
@@ -28,17 +39,22 @@ public class CustomFeignLogger extends Logger {
 
     @Override
     protected void logRequest(String configKey, Level logLevel, Request request) {
-        byte[] reqBody = request.body() != null ? request.body() : new byte[0];
+        if (!log.isInfoEnabled()) {
+            return;
+        }
+
         String url = "%s %s".formatted(request.httpMethod(), request.url());
+        Charset charset = request.charset() != null ? request.charset() : StandardCharsets.UTF_8;
 
         MDC.put(REQUEST_URL, url);
         MDC.put(REQUEST_METHOD, request.httpMethod().name());
-        MDC.put(REQUEST_BODY, new String(reqBody));
+        MDC.put(REQUEST_BODY, prefix(request.body(), request.body() != null ? request.body().length : 0, charset));
         MDC.put(REQUEST_HEADERS, request.headers().toString());
 
         log.info(REQUEST_LOG, url);
 
         MDC.remove(REQUEST_URL);
+        MDC.remove(REQUEST_METHOD);
         MDC.remove(REQUEST_BODY);
         MDC.remove(REQUEST_HEADERS);
     }
@@ -49,21 +65,26 @@ public class CustomFeignLogger extends Logger {
         Level logLevel,
         Response response,
         long elapsedTime
-    ) throws IOException {
-        byte[] resBody = response.body() != null ? response.body().asInputStream().readAllBytes() : new byte[0];
+    ) {
+        if (!log.isInfoEnabled()) {
+            return response;
+        }
 
-        logResponse(response, resBody);
+        if (response.body() == null) {
+            logResponse(response, "");
+            return response;
+        }
 
         return response.toBuilder()
-            .body(resBody)
+            .body(new TeeBody(response))
             .build();
     }
 
-    protected void logResponse(Response response, byte[] resBody) {
+    protected void logResponse(Response response, String resBody) {
         String url = "%s %s".formatted(response.request().httpMethod(), response.request().url());
         MDC.put(REQUEST_URL, url);
         MDC.put(RESPONSE_HEADERS, response.headers().toString());
-        MDC.put(RESPONSE_BODY, new String(resBody));
+        MDC.put(RESPONSE_BODY, resBody);
         MDC.put(RESPONSE_STATUS, String.valueOf(response.status()));
 
         log.info(RESPONSE_LOG, url);
@@ -74,4 +95,136 @@ public class CustomFeignLogger extends Logger {
         MDC.remove(RESPONSE_STATUS);
     }
 
-}
\ No newline at end of file
+    private String prefix(byte[] body, int length, Charset charset) {
+        if (body == null) {
+            return "";
+        }
+
+        return new String(body, 0, Math.min(length, maxBodySize), charset);
+    }
+
+    private class TeeBody implements Response.Body {
+
+        private final Response response;
+
+        private final Response.Body delegate;
+
+        private CapturingInputStream inputStream;
+
+        private boolean logged;
+
+        TeeBody(Response response) {
+            this.response = response;
+            this.delegate = response.body();
+        }
+
+        @Override
+        public Integer length() {
+            return delegate.length();
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return false;
+        }
+
+        @Override
+        public InputStream asInputStream() throws IOException {
+            if (inputStream == null) {
+                inputStream = new CapturingInputStream(delegate.asInputStream());
+            }
+
+            return inputStream;
+        }
+
+        @Override
+        public Reader asReader(Charset charset) throws IOException {
+            return new InputStreamReader(asInputStream(), charset);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                delegate.close();
+            } finally {
+                logOnce();
+            }
+        }
+
+        private void logOnce() {
+            if (logged) {
+                return;
+            }
+
+            logged = true;
+            logResponse(response, inputStream != null ? inputStream.captured(response.charset()) : "");
+        }
+
+        private class CapturingInputStream extends FilterInputStream {
+
+            private byte[] captured;
+
+            private int capturedLength;
+
+            CapturingInputStream(InputStream in) {
+                super(in);
+            }
+
+            @Override
+            public int read() throws IOException {
+                int value = super.read();
+                if (value >= 0 && capturedLength < maxBodySize) {
+                    buffer(1)[capturedLength++] = (byte) value;
+                }
+
+                return value;
+            }
+
+            @Override
+            public int read(byte[] bytes, int offset, int length) throws IOException {
+                int read = super.read(bytes, offset, length);
+                int toCapture = Math.min(read, maxBodySize - capturedLength);
+                if (toCapture > 0) {
+                    System.arraycopy(bytes, offset, buffer(toCapture), capturedLength, toCapture);
+                    capturedLength += toCapture;
+                }
+
+                return read;
+            }
+
+            @Override
+            public boolean markSupported() {
+                return false;
+            }
+
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    logOnce();
+                }
+            }
+
+            String captured(Charset charset) {
+                return prefix(captured, capturedLength, charset);
+            }
+
+            private byte[] buffer(int required) {
+                if (captured == null) {
+                    captured = new byte[Math.min(maxBodySize, Math.max(required, 512))];
+                } else if (captured.length < capturedLength + required) {
+                    captured = Arrays.copyOf(
+                        captured,
+                        Math.min(maxBodySize, Math.max(captured.length * 2, capturedLength + required))
+                    );
+                }
+
+                return captured;
+            }
+
+        }
+
+    }
+
+}
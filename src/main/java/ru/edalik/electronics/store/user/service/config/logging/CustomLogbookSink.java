@@ -1,20 +1,32 @@
 package ru.edalik.electronics.store.user.service.config.logging;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.MDC;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.springframework.context.SmartLifecycle;
 import org.zalando.logbook.Correlation;
 import org.zalando.logbook.HttpRequest;
 import org.zalando.logbook.HttpResponse;
 import org.zalando.logbook.Precorrelation;
 import org.zalando.logbook.Sink;
+import ru.edalik.electronics.store.user.service.config.properties.HttpLoggingProperties;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
-@RequiredArgsConstructor
-public class CustomLogbookSink implements Sink {
+public class CustomLogbookSink implements Sink, SmartLifecycle {
 
+    private static final String REQUEST_LOG = "Request: {} {}";
+    private static final String RESPONSE_LOG = "Response: {} (Duration: {} ms)";
     private static final String REQUEST_URL = "request.url";
     private static final String REQUEST_METHOD = "request.method";
     private static final String REQUEST_HEADERS = "request.headers";
@@ -23,41 +35,188 @@ public class CustomLogbookSink implements Sink {
     private static final String RESPONSE_HEADERS = "response.headers";
     private static final String RESPONSE_BODY = "response.body";
     private static final String RESPONSE_STATUS = "response.status";
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final int PHASE = WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE - 1;
 
-    private final Sink delegate;
+    private final BlockingQueue<Object> queue;
+
+    private final int batchSize;
+
+    private final Duration shutdownTimeout;
+
+    private final Counter dropped;
+
+    private volatile boolean running;
+
+    private Thread writer;
+
+    public CustomLogbookSink(HttpLoggingProperties properties, MeterRegistry meterRegistry) {
+        this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+        this.batchSize = properties.batchSize();
+        this.shutdownTimeout = properties.shutdownTimeout();
+        this.dropped = meterRegistry.counter("http.logging.dropped");
+
+        meterRegistry.gauge("http.logging.queue.size", queue, BlockingQueue::size);
+    }
+
+    @Override
+    public boolean isActive() {
+        return log.isInfoEnabled();
+    }
 
     @Override
     public void write(Precorrelation precorrelation, HttpRequest request) throws IOException {
+        enqueue(
+            new RequestEvent(
+                request.getRequestUri(),
+                request.getMethod(),
+                request.getHeaders().toString(),
+                request.getBodyAsString(),
+                request.getRemote(),
+                MDC.getCopyOfContextMap()
+            )
+        );
+    }
+
+    @Override
+    public void write(Correlation correlation, HttpRequest request, HttpResponse response) throws IOException {
+        enqueue(
+            new ResponseEvent(
+                request.getRequestUri(),
+                response.getStatus(),
+                correlation.getDuration().toMillis(),
+                response.getHeaders().toString(),
+                response.getBodyAsString(),
+                MDC.getCopyOfContextMap()
+            )
+        );
+    }
+
+    public long getDroppedCount() {
+        return (long) dropped.count();
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        writer = new Thread(this::drain, "http-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
         try {
-            MDC.put(REQUEST_URL, request.getRequestUri());
-            MDC.put(REQUEST_METHOD, request.getMethod());
-            MDC.put(REQUEST_HEADERS, request.getHeaders().toString());
-            MDC.put(REQUEST_BODY, request.getBodyAsString());
-            MDC.put(REQUEST_CLIENT_IP, request.getRemote());
+            writer.join(shutdownTimeout.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
 
-            delegate.write(precorrelation, request);
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void enqueue(Object event) {
+        if (!queue.offer(event)) {
+            dropped.increment();
+        }
+    }
+
+    private void drain() {
+        List<Object> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Object first = queue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                batch.forEach(this::writeEvent);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void writeEvent(Object event) {
+        try {
+            if (event instanceof RequestEvent request) {
+                writeRequest(request);
+            } else if (event instanceof ResponseEvent response) {
+                writeResponse(response);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Couldn't write HTTP log event: {}", e.getMessage());
+        }
+    }
+
+    private void writeRequest(RequestEvent request) {
+        try {
+            restoreContext(request.context());
+            MDC.put(REQUEST_URL, request.url());
+            MDC.put(REQUEST_METHOD, request.method());
+            MDC.put(REQUEST_HEADERS, request.headers());
+            MDC.put(REQUEST_BODY, request.body());
+            MDC.put(REQUEST_CLIENT_IP, request.clientIp());
+
+            log.info(REQUEST_LOG, request.method(), request.url());
         } finally {
-            MDC.remove(REQUEST_URL);
-            MDC.remove(REQUEST_METHOD);
-            MDC.remove(REQUEST_HEADERS);
-            MDC.remove(REQUEST_BODY);
-            MDC.remove(REQUEST_CLIENT_IP);
+            MDC.clear();
         }
     }
 
-    @Override
-    public void write(Correlation correlation, HttpRequest request, HttpResponse response) throws IOException {
+    private void writeResponse(ResponseEvent response) {
         try {
-            MDC.put(RESPONSE_STATUS, String.valueOf(response.getStatus()));
-            MDC.put(RESPONSE_HEADERS, response.getHeaders().toString());
-            MDC.put(RESPONSE_BODY, response.getBodyAsString());
+            restoreContext(response.context());
+            MDC.put(REQUEST_URL, response.url());
+            MDC.put(RESPONSE_STATUS, String.valueOf(response.status()));
+            MDC.put(RESPONSE_HEADERS, response.headers());
+            MDC.put(RESPONSE_BODY, response.body());
 
-            delegate.write(correlation, request, response);
+            log.info(RESPONSE_LOG, response.status(), response.durationMillis());
         } finally {
-            MDC.remove(RESPONSE_STATUS);
-            MDC.remove(RESPONSE_HEADERS);
-            MDC.remove(RESPONSE_BODY);
+            MDC.clear();
+        }
+    }
+
+    private void restoreContext(Map<String, String> context) {
+        if (context != null) {
+            MDC.setContextMap(context);
         }
     }
 
-}
\ No newline at end of file
+    private record RequestEvent(
+        String url,
+        String method,
+        String headers,
+        String body,
+        String clientIp,
+        Map<String, String> context
+    ) {
+
+    }
+
+    private record ResponseEvent(
+        String url,
+        int status,
+        long durationMillis,
+        String headers,
+        String body,
+        Map<String, String> context
+    ) {
+
+    }
+
+}
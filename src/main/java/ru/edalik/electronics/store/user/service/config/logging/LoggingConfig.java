@@ -1,34 +1,28 @@
 package ru.edalik.electronics.store.user.service.config.logging;
 
 import feign.Logger;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.filter.AbstractRequestLoggingFilter;
-import org.springframework.web.filter.CommonsRequestLoggingFilter;
 import org.zalando.logbook.Logbook;
-import org.zalando.logbook.core.DefaultHttpLogWriter;
-import org.zalando.logbook.core.DefaultSink;
+import org.zalando.logbook.core.BodyFilters;
+import ru.edalik.electronics.store.user.service.config.properties.HttpLoggingProperties;
 
 @Configuration
 public class LoggingConfig {
 
     @Bean
-    public Logbook logbook() {
-        DefaultSink defaultSink = new DefaultSink(new CustomHttpLogFormatter(), new DefaultHttpLogWriter());
-
-        return Logbook.builder()
-            .sink(new CustomLogbookSink(defaultSink))
-            .build();
+    public CustomLogbookSink logbookSink(HttpLoggingProperties properties, MeterRegistry meterRegistry) {
+        return new CustomLogbookSink(properties, meterRegistry);
     }
 
     @Bean
-    public AbstractRequestLoggingFilter logFilter() {
-        AbstractRequestLoggingFilter filter = new CommonsRequestLoggingFilter();
-        filter.setIncludeQueryString(true);
-        filter.setIncludePayload(true);
-        filter.setMaxPayloadLength(100000);
-        filter.setIncludeHeaders(true);
-        return filter;
+    public Logbook logbook(CustomLogbookSink logbookSink, HttpLoggingProperties properties) {
+        return Logbook.builder()
+            .condition(new RouteSamplingCondition(properties.sampleRate(), properties.routeSampleRates()))
+            .bodyFilter(BodyFilters.truncate(properties.maxBodySize()))
+            .sink(logbookSink)
+            .build();
     }
 
     @Bean
@@ -37,8 +31,8 @@ public class LoggingConfig {
     }
 
     @Bean
-    public Logger feignLogger() {
-        return new CustomFeignLogger();
+    public Logger feignLogger(HttpLoggingProperties properties) {
+        return new CustomFeignLogger(properties.maxBodySize());
     }
 
-}
\ No newline at end of file
+}
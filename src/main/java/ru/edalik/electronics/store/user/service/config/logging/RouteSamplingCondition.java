@@ -0,0 +1,47 @@
+package ru.edalik.electronics.store.user.service.config.logging;
+
+import org.zalando.logbook.HttpRequest;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+
+public class RouteSamplingCondition implements Predicate<HttpRequest> {
+
+    private final double defaultRate;
+
+    private final List<Map.Entry<String, Double>> routeRates;
+
+    public RouteSamplingCondition(double defaultRate, Map<String, Double> routeRates) {
+        this.defaultRate = defaultRate;
+        this.routeRates = routeRates.entrySet().stream()
+            .sorted(Comparator.comparingInt((Map.Entry<String, Double> route) -> route.getKey().length()).reversed())
+            .toList();
+    }
+
+    @Override
+    public boolean test(HttpRequest request) {
+        double rate = rateFor(request.getPath());
+        if (rate >= 1) {
+            return true;
+        }
+        if (rate <= 0) {
+            return false;
+        }
+
+        return ThreadLocalRandom.current().nextDouble() < rate;
+    }
+
+    double rateFor(String path) {
+        for (Map.Entry<String, Double> route : routeRates) {
+            if (path.startsWith(route.getKey())) {
+                return route.getValue();
+            }
+        }
+
+        return defaultRate;
+    }
+
+}
@@ -0,0 +1,56 @@
+package ru.edalik.electronics.store.user.service.config.metrics;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationFilter;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import ru.edalik.electronics.store.user.service.model.exception.HoldNotActiveException;
+import ru.edalik.electronics.store.user.service.model.exception.IdempotencyKeyReusedException;
+import ru.edalik.electronics.store.user.service.model.exception.InsufficientFunds;
+import ru.edalik.electronics.store.user.service.model.exception.NotFoundException;
+import ru.edalik.electronics.store.user.service.model.exception.PreconditionFailedException;
+
+import java.util.Set;
+
+@Component
+public class OperationOutcomeObservationFilter implements ObservationFilter {
+
+    public static final String BALANCE_OPERATION = "balance.operation";
+    public static final String USER_OPERATION = "user.operation";
+    public static final String OPERATION_TAG = "operation";
+
+    static final String OUTCOME_TAG = "outcome";
+
+    private static final Set<String> OBSERVATIONS = Set.of(BALANCE_OPERATION, USER_OPERATION);
+
+    @Override
+    public Observation.Context map(Observation.Context context) {
+        if (!OBSERVATIONS.contains(context.getName())) {
+            return context;
+        }
+
+        return context.addLowCardinalityKeyValue(KeyValue.of(OUTCOME_TAG, outcome(context.getError())));
+    }
+
+    static String outcome(Throwable error) {
+        if (error == null) {
+            return "ok";
+        }
+        if (error instanceof NotFoundException) {
+            return "not_found";
+        }
+        if (error instanceof InsufficientFunds) {
+            return "insufficient_funds";
+        }
+        if (error instanceof OptimisticLockingFailureException
+            || error instanceof PreconditionFailedException
+            || error instanceof HoldNotActiveException
+            || error instanceof IdempotencyKeyReusedException) {
+            return "conflict";
+        }
+
+        return "error";
+    }
+
+}
@@ -0,0 +1,35 @@
+package ru.edalik.electronics.store.user.service.config.metrics;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import ru.edalik.electronics.store.user.service.service.metrics.DatabaseMetrics;
+
+@Configuration
+public class RepositoryMetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor databaseMetricsPostProcessor(
+        ObjectProvider<DatabaseMetrics> databaseMetrics
+    ) {
+        return new BeanPostProcessor() {
+
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactoryBean) {
+                    repositoryFactoryBean.addRepositoryFactoryCustomizer(
+                        factory -> factory.addInvocationListener(
+                            invocation -> databaseMetrics.getObject().afterInvocation(invocation)
+                        )
+                    );
+                }
+
+                return bean;
+            }
+
+        };
+    }
+
+}
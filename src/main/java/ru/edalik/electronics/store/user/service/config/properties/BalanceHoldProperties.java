@@ -0,0 +1,23 @@
+package ru.edalik.electronics.store.user.service.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "balance.holds")
+public record BalanceHoldProperties(
+    @DefaultValue("15m")
+    Duration defaultTtl,
+
+    @DefaultValue("1h")
+    Duration maxTtl,
+
+    @DefaultValue("true")
+    boolean reaperEnabled,
+
+    @DefaultValue("500")
+    int reapBatchSize
+) {
+
+}
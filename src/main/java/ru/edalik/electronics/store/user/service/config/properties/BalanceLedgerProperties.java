@@ -0,0 +1,17 @@
+package ru.edalik.electronics.store.user.service.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "balance.ledger")
+public record BalanceLedgerProperties(
+    @DefaultValue("500")
+    int compactionBatchSize,
+
+    @DefaultValue("1m")
+    Duration settleDelay
+) {
+
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package ru.edalik.electronics.store.user.service.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "cache.invalidation")
+public record CacheInvalidationProperties(
+    @DefaultValue("false")
+    boolean enabled,
+
+    @DefaultValue("500ms")
+    Duration pollTimeout,
+
+    @DefaultValue("5s")
+    Duration reconnectDelay
+) {
+
+}
\ No newline at end of file
@@ -0,0 +1,20 @@
+package ru.edalik.electronics.store.user.service.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "balance.coalescing")
+public record DepositCoalescingProperties(
+    @DefaultValue("false")
+    boolean enabled,
+
+    @DefaultValue("5ms")
+    Duration window,
+
+    @DefaultValue("64")
+    int maxOperations
+) {
+
+}
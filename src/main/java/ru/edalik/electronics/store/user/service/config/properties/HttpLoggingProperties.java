@@ -0,0 +1,33 @@
+package ru.edalik.electronics.store.user.service.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+
+@ConfigurationProperties(prefix = "http-logging")
+public record HttpLoggingProperties(
+    @DefaultValue("8192")
+    int queueCapacity,
+
+    @DefaultValue("256")
+    int batchSize,
+
+    @DefaultValue("4096")
+    int maxBodySize,
+
+    @DefaultValue("1.0")
+    double sampleRate,
+
+    Map<String, Double> routeSampleRates,
+
+    @DefaultValue("5s")
+    Duration shutdownTimeout
+) {
+
+    public HttpLoggingProperties {
+        routeSampleRates = routeSampleRates == null ? Map.of() : Map.copyOf(routeSampleRates);
+    }
+
+}
@@ -0,0 +1,20 @@
+package ru.edalik.electronics.store.user.service.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "idempotency")
+public record IdempotencyProperties(
+    @DefaultValue("10000")
+    long cacheMaximumSize,
+
+    @DefaultValue("10m")
+    Duration cacheTtl,
+
+    @DefaultValue("24h")
+    Duration retention
+) {
+
+}
\ No newline at end of file
@@ -0,0 +1,23 @@
+package ru.edalik.electronics.store.user.service.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "security.jwt")
+public record JwtDecoderProperties(
+    @DefaultValue("10000")
+    long cacheMaximumSize,
+
+    @DefaultValue("30s")
+    Duration expirySkew,
+
+    @DefaultValue("5m")
+    Duration jwksRefreshInterval,
+
+    @DefaultValue("30s")
+    Duration jwksMinRefreshInterval
+) {
+
+}
@@ -0,0 +1,20 @@
+package ru.edalik.electronics.store.user.service.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "optimistic-lock")
+public record OptimisticLockProperties(
+    @DefaultValue("3")
+    int maxAttempts,
+
+    @DefaultValue("10ms")
+    Duration initialBackoff,
+
+    @DefaultValue("200ms")
+    Duration maxBackoff
+) {
+
+}
@@ -0,0 +1,21 @@
+package ru.edalik.electronics.store.user.service.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "outbox")
+public record OutboxProperties(
+    @DefaultValue("false")
+    boolean relayEnabled,
+
+    @DefaultValue("100")
+    int batchSize,
+
+    @DefaultValue("file")
+    String publisher,
+
+    @DefaultValue("outbox/events.ndjson")
+    String filePath
+) {
+
+}
@@ -0,0 +1,32 @@
+package ru.edalik.electronics.store.user.service.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "replica")
+public record ReplicaProperties(
+    @DefaultValue("false")
+    boolean enabled,
+
+    String url,
+
+    String username,
+
+    String password,
+
+    @DefaultValue("5s")
+    Duration pinDuration,
+
+    @DefaultValue("100000")
+    int pinnedUsersMaximumSize,
+
+    @DefaultValue("1s")
+    Duration maxLag,
+
+    @DefaultValue("1s")
+    Duration validationTimeout
+) {
+
+}
@@ -0,0 +1,17 @@
+package ru.edalik.electronics.store.user.service.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "cache.users")
+public record UserCacheProperties(
+    @DefaultValue("10000")
+    long maximumSize,
+
+    @DefaultValue("5m")
+    Duration ttl
+) {
+
+}
\ No newline at end of file
@@ -0,0 +1,12 @@
+package ru.edalik.electronics.store.user.service.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+@ConfigurationProperties(prefix = "export.users")
+public record UserExportProperties(
+    @DefaultValue("1000")
+    int fetchSize
+) {
+
+}
@@ -0,0 +1,17 @@
+package ru.edalik.electronics.store.user.service.config.properties;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.nio.file.Path;
+
+@ConfigurationProperties(prefix = "import.users")
+public record UserImportProperties(
+    @DefaultValue("import")
+    Path directory,
+
+    @DefaultValue("5000")
+    int chunkSize
+) {
+
+}
@@ -0,0 +1,249 @@
+package ru.edalik.electronics.store.user.service.controller;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.edalik.electronics.store.user.service.mapper.UserImportJobMapper;
+import ru.edalik.electronics.store.user.service.model.dto.UserDto;
+import ru.edalik.electronics.store.user.service.model.dto.UserImportJobDto;
+import ru.edalik.electronics.store.user.service.model.dto.UserImportRequestDto;
+import ru.edalik.electronics.store.user.service.model.dto.UserPageDto;
+import ru.edalik.electronics.store.user.service.model.dto.exception.ErrorDto;
+import ru.edalik.electronics.store.user.service.model.dto.exception.ValidationErrorDto;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserExportService;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserImportService;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserSearchService;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+import java.util.zip.GZIPOutputStream;
+
+import static ru.edalik.electronics.store.user.service.config.SecurityConfig.ADMIN_ROLE;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/admin/users")
+@Tag(name = "Admin User Controller", description = "API администрирования пользователей")
+public class AdminUserController {
+
+    static final String GZIP = "gzip";
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final UserSearchService userSearchService;
+
+    private final UserExportService userExportService;
+
+    private final UserImportService userImportService;
+
+    private final UserImportJobMapper userImportJobMapper;
+
+    private final ObjectMapper objectMapper;
+
+    @Operation(
+        summary = "Поиск пользователей",
+        description = "Ищет пользователей по подстроке логина, email, номера телефона, имени и фамилии. "
+            + "Страницы упорядочены от новых пользователей к старым и запрашиваются по курсору. "
+            + "Доступно только администраторам"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Страница пользователей",
+        content = @Content(schema = @Schema(implementation = UserPageDto.class))
+    )
+    @ApiResponse(
+        responseCode = "400",
+        description = "Невалидные входные данные",
+        content = @Content(schema = @Schema(implementation = ValidationErrorDto.class))
+    )
+    @ApiResponse(
+        responseCode = "403",
+        description = "Недостаточно прав"
+    )
+    @Secured(ADMIN_ROLE)
+    @GetMapping
+    public UserPageDto search(
+        @Parameter(description = "Подстрока для поиска (от 3 символов)", example = "ivanov")
+        @RequestParam(required = false) @Size(min = 3, max = 100) String query,
+        @Parameter(description = "Курсор следующей страницы из предыдущего ответа")
+        @RequestParam(required = false) String cursor,
+        @Parameter(description = "Размер страницы (макс. 200)", example = "50")
+        @RequestParam(defaultValue = "50") @Min(1) @Max(200) int limit
+    ) {
+        return userSearchService.search(query, cursor, limit);
+    }
+
+    @Operation(
+        summary = "Выгрузка пользователей",
+        description = "Потоково выгружает всех пользователей в формате NDJSON, по одному пользователю на строку. "
+            + "При Accept-Encoding: gzip ответ сжимается. Доступно только администраторам"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Выгрузка пользователей",
+        content = @Content(
+            mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+            schema = @Schema(implementation = UserDto.class)
+        )
+    )
+    @ApiResponse(
+        responseCode = "403",
+        description = "Недостаточно прав"
+    )
+    @Secured(ADMIN_ROLE)
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(
+        @Parameter(description = "Выгрузить только пользователей, измененных начиная с указанного момента")
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime updatedSince,
+        @Parameter(hidden = true)
+        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains(GZIP);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(wrap(outputStream, gzip))) {
+                generator.setRootValueSeparator(null);
+                userExportService.export(updatedSince, user -> writeLine(generator, user));
+            }
+        };
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, GZIP);
+        }
+
+        return response.body(body);
+    }
+
+    @Operation(
+        summary = "Запуск импорта пользователей",
+        description = "Запускает фоновый импорт пользователей из файла CSV или NDJSON в каталоге импорта. "
+            + "Существующим пользователям заполняются только пустые поля. Доступно только администраторам"
+    )
+    @ApiResponse(
+        responseCode = "202",
+        description = "Импорт запущен",
+        content = @Content(schema = @Schema(implementation = UserImportJobDto.class))
+    )
+    @ApiResponse(
+        responseCode = "400",
+        description = "Невалидные входные данные или файл недоступен",
+        content = @Content(schema = @Schema(implementation = ErrorDto.class))
+    )
+    @ApiResponse(
+        responseCode = "403",
+        description = "Недостаточно прав"
+    )
+    @Secured(ADMIN_ROLE)
+    @PostMapping("/import")
+    public ResponseEntity<UserImportJobDto> startImport(@RequestBody @Valid UserImportRequestDto request) {
+        return new ResponseEntity<>(
+            userImportJobMapper.toDto(userImportService.start(request.fileName(), request.format())),
+            HttpStatus.ACCEPTED
+        );
+    }
+
+    @Operation(
+        summary = "Возобновление импорта пользователей",
+        description = "Продолжает прерванный импорт с последней сохраненной контрольной точки. "
+            + "Доступно только администраторам"
+    )
+    @ApiResponse(
+        responseCode = "202",
+        description = "Импорт возобновлен",
+        content = @Content(schema = @Schema(implementation = UserImportJobDto.class))
+    )
+    @ApiResponse(
+        responseCode = "403",
+        description = "Недостаточно прав"
+    )
+    @ApiResponse(
+        responseCode = "404",
+        description = "Импорт не найден",
+        content = @Content(schema = @Schema(implementation = ErrorDto.class))
+    )
+    @ApiResponse(
+        responseCode = "409",
+        description = "Импорт уже выполняется или завершен",
+        content = @Content(schema = @Schema(implementation = ErrorDto.class))
+    )
+    @Secured(ADMIN_ROLE)
+    @PostMapping("/import/{id}/resume")
+    public ResponseEntity<UserImportJobDto> resumeImport(
+        @Parameter(description = "Идентификатор импорта")
+        @PathVariable UUID id
+    ) {
+        return new ResponseEntity<>(userImportJobMapper.toDto(userImportService.resume(id)), HttpStatus.ACCEPTED);
+    }
+
+    @Operation(
+        summary = "Состояние импорта пользователей",
+        description = "Возвращает прогресс импорта: количество обработанных, импортированных, пропущенных "
+            + "и отклоненных строк и скорость обработки. Доступно только администраторам"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Состояние импорта",
+        content = @Content(schema = @Schema(implementation = UserImportJobDto.class))
+    )
+    @ApiResponse(
+        responseCode = "403",
+        description = "Недостаточно прав"
+    )
+    @ApiResponse(
+        responseCode = "404",
+        description = "Импорт не найден",
+        content = @Content(schema = @Schema(implementation = ErrorDto.class))
+    )
+    @Secured(ADMIN_ROLE)
+    @GetMapping("/import/{id}")
+    public UserImportJobDto getImport(
+        @Parameter(description = "Идентификатор импорта")
+        @PathVariable UUID id
+    ) {
+        return userImportJobMapper.toDto(userImportService.get(id));
+    }
+
+    private static OutputStream wrap(OutputStream outputStream, boolean gzip) throws IOException {
+        return gzip ? new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE) : outputStream;
+    }
+
+    private static void writeLine(JsonGenerator generator, UserDto user) {
+        try {
+            generator.writeObject(user);
+            generator.writeRaw('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
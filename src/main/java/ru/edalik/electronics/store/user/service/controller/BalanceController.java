@@ -1,21 +1,44 @@
 package ru.edalik.electronics.store.user.service.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.validator.constraints.Length;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import ru.edalik.electronics.store.user.service.mapper.BalanceHoldMapper;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceBatchDto;
 import ru.edalik.electronics.store.user.service.model.dto.BalanceDto;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceHoldDto;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceHoldRequestDto;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceOperationResultDto;
+import ru.edalik.electronics.store.user.service.model.dto.UserRevisionDto;
 import ru.edalik.electronics.store.user.service.model.dto.exception.ErrorDto;
+import ru.edalik.electronics.store.user.service.model.enums.BalanceOperation;
+import ru.edalik.electronics.store.user.service.service.interfaces.BalanceHoldService;
 import ru.edalik.electronics.store.user.service.service.interfaces.BalanceService;
+import ru.edalik.electronics.store.user.service.service.interfaces.IdempotencyService;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserRevisionService;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @RestController
 @RequiredArgsConstructor
@@ -23,25 +46,62 @@ import ru.edalik.electronics.store.user.service.service.interfaces.BalanceServic
 @Tag(name = "Balance Controller", description = "API для взаимодействия с балансом пользователя")
 public class BalanceController {
 
+    public static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final BalanceService balanceService;
 
+    private final UserRevisionService userRevisionService;
+
+    private final BalanceHoldService balanceHoldService;
+
+    private final BalanceHoldMapper balanceHoldMapper;
+
+    private final IdempotencyService idempotencyService;
+
     @Operation(
         summary = "Получение баланса пользователя",
-        description = "Возвращает баланс пользователя"
+        description = "Возвращает баланс пользователя. Поддерживает условные запросы If-None-Match и If-Modified-Since"
     )
     @ApiResponse(
         responseCode = "200",
         description = "Пользователь найден",
         content = @Content(schema = @Schema(implementation = BalanceDto.class))
     )
+    @ApiResponse(
+        responseCode = "304",
+        description = "Баланс не изменился с момента, указанного в условном заголовке"
+    )
     @ApiResponse(
         responseCode = "404",
         description = "Пользователь не найден",
         content = @Content(schema = @Schema(implementation = ErrorDto.class))
     )
     @GetMapping
-    public ResponseEntity<BalanceDto> getUserBalance() {
-        return new ResponseEntity<>(new BalanceDto(balanceService.getBalance()), HttpStatus.OK);
+    public ResponseEntity<BalanceDto> getUserBalance(@RequestHeader HttpHeaders headers) {
+        Optional<UserRevisionDto> revision = EntityTags.isConditional(headers)
+            ? userRevisionService.getRevision()
+            : Optional.empty();
+        if (revision.isEmpty()) {
+            BigDecimal balance = balanceService.getBalance();
+
+            return ResponseEntity.ok()
+                .eTag(EntityTags.balance(balance))
+                .body(new BalanceDto(balance));
+        }
+
+        String etag = EntityTags.balance(revision.get().balance());
+        Instant modifiedTime = revision.get().balanceModifiedTime();
+        if (EntityTags.isNotModified(headers, etag, modifiedTime)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .lastModified(modifiedTime)
+                .build();
+        }
+
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .lastModified(modifiedTime)
+            .body(new BalanceDto(revision.get().balance()));
     }
 
     @Operation(
@@ -57,9 +117,23 @@ public class BalanceController {
         description = "Пользователь не найден",
         content = @Content(schema = @Schema(implementation = ErrorDto.class))
     )
+    @ApiResponse(
+        responseCode = "409",
+        description = "Ключ идемпотентности уже использован для другой операции",
+        content = @Content(schema = @Schema(implementation = ErrorDto.class))
+    )
     @PostMapping("/deposit")
-    public ResponseEntity<Void> deposit(@RequestBody BalanceDto dto) {
-        balanceService.deposit(dto);
+    public ResponseEntity<Void> deposit(
+        @RequestBody BalanceDto dto,
+        @Parameter(description = "Ключ идемпотентности, повторный запрос с тем же ключом не изменяет баланс")
+        @RequestHeader(name = IDEMPOTENCY_KEY, required = false) @Length(max = 64) String idempotencyKey
+    ) {
+        idempotencyService.execute(
+            idempotencyKey,
+            BalanceOperation.DEPOSIT,
+            dto.amount(),
+            () -> balanceService.deposit(dto)
+        );
 
         return new ResponseEntity<>(HttpStatus.OK);
     }
@@ -82,11 +156,124 @@ public class BalanceController {
         description = "Пользователь не найден",
         content = @Content(schema = @Schema(implementation = ErrorDto.class))
     )
+    @ApiResponse(
+        responseCode = "409",
+        description = "Ключ идемпотентности уже использован для другой операции",
+        content = @Content(schema = @Schema(implementation = ErrorDto.class))
+    )
     @PostMapping("/payment")
-    public ResponseEntity<Void> payment(@RequestBody BalanceDto dto) {
-        balanceService.payment(dto);
+    public ResponseEntity<Void> payment(
+        @RequestBody BalanceDto dto,
+        @Parameter(description = "Ключ идемпотентности, повторный запрос с тем же ключом не изменяет баланс")
+        @RequestHeader(name = IDEMPOTENCY_KEY, required = false) @Length(max = 64) String idempotencyKey
+    ) {
+        idempotencyService.execute(
+            idempotencyKey,
+            BalanceOperation.PAYMENT,
+            dto.amount(),
+            () -> balanceService.payment(dto)
+        );
 
         return new ResponseEntity<>(HttpStatus.OK);
     }
 
-}
\ No newline at end of file
+    @Operation(
+        summary = "Пакетное изменение счета",
+        description = "Атомарно применяет упорядоченный список пополнений и оплат и возвращает баланс после каждой операции"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Все операции успешно применены",
+        content = @Content(array = @ArraySchema(schema = @Schema(implementation = BalanceOperationResultDto.class)))
+    )
+    @ApiResponse(
+        responseCode = "400",
+        description = "Недостаточно средств для одной из операций или ошибка валидации, ни одна операция не применена",
+        content = @Content(schema = @Schema(implementation = ErrorDto.class))
+    )
+    @ApiResponse(
+        responseCode = "404",
+        description = "Пользователь не найден",
+        content = @Content(schema = @Schema(implementation = ErrorDto.class))
+    )
+    @PostMapping("/batch")
+    public ResponseEntity<List<BalanceOperationResultDto>> batch(@RequestBody @Valid BalanceBatchDto dto) {
+        return new ResponseEntity<>(balanceService.applyBatch(dto.operations()), HttpStatus.OK);
+    }
+
+    @Operation(
+        summary = "Резервирование средств",
+        description = "Создает ограниченный по времени резерв, уменьшающий доступный баланс до подтверждения или отмены"
+    )
+    @ApiResponse(
+        responseCode = "201",
+        description = "Резерв создан",
+        content = @Content(schema = @Schema(implementation = BalanceHoldDto.class))
+    )
+    @ApiResponse(
+        responseCode = "400",
+        description = "Недостаточно доступных средств или ошибка валидации",
+        content = @Content(schema = @Schema(implementation = ErrorDto.class))
+    )
+    @ApiResponse(
+        responseCode = "404",
+        description = "Пользователь не найден",
+        content = @Content(schema = @Schema(implementation = ErrorDto.class))
+    )
+    @PostMapping("/holds")
+    public ResponseEntity<BalanceHoldDto> createHold(@RequestBody @Valid BalanceHoldRequestDto dto) {
+        return new ResponseEntity<>(
+            balanceHoldMapper.toDto(balanceHoldService.create(dto.amount(), dto.ttl())),
+            HttpStatus.CREATED
+        );
+    }
+
+    @Operation(
+        summary = "Подтверждение резерва",
+        description = "Списывает зарезервированную сумму со счета пользователя"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Резерв подтвержден",
+        content = @Content(schema = @Schema(implementation = BalanceHoldDto.class))
+    )
+    @ApiResponse(
+        responseCode = "404",
+        description = "Резерв не найден",
+        content = @Content(schema = @Schema(implementation = ErrorDto.class))
+    )
+    @ApiResponse(
+        responseCode = "409",
+        description = "Резерв уже подтвержден, отменен или истек",
+        content = @Content(schema = @Schema(implementation = ErrorDto.class))
+    )
+    @PostMapping("/holds/{id}/capture")
+    public ResponseEntity<BalanceHoldDto> captureHold(@PathVariable UUID id) {
+        return new ResponseEntity<>(balanceHoldMapper.toDto(balanceHoldService.capture(id)), HttpStatus.OK);
+    }
+
+    @Operation(
+        summary = "Отмена резерва",
+        description = "Возвращает зарезервированную сумму в доступный баланс"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Резерв отменен",
+        content = @Content(schema = @Schema(implementation = BalanceHoldDto.class))
+    )
+    @ApiResponse(
+        responseCode = "404",
+        description = "Резерв не найден",
+        content = @Content(schema = @Schema(implementation = ErrorDto.class))
+    )
+    @ApiResponse(
+        responseCode = "409",
+        description = "Резерв уже подтвержден, отменен или истек",
+        content = @Content(schema = @Schema(implementation = ErrorDto.class))
+    )
+    @PostMapping("/holds/{id}/release")
+    public ResponseEntity<BalanceHoldDto> releaseHold(@PathVariable UUID id) {
+        return new ResponseEntity<>(balanceHoldMapper.toDto(balanceHoldService.release(id)), HttpStatus.OK);
+    }
+
+}
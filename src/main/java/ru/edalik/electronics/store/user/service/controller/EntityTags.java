@@ -0,0 +1,76 @@
+package ru.edalik.electronics.store.user.service.controller;
+
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
+import ru.edalik.electronics.store.user.service.model.exception.PreconditionFailedException;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+final class EntityTags {
+
+    static final String INVALID_IF_MATCH = "If-Match must be * or a single strong entity tag, got: %s";
+
+    private static final String VERSION_SEPARATOR = "-";
+
+    private EntityTags() {
+    }
+
+    static String profile(Long version, BigDecimal balance) {
+        if (version == null) {
+            return null;
+        }
+
+        return new ETag(version + VERSION_SEPARATOR + plain(balance), false).formattedTag();
+    }
+
+    static String balance(BigDecimal balance) {
+        return new ETag(plain(balance), false).formattedTag();
+    }
+
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+
+        List<ETag> tags = ETag.parse(ifMatch);
+        if (tags.stream().anyMatch(ETag::isWildcard)) {
+            return null;
+        }
+        if (tags.size() != 1 || tags.get(0).weak()) {
+            throw new PreconditionFailedException(INVALID_IF_MATCH.formatted(ifMatch));
+        }
+
+        String tag = tags.get(0).tag();
+        int separator = tag.indexOf(VERSION_SEPARATOR);
+        try {
+            return Long.valueOf(separator < 0 ? tag : tag.substring(0, separator));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException(INVALID_IF_MATCH.formatted(ifMatch));
+        }
+    }
+
+    static boolean isConditional(HttpHeaders requestHeaders) {
+        return requestHeaders.containsKey(HttpHeaders.IF_NONE_MATCH)
+            || requestHeaders.containsKey(HttpHeaders.IF_MODIFIED_SINCE);
+    }
+
+    static boolean isNotModified(HttpHeaders requestHeaders, String etag, Instant lastModified) {
+        List<String> ifNoneMatch = requestHeaders.getOrEmpty(HttpHeaders.IF_NONE_MATCH);
+        if (!ifNoneMatch.isEmpty()) {
+            return ETag.parse(String.join(",", ifNoneMatch)).stream()
+                .anyMatch(tag -> tag.isWildcard() || new ETag(tag.tag(), false).formattedTag().equals(etag));
+        }
+
+        long ifModifiedSince = requestHeaders.getIfModifiedSince();
+        return ifModifiedSince >= 0
+            && !lastModified.truncatedTo(ChronoUnit.SECONDS).isAfter(Instant.ofEpochMilli(ifModifiedSince));
+    }
+
+    private static String plain(BigDecimal balance) {
+        return balance != null ? balance.toPlainString() : "";
+    }
+
+}
@@ -1,27 +1,47 @@
 package ru.edalik.electronics.store.user.service.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.annotation.Secured;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.edalik.electronics.store.user.service.mapper.UserMapper;
+import ru.edalik.electronics.store.user.service.model.dto.UserBulkRequestDto;
 import ru.edalik.electronics.store.user.service.model.dto.UserDto;
+import ru.edalik.electronics.store.user.service.model.dto.UserRevisionDto;
 import ru.edalik.electronics.store.user.service.model.dto.UserUpdateDto;
 import ru.edalik.electronics.store.user.service.model.dto.exception.ErrorDto;
 import ru.edalik.electronics.store.user.service.model.dto.exception.ValidationErrorDto;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserRevisionService;
 import ru.edalik.electronics.store.user.service.service.interfaces.UserService;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.Optional;
+
+import static ru.edalik.electronics.store.user.service.config.SecurityConfig.SERVICE_ROLE;
+
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/api/v1/users")
@@ -30,8 +50,12 @@ public class UserController {
 
     private final UserService userService;
 
+    private final UserRevisionService userRevisionService;
+
     private final UserMapper userMapper;
 
+    private final ObjectMapper objectMapper;
+
     @Operation(
         summary = "Обновление данных пользователя",
         description = "Обновляет информацию о существующем пользователе"
@@ -51,23 +75,65 @@ public class UserController {
         description = "Пользователь не найден",
         content = @Content(schema = @Schema(implementation = ErrorDto.class))
     )
+    @ApiResponse(
+        responseCode = "409",
+        description = "Конкурентное изменение не удалось разрешить повторными попытками",
+        content = @Content(schema = @Schema(implementation = ErrorDto.class))
+    )
+    @ApiResponse(
+        responseCode = "412",
+        description = "Версия пользователя не совпадает с If-Match",
+        content = @Content(schema = @Schema(implementation = ErrorDto.class))
+    )
     @PutMapping
-    public UserDto update(@RequestBody @Valid UserUpdateDto dto) {
-        return userMapper.toDto(userService.update(dto));
+    public ResponseEntity<UserDto> update(
+        @RequestBody @Valid UserUpdateDto dto,
+        @Parameter(description = "ETag, полученный при чтении пользователя, или *")
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        UserDto updated = userMapper.toDto(userService.update(dto, EntityTags.expectedVersion(ifMatch)));
+
+        return ResponseEntity.ok()
+            .eTag(EntityTags.profile(updated.version(), updated.balance()))
+            .body(updated);
     }
 
     @Operation(
         summary = "Получение пользователя по ID",
-        description = "Возвращает полную информацию о пользователе"
+        description = "Возвращает полную информацию о пользователе. Поддерживает условные запросы "
+            + "If-None-Match и If-Modified-Since"
     )
     @ApiResponse(
         responseCode = "200",
         description = "Пользователь найден",
         content = @Content(schema = @Schema(implementation = UserDto.class))
     )
+    @ApiResponse(
+        responseCode = "304",
+        description = "Пользователь не изменился с момента, указанного в условном заголовке"
+    )
     @GetMapping
-    public UserDto getUserById() {
-        return userMapper.toDto(userService.getOrCreate());
+    public ResponseEntity<UserDto> getUserById(@RequestHeader HttpHeaders headers) {
+        Optional<UserRevisionDto> revision = EntityTags.isConditional(headers)
+            ? userRevisionService.getRevision()
+            : Optional.empty();
+        if (revision.isPresent()) {
+            String etag = EntityTags.profile(revision.get().version(), revision.get().balance());
+            Instant modifiedTime = revision.get().modifiedTime();
+            if (EntityTags.isNotModified(headers, etag, modifiedTime)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .lastModified(modifiedTime)
+                    .build();
+            }
+        }
+
+        UserDto user = userService.getProfile();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .eTag(EntityTags.profile(user.version(), user.balance()));
+        revision.ifPresent(value -> response.lastModified(value.modifiedTime()));
+
+        return response.body(user);
     }
 
     @Operation(
@@ -90,4 +156,46 @@ public class UserController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
-}
\ No newline at end of file
+    @Operation(
+        summary = "Пакетное получение пользователей",
+        description = "Возвращает пользователей по списку UUID, отсутствующие UUID пропускаются. Доступно только сервисам"
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Найденные пользователи",
+        content = @Content(array = @ArraySchema(schema = @Schema(implementation = UserDto.class)))
+    )
+    @ApiResponse(
+        responseCode = "400",
+        description = "Невалидные входные данные",
+        content = @Content(schema = @Schema(implementation = ValidationErrorDto.class))
+    )
+    @ApiResponse(
+        responseCode = "403",
+        description = "Недостаточно прав"
+    )
+    @Secured(SERVICE_ROLE)
+    @PostMapping(value = "/bulk", produces = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> getUsersByIds(@RequestBody @Valid UserBulkRequestDto dto) {
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartArray();
+                userService.forEachById(dto.ids(), user -> writeUser(generator, user));
+                generator.writeEndArray();
+            }
+        };
+
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .body(body);
+    }
+
+    private static void writeUser(JsonGenerator generator, UserDto user) {
+        try {
+            generator.writeObject(user);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
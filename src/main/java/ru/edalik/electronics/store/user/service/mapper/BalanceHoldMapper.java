@@ -0,0 +1,14 @@
+package ru.edalik.electronics.store.user.service.mapper;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.MappingConstants;
+import org.mapstruct.ReportingPolicy;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceHoldDto;
+import ru.edalik.electronics.store.user.service.model.entity.BalanceHold;
+
+@Mapper(unmappedTargetPolicy = ReportingPolicy.IGNORE, componentModel = MappingConstants.ComponentModel.SPRING)
+public interface BalanceHoldMapper {
+
+    BalanceHoldDto toDto(BalanceHold hold);
+
+}
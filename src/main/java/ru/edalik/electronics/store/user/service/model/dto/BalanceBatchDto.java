@@ -0,0 +1,22 @@
+package ru.edalik.electronics.store.user.service.model.dto;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+@Schema(description = "DTO для пакетного изменения счета пользователя")
+public record BalanceBatchDto(
+    @ArraySchema(
+        arraySchema = @Schema(description = "Операции в порядке применения (макс. 100)"),
+        maxItems = 100
+    )
+    @NotEmpty
+    @Size(max = 100)
+    List<@Valid BalanceOperationDto> operations
+) {
+
+}
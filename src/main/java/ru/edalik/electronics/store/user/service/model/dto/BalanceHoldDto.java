@@ -0,0 +1,45 @@
+package ru.edalik.electronics.store.user.service.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import ru.edalik.electronics.store.user.service.model.enums.BalanceHoldStatus;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Builder
+@Schema(description = "DTO для представления резерва средств")
+public record BalanceHoldDto(
+    @Schema(
+        description = "UUID резерва",
+        example = "550e8400-e29b-41d4-a716-446655440000"
+    )
+    UUID id,
+
+    @Schema(
+        description = "Сумма резерва",
+        example = "123.45"
+    )
+    BigDecimal amount,
+
+    @Schema(
+        description = "Статус резерва",
+        example = "ACTIVE"
+    )
+    BalanceHoldStatus status,
+
+    @Schema(
+        description = "Время истечения резерва",
+        example = "2024-02-20T14:45:45.123+03:00"
+    )
+    ZonedDateTime expiresTime,
+
+    @Schema(
+        description = "Дата создания резерва",
+        example = "2024-02-20T14:30:45.123+03:00"
+    )
+    ZonedDateTime createdTime
+) {
+
+}
@@ -0,0 +1,27 @@
+package ru.edalik.electronics.store.user.service.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+@Schema(description = "DTO для резервирования средств на счете пользователя")
+public record BalanceHoldRequestDto(
+    @Schema(
+        description = "Сумма резерва",
+        example = "123.45"
+    )
+    @NotNull
+    @Positive
+    BigDecimal amount,
+
+    @Schema(
+        description = "Время жизни резерва в формате ISO-8601, по умолчанию и не более значения из конфигурации",
+        example = "PT15M"
+    )
+    Duration ttl
+) {
+
+}
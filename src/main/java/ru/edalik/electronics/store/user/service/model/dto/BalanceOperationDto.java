@@ -0,0 +1,28 @@
+package ru.edalik.electronics.store.user.service.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import ru.edalik.electronics.store.user.service.model.enums.BalanceOperation;
+
+import java.math.BigDecimal;
+
+@Schema(description = "DTO операции над счетом пользователя в составе пакета")
+public record BalanceOperationDto(
+    @Schema(
+        description = "Тип операции",
+        example = "PAYMENT"
+    )
+    @NotNull
+    BalanceOperation operation,
+
+    @Schema(
+        description = "Сумма",
+        example = "123.45"
+    )
+    @NotNull
+    @Positive
+    BigDecimal amount
+) {
+
+}
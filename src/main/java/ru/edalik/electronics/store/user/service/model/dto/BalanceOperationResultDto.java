@@ -0,0 +1,29 @@
+package ru.edalik.electronics.store.user.service.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import ru.edalik.electronics.store.user.service.model.enums.BalanceOperation;
+
+import java.math.BigDecimal;
+
+@Schema(description = "DTO результата операции над счетом пользователя")
+public record BalanceOperationResultDto(
+    @Schema(
+        description = "Тип операции",
+        example = "PAYMENT"
+    )
+    BalanceOperation operation,
+
+    @Schema(
+        description = "Сумма",
+        example = "123.45"
+    )
+    BigDecimal amount,
+
+    @Schema(
+        description = "Баланс после применения операции",
+        example = "1377.05"
+    )
+    BigDecimal balance
+) {
+
+}
@@ -0,0 +1,23 @@
+package ru.edalik.electronics.store.user.service.model.dto;
+
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.Set;
+import java.util.UUID;
+
+@Schema(description = "DTO для пакетного получения пользователей")
+public record UserBulkRequestDto(
+    @ArraySchema(
+        arraySchema = @Schema(description = "UUID пользователей (макс. 10000)"),
+        schema = @Schema(example = "550e8400-e29b-41d4-a716-446655440000"),
+        maxItems = 10000
+    )
+    @NotEmpty
+    @Size(max = 10000)
+    Set<UUID> ids
+) {
+
+}
@@ -81,7 +81,13 @@ public record UserDto(
         description = "Дата последнего обновления",
         example = "2024-02-20T14:30:45.123+03:00"
     )
-    ZonedDateTime updatedTime
+    ZonedDateTime updatedTime,
+
+    @Schema(
+        description = "Версия записи, используется в ETag",
+        example = "3"
+    )
+    Long version
 ) {
 
 }
\ No newline at end of file
@@ -0,0 +1,93 @@
+package ru.edalik.electronics.store.user.service.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import ru.edalik.electronics.store.user.service.model.enums.UserImportFormat;
+import ru.edalik.electronics.store.user.service.model.enums.UserImportStatus;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Builder
+@Schema(description = "DTO для представления задачи импорта пользователей")
+public record UserImportJobDto(
+    @Schema(
+        description = "UUID задачи импорта",
+        example = "550e8400-e29b-41d4-a716-446655440000"
+    )
+    UUID id,
+
+    @Schema(
+        description = "Имя импортируемого файла",
+        example = "legacy-users.ndjson"
+    )
+    String fileName,
+
+    @Schema(
+        description = "Формат файла",
+        example = "NDJSON"
+    )
+    UserImportFormat format,
+
+    @Schema(
+        description = "Статус задачи",
+        example = "RUNNING"
+    )
+    UserImportStatus status,
+
+    @Schema(
+        description = "Количество обработанных строк файла, с которого продолжится импорт",
+        example = "150000"
+    )
+    long processedRows,
+
+    @Schema(
+        description = "Количество созданных или дополненных пользователей",
+        example = "149800"
+    )
+    long importedRows,
+
+    @Schema(
+        description = "Количество пропущенных строк: пользователь уже заполнен или логин занят",
+        example = "150"
+    )
+    long skippedRows,
+
+    @Schema(
+        description = "Количество строк, не прошедших валидацию",
+        example = "50"
+    )
+    long rejectedRows,
+
+    @Schema(
+        description = "Скорость импорта в строках в секунду за текущий запуск",
+        example = "25000"
+    )
+    long rowsPerSecond,
+
+    @Schema(
+        description = "Причина остановки импорта",
+        example = "Import file legacy-users.ndjson is not readable"
+    )
+    String error,
+
+    @Schema(
+        description = "Дата создания задачи",
+        example = "2024-02-20T14:30:45.123+03:00"
+    )
+    ZonedDateTime createdTime,
+
+    @Schema(
+        description = "Дата последнего сохранения прогресса",
+        example = "2024-02-20T14:35:45.123+03:00"
+    )
+    ZonedDateTime updatedTime,
+
+    @Schema(
+        description = "Дата завершения задачи",
+        example = "2024-02-20T14:40:45.123+03:00"
+    )
+    ZonedDateTime finishedTime
+) {
+
+}
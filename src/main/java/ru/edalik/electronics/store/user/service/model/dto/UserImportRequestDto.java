@@ -0,0 +1,27 @@
+package ru.edalik.electronics.store.user.service.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.validator.constraints.Length;
+import ru.edalik.electronics.store.user.service.model.enums.UserImportFormat;
+
+@Schema(description = "DTO для запуска импорта пользователей из файла")
+public record UserImportRequestDto(
+    @Schema(
+        description = "Имя файла в каталоге импорта",
+        example = "legacy-users.ndjson"
+    )
+    @NotBlank
+    @Length(max = 255)
+    String fileName,
+
+    @Schema(
+        description = "Формат файла: CSV с заголовком или NDJSON, по одной записи на строку",
+        example = "NDJSON"
+    )
+    @NotNull
+    UserImportFormat format
+) {
+
+}
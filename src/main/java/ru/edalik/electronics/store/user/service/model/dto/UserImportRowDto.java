@@ -0,0 +1,40 @@
+package ru.edalik.electronics.store.user.service.model.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.validator.constraints.Length;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+public record UserImportRowDto(
+    @NotNull
+    UUID id,
+
+    @NotBlank
+    @Length(max = 50)
+    String login,
+
+    @Length(max = 50)
+    String email,
+
+    String name,
+
+    String surname,
+
+    String patronymic,
+
+    Boolean gender,
+
+    @JsonFormat(pattern = "yyyy.MM.dd")
+    LocalDate birthdate,
+
+    String phoneNumber
+) {
+
+    public UserUpdateDto toUpdateDto() {
+        return new UserUpdateDto(name, surname, patronymic, gender, birthdate, phoneNumber);
+    }
+
+}
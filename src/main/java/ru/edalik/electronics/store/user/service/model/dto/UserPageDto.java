@@ -0,0 +1,19 @@
+package ru.edalik.electronics.store.user.service.model.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+@Schema(description = "DTO для страницы пользователей")
+public record UserPageDto(
+    @Schema(description = "Пользователи страницы, от новых к старым")
+    List<UserDto> items,
+
+    @Schema(
+        description = "Курсор следующей страницы, отсутствует на последней странице",
+        example = "MjAyNC0wMi0yMFQxMTozMDo0NS4xMjNafDU1MGU4NDAwLWUyOWItNDFkNC1hNzE2LTQ0NjY1NTQ0MDAwMA"
+    )
+    String nextCursor
+) {
+
+}
@@ -0,0 +1,17 @@
+package ru.edalik.electronics.store.user.service.model.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+public record UserRevisionDto(
+    long version,
+    BigDecimal balance,
+    Instant profileModifiedTime,
+    Instant balanceModifiedTime
+) {
+
+    public Instant modifiedTime() {
+        return balanceModifiedTime.isAfter(profileModifiedTime) ? balanceModifiedTime : profileModifiedTime;
+    }
+
+}
@@ -0,0 +1,44 @@
+package ru.edalik.electronics.store.user.service.model.dto;
+
+import ru.edalik.electronics.store.user.service.model.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+
+public record UserSearchCursor(Instant createdTime, UUID id) {
+
+    public static final String INVALID_CURSOR = "Cursor: %s is invalid";
+
+    private static final String SEPARATOR = "|";
+
+    public static UserSearchCursor of(UserDto user) {
+        return new UserSearchCursor(user.createdTime().toInstant(), user.id());
+    }
+
+    public static UserSearchCursor decode(String cursor) {
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = decoded.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidCursorException(INVALID_CURSOR.formatted(cursor));
+            }
+
+            return new UserSearchCursor(
+                Instant.parse(decoded.substring(0, separator)),
+                UUID.fromString(decoded.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException(INVALID_CURSOR.formatted(cursor));
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder()
+            .withoutPadding()
+            .encodeToString((createdTime + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+}
@@ -0,0 +1,15 @@
+package ru.edalik.electronics.store.user.service.model.dto.event;
+
+import ru.edalik.electronics.store.user.service.model.enums.BalanceOperation;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record BalanceChangedEventDto(
+    UUID userId,
+    Long ledgerEntryId,
+    BalanceOperation operation,
+    BigDecimal amount
+) {
+
+}
@@ -0,0 +1,7 @@
+package ru.edalik.electronics.store.user.service.model.dto.event;
+
+import java.util.UUID;
+
+public record UserDeletedEventDto(UUID userId) {
+
+}
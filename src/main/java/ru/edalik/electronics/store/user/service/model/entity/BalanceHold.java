@@ -0,0 +1,57 @@
+package ru.edalik.electronics.store.user.service.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
+import ru.edalik.electronics.store.user.service.model.enums.BalanceHoldStatus;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "balance_holds")
+public class BalanceHold {
+
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", updatable = false)
+    private UUID userId;
+
+    @Column(name = "amount", updatable = false)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private BalanceHoldStatus status;
+
+    @Column(name = "expires_time", updatable = false)
+    private ZonedDateTime expiresTime;
+
+    @Column(name = "created_time", updatable = false)
+    private ZonedDateTime createdTime;
+
+    @UpdateTimestamp
+    @Column(name = "updated_time")
+    private ZonedDateTime updatedTime;
+
+}
@@ -0,0 +1,51 @@
+package ru.edalik.electronics.store.user.service.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Immutable;
+import ru.edalik.electronics.store.user.service.model.enums.BalanceOperation;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Entity
+@Getter
+@Builder
+@Immutable
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "balance_ledger")
+public class BalanceLedgerEntry {
+
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation")
+    private BalanceOperation operation;
+
+    @Column(name = "amount")
+    private BigDecimal amount;
+
+    @CreationTimestamp
+    @Column(name = "created_time")
+    private ZonedDateTime createdTime;
+
+}
\ No newline at end of file
@@ -0,0 +1,41 @@
+package ru.edalik.electronics.store.user.service.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import ru.edalik.electronics.store.user.service.model.enums.BalanceOperation;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "idempotency_keys")
+public class IdempotencyKey {
+
+    @EmbeddedId
+    private IdempotencyKeyId id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", updatable = false)
+    private BalanceOperation operation;
+
+    @Column(name = "amount", updatable = false)
+    private BigDecimal amount;
+
+    @Column(name = "created_time", updatable = false)
+    private ZonedDateTime createdTime;
+
+}
\ No newline at end of file
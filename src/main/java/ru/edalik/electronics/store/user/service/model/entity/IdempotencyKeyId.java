@@ -0,0 +1,26 @@
+package ru.edalik.electronics.store.user.service.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+@Getter
+@Embeddable
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode
+public class IdempotencyKeyId implements Serializable {
+
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "idempotency_key")
+    private String key;
+
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+package ru.edalik.electronics.store.user.service.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import ru.edalik.electronics.store.user.service.model.enums.OutboxEventType;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Entity
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "outbox_events")
+public class OutboxEvent {
+
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "aggregate_id", updatable = false)
+    private UUID aggregateId;
+
+    @Column(name = "aggregate_sequence", updatable = false)
+    private Long aggregateSequence;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", updatable = false)
+    private OutboxEventType eventType;
+
+    @Column(name = "payload", updatable = false)
+    private String payload;
+
+    @CreationTimestamp
+    @Column(name = "created_time", updatable = false)
+    private ZonedDateTime createdTime;
+
+}
@@ -3,16 +3,20 @@ package ru.edalik.electronics.store.user.service.model.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.DynamicInsert;
-import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Formula;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.springframework.data.domain.Persistable;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -23,12 +27,19 @@ import java.util.UUID;
 @Getter
 @Setter
 @Builder
-@DynamicInsert
-@DynamicUpdate
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(name = "users")
-public class User {
+public class User implements Persistable<UUID> {
+
+    public static final String BALANCE_SQL = """
+        u.balance - u.held + coalesce(
+            (select sum(l.amount) from balance_ledger l
+             where l.user_id = u.id and l.id > u.ledger_position and l.operation = 'DEPOSIT'),
+            0
+        )""";
+
+    public static final String BALANCE_FORMULA = "(select " + BALANCE_SQL + " from users u where u.id = id)";
 
     @Id
     @Column(name = "id")
@@ -59,6 +70,18 @@ public class User {
     private String email;
 
     @Column(name = "balance", updatable = false)
+    @Builder.Default
+    private BigDecimal balanceSnapshot = BigDecimal.ZERO;
+
+    @Column(name = "ledger_position", updatable = false)
+    @Builder.Default
+    private Long ledgerPosition = 0L;
+
+    @Column(name = "held", updatable = false)
+    @Builder.Default
+    private BigDecimal heldAmount = BigDecimal.ZERO;
+
+    @Formula(BALANCE_FORMULA)
     private BigDecimal balance;
 
     @CreationTimestamp
@@ -69,4 +92,19 @@ public class User {
     @Column(name = "updated_time")
     private ZonedDateTime updatedTime;
 
+    @Version
+    @Column(name = "version")
+    @Builder.Default
+    private Long version = 0L;
+
+    @Transient
+    @Builder.Default
+    private boolean isNew = true;
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        isNew = false;
+    }
+
 }
\ No newline at end of file
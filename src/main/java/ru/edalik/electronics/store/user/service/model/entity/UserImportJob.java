@@ -0,0 +1,83 @@
+package ru.edalik.electronics.store.user.service.model.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+import ru.edalik.electronics.store.user.service.model.enums.UserImportFormat;
+import ru.edalik.electronics.store.user.service.model.enums.UserImportStatus;
+
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Entity
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table(name = "user_import_jobs")
+public class UserImportJob {
+
+    @Id
+    @Column(name = "id")
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "file_name", updatable = false)
+    private String fileName;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "format", updatable = false)
+    private UserImportFormat format;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private UserImportStatus status;
+
+    @Column(name = "processed_rows")
+    private long processedRows;
+
+    @Column(name = "imported_rows")
+    private long importedRows;
+
+    @Column(name = "skipped_rows")
+    private long skippedRows;
+
+    @Column(name = "rejected_rows")
+    private long rejectedRows;
+
+    @Column(name = "rows_per_second")
+    private long rowsPerSecond;
+
+    @Column(name = "error")
+    private String error;
+
+    @Version
+    @Column(name = "version")
+    private Long version;
+
+    @CreationTimestamp
+    @Column(name = "created_time", updatable = false)
+    private ZonedDateTime createdTime;
+
+    @UpdateTimestamp
+    @Column(name = "updated_time")
+    private ZonedDateTime updatedTime;
+
+    @Column(name = "finished_time")
+    private ZonedDateTime finishedTime;
+
+}
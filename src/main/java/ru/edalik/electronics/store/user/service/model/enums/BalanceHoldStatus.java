@@ -0,0 +1,10 @@
+package ru.edalik.electronics.store.user.service.model.enums;
+
+public enum BalanceHoldStatus {
+
+    ACTIVE,
+    CAPTURED,
+    RELEASED,
+    EXPIRED
+
+}
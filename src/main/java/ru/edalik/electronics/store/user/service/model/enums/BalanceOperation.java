@@ -0,0 +1,8 @@
+package ru.edalik.electronics.store.user.service.model.enums;
+
+public enum BalanceOperation {
+
+    DEPOSIT,
+    PAYMENT
+
+}
\ No newline at end of file
@@ -0,0 +1,8 @@
+package ru.edalik.electronics.store.user.service.model.enums;
+
+public enum DataSourceRole {
+
+    PRIMARY,
+    REPLICA
+
+}
@@ -0,0 +1,10 @@
+package ru.edalik.electronics.store.user.service.model.enums;
+
+public enum OutboxEventType {
+
+    BALANCE_DEPOSIT,
+    BALANCE_PAYMENT,
+    USER_UPDATED,
+    USER_DELETED
+
+}
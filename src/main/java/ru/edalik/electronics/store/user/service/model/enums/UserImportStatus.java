@@ -0,0 +1,9 @@
+package ru.edalik.electronics.store.user.service.model.enums;
+
+public enum UserImportStatus {
+
+    RUNNING,
+    COMPLETED,
+    FAILED
+
+}
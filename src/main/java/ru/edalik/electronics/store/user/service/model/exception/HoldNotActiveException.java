@@ -0,0 +1,9 @@
+package ru.edalik.electronics.store.user.service.model.exception;
+
+public class HoldNotActiveException extends RuntimeException {
+
+    public HoldNotActiveException(String message) {
+        super(message);
+    }
+
+}
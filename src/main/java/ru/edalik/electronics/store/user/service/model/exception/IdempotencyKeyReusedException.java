@@ -0,0 +1,9 @@
+package ru.edalik.electronics.store.user.service.model.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,9 @@
+package ru.edalik.electronics.store.user.service.model.exception;
+
+public class ImportJobConflictException extends RuntimeException {
+
+    public ImportJobConflictException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,9 @@
+package ru.edalik.electronics.store.user.service.model.exception;
+
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,9 @@
+package ru.edalik.electronics.store.user.service.model.exception;
+
+public class InvalidImportFileException extends RuntimeException {
+
+    public InvalidImportFileException(String message) {
+        super(message);
+    }
+
+}
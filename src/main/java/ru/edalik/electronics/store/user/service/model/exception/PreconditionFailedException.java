@@ -0,0 +1,9 @@
+package ru.edalik.electronics.store.user.service.model.exception;
+
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,37 @@
+package ru.edalik.electronics.store.user.service.repository;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+import ru.edalik.electronics.store.user.service.model.entity.BalanceHold;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BalanceHoldRepository extends JpaRepository<BalanceHold, UUID> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints({@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000")})
+    @Query("SELECT h FROM BalanceHold h WHERE h.id = :id AND h.userId = :userId")
+    Optional<BalanceHold> findWithLockByIdAndUserId(UUID id, UUID userId);
+
+    @Query(
+        value = """
+            SELECT * FROM balance_holds
+            WHERE status = 'ACTIVE' AND expires_time <= :now
+            ORDER BY expires_time
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """,
+        nativeQuery = true
+    )
+    List<BalanceHold> lockExpired(ZonedDateTime now, int limit);
+
+}
@@ -0,0 +1,42 @@
+package ru.edalik.electronics.store.user.service.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.edalik.electronics.store.user.service.model.entity.BalanceLedgerEntry;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface BalanceLedgerRepository extends JpaRepository<BalanceLedgerEntry, Long> {
+
+    @Query("""
+        SELECT DISTINCT l.userId FROM BalanceLedgerEntry l, User u
+        WHERE u.id = l.userId
+          AND l.id > u.ledgerPosition
+          AND l.createdTime < :settledBefore
+          AND l.operation = ru.edalik.electronics.store.user.service.model.enums.BalanceOperation.DEPOSIT
+        """)
+    List<UUID> findUsersWithPendingDeposits(ZonedDateTime settledBefore, Limit limit);
+
+    @Query("""
+        SELECT MAX(l.id) FROM BalanceLedgerEntry l
+        WHERE l.userId = :userId AND l.id > :position AND l.createdTime < :settledBefore
+        """)
+    Optional<Long> findLastEntryId(UUID userId, long position, ZonedDateTime settledBefore);
+
+    @Query("""
+        SELECT COALESCE(SUM(l.amount), 0) FROM BalanceLedgerEntry l
+        WHERE l.userId = :userId
+          AND l.id > :from
+          AND l.id <= :to
+          AND l.operation = ru.edalik.electronics.store.user.service.model.enums.BalanceOperation.DEPOSIT
+        """)
+    BigDecimal sumDeposits(UUID userId, long from, long to);
+
+}
\ No newline at end of file
@@ -0,0 +1,32 @@
+package ru.edalik.electronics.store.user.service.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.edalik.electronics.store.user.service.model.entity.IdempotencyKey;
+import ru.edalik.electronics.store.user.service.model.entity.IdempotencyKeyId;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Repository
+public interface IdempotencyKeyRepository extends JpaRepository<IdempotencyKey, IdempotencyKeyId> {
+
+    @Modifying
+    @Query(
+        value = """
+            INSERT INTO idempotency_keys (user_id, idempotency_key, operation, amount, created_time)
+            VALUES (:userId, :key, :operation, :amount, now())
+            ON CONFLICT DO NOTHING
+            """,
+        nativeQuery = true
+    )
+    int claim(UUID userId, String key, String operation, BigDecimal amount);
+
+    @Modifying
+    @Query("DELETE IdempotencyKey k WHERE k.createdTime < :threshold")
+    int deleteCreatedBefore(ZonedDateTime threshold);
+
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+package ru.edalik.electronics.store.user.service.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.edalik.electronics.store.user.service.model.entity.OutboxEvent;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query(
+        value = "SELECT * FROM outbox_events ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+        nativeQuery = true
+    )
+    List<OutboxEvent> lockNextBatch(int limit);
+
+    @Query("""
+        SELECT e.aggregateId AS aggregateId, MIN(e.id) AS firstId FROM OutboxEvent e
+        WHERE e.aggregateId IN :aggregateIds
+        GROUP BY e.aggregateId
+        """)
+    List<AggregateHead> findHeads(Collection<UUID> aggregateIds);
+
+    interface AggregateHead {
+
+        UUID getAggregateId();
+
+        Long getFirstId();
+
+    }
+
+}
@@ -0,0 +1,34 @@
+package ru.edalik.electronics.store.user.service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Objects;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class OutboxSequenceJdbcRepository {
+
+    private static final String INCREMENT =
+        "UPDATE outbox_sequences SET last_sequence = last_sequence + 1 WHERE aggregate_id = ?";
+    private static final String INSERT = "INSERT INTO outbox_sequences (aggregate_id, last_sequence) VALUES (?, 0)";
+    private static final String FIND_LAST_SEQUENCE =
+        "SELECT last_sequence FROM outbox_sequences WHERE aggregate_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public int increment(UUID aggregateId) {
+        return jdbcTemplate.update(INCREMENT, aggregateId);
+    }
+
+    public void insert(UUID aggregateId) {
+        jdbcTemplate.update(INSERT, aggregateId);
+    }
+
+    public long findLastSequence(UUID aggregateId) {
+        return Objects.requireNonNull(jdbcTemplate.queryForObject(FIND_LAST_SEQUENCE, Long.class, aggregateId));
+    }
+
+}
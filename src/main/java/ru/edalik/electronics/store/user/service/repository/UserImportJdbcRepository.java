@@ -0,0 +1,142 @@
+package ru.edalik.electronics.store.user.service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.edalik.electronics.store.user.service.model.entity.User;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+@Repository
+@RequiredArgsConstructor
+public class UserImportJdbcRepository {
+
+    private static final String CREATE_STAGING = """
+        CREATE TEMP TABLE IF NOT EXISTS users_import_staging (
+            line bigint, id uuid, login text, email text, name text, surname text, patronymic text,
+            gender boolean, birthdate date, phone_number text
+        ) ON COMMIT DELETE ROWS
+        """;
+
+    private static final String COPY_STAGING = """
+        COPY users_import_staging (line, id, login, email, name, surname, patronymic, gender, birthdate, phone_number)
+        FROM STDIN WITH (FORMAT csv)
+        """;
+
+    private static final String LATEST_STAGED = """
+        SELECT DISTINCT ON (s.id) s.* FROM users_import_staging s ORDER BY s.id, s.line DESC
+        """;
+
+    private static final String MERGE_EXISTING = """
+        UPDATE users u
+        SET email = coalesce(nullif(u.email, ''), nullif(s.email, ''), u.email),
+            name = coalesce(nullif(u.name, ''), nullif(s.name, ''), u.name),
+            surname = coalesce(nullif(u.surname, ''), nullif(s.surname, ''), u.surname),
+            patronymic = coalesce(nullif(u.patronymic, ''), nullif(s.patronymic, ''), u.patronymic),
+            gender = coalesce(u.gender, s.gender),
+            birthdate = coalesce(u.birthdate, s.birthdate),
+            phone_number = coalesce(nullif(u.phone_number, ''), nullif(s.phone_number, ''), u.phone_number),
+            version = u.version + 1,
+            updated_time = ?
+        FROM (%s) s
+        WHERE u.id = s.id
+          AND ((nullif(u.email, '') IS NULL AND nullif(s.email, '') IS NOT NULL)
+            OR (nullif(u.name, '') IS NULL AND nullif(s.name, '') IS NOT NULL)
+            OR (nullif(u.surname, '') IS NULL AND nullif(s.surname, '') IS NOT NULL)
+            OR (nullif(u.patronymic, '') IS NULL AND nullif(s.patronymic, '') IS NOT NULL)
+            OR (u.gender IS NULL AND s.gender IS NOT NULL)
+            OR (u.birthdate IS NULL AND s.birthdate IS NOT NULL)
+            OR (nullif(u.phone_number, '') IS NULL AND nullif(s.phone_number, '') IS NOT NULL))
+        RETURNING u.id
+        """.formatted(LATEST_STAGED);
+
+    private static final String INSERT_NEW = """
+        INSERT INTO users (id, login, email, name, surname, patronymic, gender, birthdate, phone_number, created_time)
+        SELECT s.id, s.login, s.email, s.name, s.surname, s.patronymic, s.gender, s.birthdate, s.phone_number, ?
+        FROM (%s) s
+        WHERE NOT EXISTS (SELECT 1 FROM users u WHERE u.id = s.id)
+        ON CONFLICT DO NOTHING
+        """.formatted(LATEST_STAGED);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public long copyToStaging(List<Long> lines, List<User> users) {
+        jdbcTemplate.execute(CREATE_STAGING);
+
+        return Objects.requireNonNull(jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_STAGING);
+            try {
+                StringBuilder row = new StringBuilder(256);
+                for (int i = 0; i < users.size(); i++) {
+                    row.setLength(0);
+                    appendRow(row, lines.get(i), users.get(i));
+                    byte[] bytes = row.toString().getBytes(StandardCharsets.UTF_8);
+                    copyIn.writeToCopy(bytes, 0, bytes.length);
+                }
+
+                return copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        }));
+    }
+
+    public List<UUID> mergeExisting(ZonedDateTime now) {
+        return jdbcTemplate.queryForList(MERGE_EXISTING, UUID.class, Timestamp.from(now.toInstant()));
+    }
+
+    public int insertNew(ZonedDateTime now) {
+        return jdbcTemplate.update(INSERT_NEW, Timestamp.from(now.toInstant()));
+    }
+
+    private static void appendRow(StringBuilder row, long line, User user) {
+        row.append(line).append(',').append(user.getId()).append(',');
+        appendText(row, user.getLogin());
+        row.append(',');
+        appendText(row, user.getEmail());
+        row.append(',');
+        appendText(row, user.getName());
+        row.append(',');
+        appendText(row, user.getSurname());
+        row.append(',');
+        appendText(row, user.getPatronymic());
+        row.append(',');
+        if (user.getGender() != null) {
+            row.append(user.getGender());
+        }
+        row.append(',');
+        if (user.getBirthdate() != null) {
+            row.append(user.getBirthdate());
+        }
+        row.append(',');
+        appendText(row, user.getPhoneNumber());
+        row.append('\n');
+    }
+
+    private static void appendText(StringBuilder row, String value) {
+        if (value == null) {
+            return;
+        }
+
+        row.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        row.append('"');
+    }
+
+}
@@ -0,0 +1,12 @@
+package ru.edalik.electronics.store.user.service.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.edalik.electronics.store.user.service.model.entity.UserImportJob;
+
+import java.util.UUID;
+
+@Repository
+public interface UserImportJobRepository extends JpaRepository<UserImportJob, UUID> {
+
+}
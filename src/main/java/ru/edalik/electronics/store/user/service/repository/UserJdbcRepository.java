@@ -0,0 +1,219 @@
+package ru.edalik.electronics.store.user.service.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import ru.edalik.electronics.store.user.service.model.dto.UserDto;
+import ru.edalik.electronics.store.user.service.model.dto.UserRevisionDto;
+import ru.edalik.electronics.store.user.service.model.dto.UserSearchCursor;
+import ru.edalik.electronics.store.user.service.model.entity.User;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+@Repository
+@RequiredArgsConstructor
+public class UserJdbcRepository {
+
+    public static final String SELECT_USER_DTO = """
+        SELECT u.id, u.login, u.name, u.surname, u.patronymic, u.gender, u.birthdate, u.phone_number, u.email,
+               %s AS balance,
+               u.created_time, u.updated_time, u.version
+        FROM users u
+        """.formatted(User.BALANCE_SQL);
+
+    public static final String SEARCH_DOCUMENT = """
+        (coalesce(u.login, '') || ' ' || coalesce(u.email, '') || ' ' || coalesce(u.phone_number, '')
+            || ' ' || coalesce(u.name, '') || ' ' || coalesce(u.surname, ''))""";
+
+    public static final String SELECT_USER_REVISION = """
+        SELECT u.version,
+               %s AS balance,
+               coalesce(u.updated_time, u.created_time) AS profile_modified_time,
+               greatest(
+                   coalesce(
+                       (SELECT l.created_time FROM balance_ledger l
+                        WHERE l.user_id = u.id ORDER BY l.id DESC FETCH FIRST 1 ROWS ONLY),
+                       u.created_time
+                   ),
+                   coalesce(u.updated_time, u.created_time)
+               ) AS balance_modified_time
+        FROM users u
+        WHERE u.id = ?
+        """.formatted(User.BALANCE_SQL);
+
+    public static final String GET_OR_CREATE = """
+        WITH inserted AS (
+            INSERT INTO users (id, login, email, created_time)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (id) DO NOTHING
+            RETURNING *
+        )
+        SELECT u.*, %1$s AS current_balance FROM inserted u
+        UNION ALL
+        SELECT u.*, %1$s AS current_balance FROM users u WHERE u.id = ?
+        """.formatted(User.BALANCE_SQL);
+
+    public static final RowMapper<UserDto> USER_DTO_ROW_MAPPER = UserJdbcRepository::mapUserDto;
+
+    private static final String FIND_ALL_BY_ID = SELECT_USER_DTO + "WHERE u.id = ANY(?)";
+    private static final String FIND_ALL_MODIFIED_SINCE =
+        SELECT_USER_DTO + "WHERE coalesce(u.updated_time, u.created_time) >= ?";
+
+    private static final String SEARCH_MATCHES = SEARCH_DOCUMENT + " ILIKE ?";
+    private static final String SEARCH_AFTER = "(u.created_time, u.id) < (?, ?)";
+    private static final String SEARCH_ORDER = " ORDER BY u.created_time DESC, u.id DESC LIMIT ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void findAllById(Collection<UUID> ids, Consumer<UserDto> action) {
+        jdbcTemplate.query(
+            connection -> {
+                PreparedStatement statement = connection.prepareStatement(FIND_ALL_BY_ID);
+                statement.setArray(1, connection.createArrayOf("uuid", ids.toArray()));
+                return statement;
+            },
+            (RowCallbackHandler) resultSet -> action.accept(mapUserDto(resultSet, resultSet.getRow()))
+        );
+    }
+
+    public void findAllModifiedSince(ZonedDateTime modifiedSince, int fetchSize, Consumer<UserDto> action) {
+        jdbcTemplate.query(
+            connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                    modifiedSince != null ? FIND_ALL_MODIFIED_SINCE : SELECT_USER_DTO,
+                    ResultSet.TYPE_FORWARD_ONLY,
+                    ResultSet.CONCUR_READ_ONLY
+                );
+                statement.setFetchSize(fetchSize);
+                if (modifiedSince != null) {
+                    statement.setTimestamp(1, Timestamp.from(modifiedSince.toInstant()));
+                }
+                return statement;
+            },
+            (RowCallbackHandler) resultSet -> action.accept(mapUserDto(resultSet, resultSet.getRow()))
+        );
+    }
+
+    public Optional<User> getOrCreate(UUID id, String login, String email, ZonedDateTime createdTime) {
+        return jdbcTemplate.query(
+            GET_OR_CREATE,
+            UserJdbcRepository::mapUser,
+            id,
+            login,
+            email,
+            Timestamp.from(createdTime.toInstant()),
+            id
+        ).stream().findFirst();
+    }
+
+    public Optional<UserRevisionDto> findRevisionById(UUID id) {
+        return jdbcTemplate.query(
+            SELECT_USER_REVISION,
+            (resultSet, rowNum) -> new UserRevisionDto(
+                resultSet.getLong("version"),
+                resultSet.getBigDecimal("balance"),
+                resultSet.getTimestamp("profile_modified_time").toInstant(),
+                resultSet.getTimestamp("balance_modified_time").toInstant()
+            ),
+            id
+        ).stream().findFirst();
+    }
+
+    public List<UserDto> search(String query, UserSearchCursor after, int limit) {
+        SearchQuery searchQuery = searchQuery(query, after, limit);
+
+        return jdbcTemplate.query(searchQuery.sql(), USER_DTO_ROW_MAPPER, searchQuery.args());
+    }
+
+    static SearchQuery searchQuery(String query, UserSearchCursor after, int limit) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> args = new ArrayList<>();
+        if (query != null) {
+            conditions.add(SEARCH_MATCHES);
+            args.add("%" + escapeLike(query) + "%");
+        }
+        if (after != null) {
+            conditions.add(SEARCH_AFTER);
+            args.add(Timestamp.from(after.createdTime()));
+            args.add(after.id());
+        }
+        args.add(limit);
+
+        String where = conditions.isEmpty() ? "" : "WHERE " + String.join(" AND ", conditions);
+
+        return new SearchQuery(SELECT_USER_DTO + where + SEARCH_ORDER, args.toArray());
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\")
+            .replace("%", "\\%")
+            .replace("_", "\\_");
+    }
+
+    private static UserDto mapUserDto(ResultSet resultSet, int rowNum) throws SQLException {
+        Date birthdate = resultSet.getDate("birthdate");
+
+        return UserDto.builder()
+            .id(resultSet.getObject("id", UUID.class))
+            .login(resultSet.getString("login"))
+            .name(resultSet.getString("name"))
+            .surname(resultSet.getString("surname"))
+            .patronymic(resultSet.getString("patronymic"))
+            .gender(resultSet.getObject("gender", Boolean.class))
+            .birthdate(birthdate != null ? birthdate.toLocalDate() : null)
+            .phoneNumber(resultSet.getString("phone_number"))
+            .email(resultSet.getString("email"))
+            .balance(resultSet.getBigDecimal("balance"))
+            .createdTime(toZonedDateTime(resultSet.getTimestamp("created_time")))
+            .updatedTime(toZonedDateTime(resultSet.getTimestamp("updated_time")))
+            .version(resultSet.getLong("version"))
+            .build();
+    }
+
+    private static User mapUser(ResultSet resultSet, int rowNum) throws SQLException {
+        Date birthdate = resultSet.getDate("birthdate");
+
+        return User.builder()
+            .id(resultSet.getObject("id", UUID.class))
+            .login(resultSet.getString("login"))
+            .name(resultSet.getString("name"))
+            .surname(resultSet.getString("surname"))
+            .patronymic(resultSet.getString("patronymic"))
+            .gender(resultSet.getObject("gender", Boolean.class))
+            .birthdate(birthdate != null ? birthdate.toLocalDate() : null)
+            .phoneNumber(resultSet.getString("phone_number"))
+            .email(resultSet.getString("email"))
+            .balanceSnapshot(resultSet.getBigDecimal("balance"))
+            .ledgerPosition(resultSet.getLong("ledger_position"))
+            .heldAmount(resultSet.getBigDecimal("held"))
+            .balance(resultSet.getBigDecimal("current_balance"))
+            .createdTime(toZonedDateTime(resultSet.getTimestamp("created_time")))
+            .updatedTime(toZonedDateTime(resultSet.getTimestamp("updated_time")))
+            .version(resultSet.getLong("version"))
+            .isNew(false)
+            .build();
+    }
+
+    private static ZonedDateTime toZonedDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toInstant().atZone(ZoneId.systemDefault()) : null;
+    }
+
+    record SearchQuery(String sql, Object[] args) {
+
+    }
+
+}
@@ -1,12 +1,18 @@
 package ru.edalik.electronics.store.user.service.repository;
 
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import ru.edalik.electronics.store.user.service.model.entity.User;
 
 import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -17,11 +23,72 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     int customDeleteById(UUID id);
 
     @Modifying
-    @Query("UPDATE User u SET u.balance = u.balance + :amount WHERE u.id = :id")
-    int deposit(BigDecimal amount, UUID id);
+    @Query(
+        value = """
+            INSERT INTO users (id, login, email, created_time)
+            VALUES (:id, :login, :email, :createdTime)
+            ON CONFLICT (id) DO NOTHING
+            """,
+        nativeQuery = true
+    )
+    int insertIfAbsent(UUID id, String login, String email, ZonedDateTime createdTime);
+
+    @Query("SELECT u.balance FROM User u WHERE u.id = :id")
+    Optional<BigDecimal> findBalanceById(UUID id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints({@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000")})
+    @Query("SELECT u FROM User u WHERE u.id = :id")
+    Optional<User> findWithExclusiveLockById(UUID id);
 
     @Modifying
-    @Query("UPDATE User u SET u.balance = u.balance - :amount WHERE u.id = :id")
+    @Query("""
+        UPDATE User u SET u.balanceSnapshot = u.balanceSnapshot - :amount
+        WHERE u.id = :id
+          AND u.balanceSnapshot - u.heldAmount + COALESCE(
+              (SELECT SUM(l.amount) FROM BalanceLedgerEntry l
+               WHERE l.userId = u.id
+                 AND l.id > u.ledgerPosition
+                 AND l.operation = ru.edalik.electronics.store.user.service.model.enums.BalanceOperation.DEPOSIT),
+              0
+          ) >= :amount
+        """)
     int payment(BigDecimal amount, UUID id);
 
-}
\ No newline at end of file
+    @Modifying
+    @Query("UPDATE User u SET u.balanceSnapshot = u.balanceSnapshot - :amount WHERE u.id = :id")
+    int debit(BigDecimal amount, UUID id);
+
+    @Modifying
+    @Query("""
+        UPDATE User u SET u.heldAmount = u.heldAmount + :amount, u.updatedTime = :now
+        WHERE u.id = :id
+          AND u.balanceSnapshot - u.heldAmount + COALESCE(
+              (SELECT SUM(l.amount) FROM BalanceLedgerEntry l
+               WHERE l.userId = u.id
+                 AND l.id > u.ledgerPosition
+                 AND l.operation = ru.edalik.electronics.store.user.service.model.enums.BalanceOperation.DEPOSIT),
+              0
+          ) >= :amount
+        """)
+    int hold(BigDecimal amount, UUID id, ZonedDateTime now);
+
+    @Modifying
+    @Query("UPDATE User u SET u.heldAmount = u.heldAmount - :amount, u.updatedTime = :now WHERE u.id = :id")
+    int releaseHeld(BigDecimal amount, UUID id, ZonedDateTime now);
+
+    @Modifying
+    @Query("""
+        UPDATE User u SET u.balanceSnapshot = u.balanceSnapshot - :amount, u.heldAmount = u.heldAmount - :amount
+        WHERE u.id = :id
+        """)
+    int captureHeld(BigDecimal amount, UUID id);
+
+    @Modifying
+    @Query("""
+        UPDATE User u SET u.balanceSnapshot = u.balanceSnapshot + :amount, u.ledgerPosition = :position
+        WHERE u.id = :id
+        """)
+    int applySnapshot(UUID id, BigDecimal amount, long position);
+
+}
@@ -0,0 +1,71 @@
+package ru.edalik.electronics.store.user.service.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.edalik.electronics.store.user.service.config.properties.BalanceHoldProperties;
+import ru.edalik.electronics.store.user.service.model.entity.BalanceHold;
+import ru.edalik.electronics.store.user.service.model.enums.BalanceHoldStatus;
+import ru.edalik.electronics.store.user.service.repository.BalanceHoldRepository;
+import ru.edalik.electronics.store.user.service.repository.UserRepository;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserCacheService;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "balance.holds.reaper-enabled", havingValue = "true", matchIfMissing = true)
+public class BalanceHoldReaper {
+
+    private final BalanceHoldRepository balanceHoldRepository;
+
+    private final UserRepository userRepository;
+
+    private final UserCacheService userCacheService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final BalanceHoldProperties properties;
+
+    @Scheduled(fixedDelayString = "${balance.holds.reap-interval:PT10S}")
+    public void reap() {
+        int total = 0;
+        int expired;
+        do {
+            expired = Objects.requireNonNull(transactionTemplate.execute(status -> reapBatch()));
+            total += expired;
+        } while (expired == properties.reapBatchSize());
+
+        if (total > 0) {
+            log.info("Expired {} balance holds", total);
+        }
+    }
+
+    int reapBatch() {
+        ZonedDateTime now = ZonedDateTime.now();
+        List<BalanceHold> holds = balanceHoldRepository.lockExpired(now, properties.reapBatchSize());
+
+        Map<UUID, BigDecimal> released = new HashMap<>();
+        for (BalanceHold hold : holds) {
+            hold.setStatus(BalanceHoldStatus.EXPIRED);
+            released.merge(hold.getUserId(), hold.getAmount(), BigDecimal::add);
+        }
+        released.forEach((userId, amount) -> {
+            userRepository.releaseHeld(amount, userId, now);
+            userCacheService.evict(userId);
+        });
+
+        return holds.size();
+    }
+
+}
@@ -0,0 +1,125 @@
+package ru.edalik.electronics.store.user.service.service;
+
+import io.micrometer.observation.annotation.Observed;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import ru.edalik.electronics.store.user.service.config.properties.BalanceHoldProperties;
+import ru.edalik.electronics.store.user.service.model.entity.BalanceHold;
+import ru.edalik.electronics.store.user.service.model.enums.BalanceHoldStatus;
+import ru.edalik.electronics.store.user.service.model.exception.HoldNotActiveException;
+import ru.edalik.electronics.store.user.service.model.exception.InsufficientFunds;
+import ru.edalik.electronics.store.user.service.model.exception.NotFoundException;
+import ru.edalik.electronics.store.user.service.repository.BalanceHoldRepository;
+import ru.edalik.electronics.store.user.service.repository.UserRepository;
+import ru.edalik.electronics.store.user.service.service.interfaces.BalanceHoldService;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserCacheService;
+import ru.edalik.electronics.store.user.service.service.metrics.DatabaseMetrics;
+import ru.edalik.electronics.store.user.service.service.security.UserContextService;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+import static ru.edalik.electronics.store.user.service.config.metrics.OperationOutcomeObservationFilter.BALANCE_OPERATION;
+import static ru.edalik.electronics.store.user.service.config.metrics.OperationOutcomeObservationFilter.OPERATION_TAG;
+import static ru.edalik.electronics.store.user.service.service.UserServiceImpl.USER_NOT_FOUND_BY_ID;
+
+@Service
+@RequiredArgsConstructor
+public class BalanceHoldServiceImpl implements BalanceHoldService {
+
+    public static final String HOLD_NOT_FOUND_BY_ID = "Hold with id: %s was not found";
+    public static final String HOLD_NOT_ACTIVE = "Hold with id: %s is %s";
+
+    static final String HOLD_OPERATION = "hold";
+
+    private final BalanceHoldRepository balanceHoldRepository;
+
+    private final UserRepository userRepository;
+
+    private final BalanceServiceImpl balanceService;
+
+    private final UserContextService userContextService;
+
+    private final UserCacheService userCacheService;
+
+    private final BalanceHoldProperties properties;
+
+    private final DatabaseMetrics databaseMetrics;
+
+    @Observed(name = BALANCE_OPERATION, lowCardinalityKeyValues = {OPERATION_TAG, "hold_create"})
+    @Transactional
+    public BalanceHold create(BigDecimal amount, Duration ttl) {
+        UUID id = userContextService.getUserGuid();
+        ZonedDateTime now = ZonedDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        if (userRepository.hold(amount, id, now) < 1) {
+            if (!userRepository.existsById(id)) {
+                databaseMetrics.rowCountMismatch(HOLD_OPERATION);
+                throw new NotFoundException(USER_NOT_FOUND_BY_ID.formatted(id));
+            }
+
+            throw new InsufficientFunds();
+        }
+
+        BalanceHold hold = balanceHoldRepository.save(
+            BalanceHold.builder()
+                .userId(id)
+                .amount(amount)
+                .status(BalanceHoldStatus.ACTIVE)
+                .expiresTime(now.plus(ttl(ttl)))
+                .createdTime(now)
+                .build()
+        );
+        userCacheService.evict(id);
+
+        return hold;
+    }
+
+    @Observed(name = BALANCE_OPERATION, lowCardinalityKeyValues = {OPERATION_TAG, "hold_capture"})
+    @Transactional
+    public BalanceHold capture(UUID holdId) {
+        BalanceHold hold = lockActive(holdId);
+        hold.setStatus(BalanceHoldStatus.CAPTURED);
+        balanceService.captureHeld(hold.getUserId(), hold.getAmount());
+
+        return hold;
+    }
+
+    @Observed(name = BALANCE_OPERATION, lowCardinalityKeyValues = {OPERATION_TAG, "hold_release"})
+    @Transactional
+    public BalanceHold release(UUID holdId) {
+        BalanceHold hold = lockActive(holdId);
+        hold.setStatus(BalanceHoldStatus.RELEASED);
+        userRepository.releaseHeld(hold.getAmount(), hold.getUserId(), ZonedDateTime.now());
+        userCacheService.evict(hold.getUserId());
+
+        return hold;
+    }
+
+    private BalanceHold lockActive(UUID holdId) {
+        BalanceHold hold = balanceHoldRepository.findWithLockByIdAndUserId(holdId, userContextService.getUserGuid())
+            .orElseThrow(
+                () -> new NotFoundException(HOLD_NOT_FOUND_BY_ID.formatted(holdId))
+            );
+        if (hold.getStatus() != BalanceHoldStatus.ACTIVE) {
+            throw new HoldNotActiveException(HOLD_NOT_ACTIVE.formatted(holdId, hold.getStatus()));
+        }
+        if (!hold.getExpiresTime().isAfter(ZonedDateTime.now())) {
+            throw new HoldNotActiveException(HOLD_NOT_ACTIVE.formatted(holdId, BalanceHoldStatus.EXPIRED));
+        }
+
+        return hold;
+    }
+
+    private Duration ttl(Duration requested) {
+        if (requested == null || requested.isNegative() || requested.isZero()) {
+            return properties.defaultTtl();
+        }
+
+        return requested.compareTo(properties.maxTtl()) > 0 ? properties.maxTtl() : requested;
+    }
+
+}
@@ -0,0 +1,62 @@
+package ru.edalik.electronics.store.user.service.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.edalik.electronics.store.user.service.config.properties.BalanceLedgerProperties;
+import ru.edalik.electronics.store.user.service.model.entity.User;
+import ru.edalik.electronics.store.user.service.repository.BalanceLedgerRepository;
+import ru.edalik.electronics.store.user.service.repository.UserRepository;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BalanceLedgerCompactor {
+
+    private final UserRepository userRepository;
+
+    private final BalanceLedgerRepository balanceLedgerRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final BalanceLedgerProperties properties;
+
+    @Scheduled(fixedDelayString = "${balance.ledger.compaction-interval:PT1M}")
+    public void compact() {
+        ZonedDateTime settledBefore = ZonedDateTime.now().minus(properties.settleDelay());
+        List<UUID> userIds = balanceLedgerRepository.findUsersWithPendingDeposits(
+            settledBefore,
+            Limit.of(properties.compactionBatchSize())
+        );
+
+        for (UUID userId : userIds) {
+            transactionTemplate.executeWithoutResult(status -> compact(userId, settledBefore));
+        }
+
+        if (!userIds.isEmpty()) {
+            log.info("Compacted balance ledger of {} users", userIds.size());
+        }
+    }
+
+    void compact(UUID userId, ZonedDateTime settledBefore) {
+        User user = userRepository.findWithExclusiveLockById(userId).orElse(null);
+        if (user == null) {
+            return;
+        }
+
+        long position = user.getLedgerPosition();
+        balanceLedgerRepository.findLastEntryId(userId, position, settledBefore).ifPresent(lastEntryId -> {
+            BigDecimal deposits = balanceLedgerRepository.sumDeposits(userId, position, lastEntryId);
+            userRepository.applySnapshot(userId, deposits, lastEntryId);
+        });
+    }
+
+}
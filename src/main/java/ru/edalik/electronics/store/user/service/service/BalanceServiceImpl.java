@@ -1,72 +1,200 @@
 package ru.edalik.electronics.store.user.service.service;
 
-import jakarta.persistence.LockModeType;
-import jakarta.persistence.QueryHint;
-import jakarta.transaction.Transactional;
+import io.micrometer.observation.annotation.Observed;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.jpa.repository.Lock;
-import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 import ru.edalik.electronics.store.user.service.model.dto.BalanceDto;
-import ru.edalik.electronics.store.user.service.model.entity.User;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceOperationDto;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceOperationResultDto;
+import ru.edalik.electronics.store.user.service.model.dto.event.BalanceChangedEventDto;
+import ru.edalik.electronics.store.user.service.model.entity.BalanceLedgerEntry;
+import ru.edalik.electronics.store.user.service.model.enums.BalanceOperation;
+import ru.edalik.electronics.store.user.service.model.enums.OutboxEventType;
 import ru.edalik.electronics.store.user.service.model.exception.InsufficientFunds;
 import ru.edalik.electronics.store.user.service.model.exception.NotFoundException;
+import ru.edalik.electronics.store.user.service.repository.BalanceLedgerRepository;
 import ru.edalik.electronics.store.user.service.repository.UserRepository;
 import ru.edalik.electronics.store.user.service.service.interfaces.BalanceService;
+import ru.edalik.electronics.store.user.service.service.interfaces.OutboxService;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserCacheService;
+import ru.edalik.electronics.store.user.service.service.metrics.DatabaseMetrics;
 import ru.edalik.electronics.store.user.service.service.security.UserContextService;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.UUID;
 
+import static ru.edalik.electronics.store.user.service.config.metrics.OperationOutcomeObservationFilter.BALANCE_OPERATION;
+import static ru.edalik.electronics.store.user.service.config.metrics.OperationOutcomeObservationFilter.OPERATION_TAG;
 import static ru.edalik.electronics.store.user.service.service.UserServiceImpl.USER_NOT_FOUND_BY_ID;
 
 @Service
 @RequiredArgsConstructor
 public class BalanceServiceImpl implements BalanceService {
 
+    static final String PAYMENT_OPERATION = "payment";
+    static final String CAPTURE_HELD_OPERATION = "capture_held";
+    static final String DEBIT_OPERATION = "debit";
+    static final int DEPOSIT_TIMEOUT_SECONDS = 5;
+
     private final UserRepository userRepository;
 
+    private final BalanceLedgerRepository balanceLedgerRepository;
+
     private final UserContextService userContextService;
 
+    private final UserCacheService userCacheService;
+
+    private final OutboxService outboxService;
+
+    private final DatabaseMetrics databaseMetrics;
+
+    @Observed(name = BALANCE_OPERATION, lowCardinalityKeyValues = {OPERATION_TAG, "get_balance"})
+    @Transactional(readOnly = true)
     public BigDecimal getBalance() {
         UUID id = userContextService.getUserGuid();
-        User user = userRepository.findById(id)
+
+        return userRepository.findBalanceById(id)
             .orElseThrow(
                 () -> new NotFoundException(USER_NOT_FOUND_BY_ID.formatted(id))
             );
+    }
+
+    @Observed(name = BALANCE_OPERATION, lowCardinalityKeyValues = {OPERATION_TAG, "deposit"})
+    @Transactional(timeout = DEPOSIT_TIMEOUT_SECONDS)
+    public void deposit(BalanceDto dto) {
+        UUID id = userContextService.getUserGuid();
+        if (!userRepository.existsById(id)) {
+            throw new NotFoundException(USER_NOT_FOUND_BY_ID.formatted(id));
+        }
 
-        return user.getBalance();
+        record(id, BalanceOperation.DEPOSIT, dto.amount());
     }
 
+    @Observed(name = BALANCE_OPERATION, lowCardinalityKeyValues = {OPERATION_TAG, "deposit_batch"})
+    @Transactional(timeout = DEPOSIT_TIMEOUT_SECONDS)
+    public void depositAll(UUID id, List<BigDecimal> amounts) {
+        if (!userRepository.existsById(id)) {
+            throw new NotFoundException(USER_NOT_FOUND_BY_ID.formatted(id));
+        }
+
+        List<BalanceLedgerEntry> entries = new ArrayList<>(amounts.size());
+        for (BigDecimal amount : amounts) {
+            entries.add(
+                BalanceLedgerEntry.builder()
+                    .userId(id)
+                    .operation(BalanceOperation.DEPOSIT)
+                    .amount(amount)
+                    .build()
+            );
+        }
+
+        balanceLedgerRepository.saveAll(entries);
+        entries.forEach(this::recordEvent);
+        userCacheService.evict(id);
+    }
+
+    @Observed(name = BALANCE_OPERATION, lowCardinalityKeyValues = {OPERATION_TAG, "payment"})
     @Transactional
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @QueryHints({@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000")})
-    public void deposit(BalanceDto dto) {
+    public void payment(BalanceDto dto) {
         UUID id = userContextService.getUserGuid();
-        int rowsAffected = userRepository.deposit(dto.amount(), id);
+        int rowsAffected = userRepository.payment(dto.amount(), id);
         if (rowsAffected < 1) {
+            if (!userRepository.existsById(id)) {
+                databaseMetrics.rowCountMismatch(PAYMENT_OPERATION);
+                throw new NotFoundException(USER_NOT_FOUND_BY_ID.formatted(id));
+            }
+
+            throw new InsufficientFunds();
+        }
+
+        record(id, BalanceOperation.PAYMENT, dto.amount().negate());
+    }
+
+    @Observed(name = BALANCE_OPERATION, lowCardinalityKeyValues = {OPERATION_TAG, "capture_held"})
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void captureHeld(UUID id, BigDecimal amount) {
+        if (userRepository.captureHeld(amount, id) < 1) {
+            databaseMetrics.rowCountMismatch(CAPTURE_HELD_OPERATION);
             throw new NotFoundException(USER_NOT_FOUND_BY_ID.formatted(id));
         }
+
+        record(id, BalanceOperation.PAYMENT, amount.negate());
     }
 
+    @Observed(name = BALANCE_OPERATION, lowCardinalityKeyValues = {OPERATION_TAG, "batch"})
     @Transactional
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @QueryHints({@QueryHint(name = "jakarta.persistence.lock.timeout", value = "3000")})
-    public void payment(BalanceDto dto) {
+    public List<BalanceOperationResultDto> applyBatch(List<BalanceOperationDto> operations) {
         UUID id = userContextService.getUserGuid();
-        User user = userRepository.findById(id)
+        if (userRepository.findWithExclusiveLockById(id).isEmpty()) {
+            throw new NotFoundException(USER_NOT_FOUND_BY_ID.formatted(id));
+        }
+
+        BigDecimal balance = userRepository.findBalanceById(id)
             .orElseThrow(
                 () -> new NotFoundException(USER_NOT_FOUND_BY_ID.formatted(id))
             );
+        BigDecimal payments = BigDecimal.ZERO;
+        List<BalanceLedgerEntry> entries = new ArrayList<>(operations.size());
+        List<BalanceOperationResultDto> results = new ArrayList<>(operations.size());
 
-        if (user.getBalance().compareTo(dto.amount()) < 0) {
-            throw new InsufficientFunds();
+        for (BalanceOperationDto operation : operations) {
+            BigDecimal amount = operation.amount();
+            if (operation.operation() == BalanceOperation.PAYMENT) {
+                if (balance.compareTo(amount) < 0) {
+                    throw new InsufficientFunds();
+                }
+
+                balance = balance.subtract(amount);
+                payments = payments.add(amount);
+                amount = amount.negate();
+            } else {
+                balance = balance.add(amount);
+            }
+
+            entries.add(
+                BalanceLedgerEntry.builder()
+                    .userId(id)
+                    .operation(operation.operation())
+                    .amount(amount)
+                    .build()
+            );
+            results.add(new BalanceOperationResultDto(operation.operation(), operation.amount(), balance));
         }
 
-        int rowsAffected = userRepository.payment(dto.amount(), id);
-        if (rowsAffected < 1) {
+        if (payments.signum() > 0 && userRepository.debit(payments, id) < 1) {
+            databaseMetrics.rowCountMismatch(DEBIT_OPERATION);
             throw new NotFoundException(USER_NOT_FOUND_BY_ID.formatted(id));
         }
+        balanceLedgerRepository.saveAll(entries);
+        entries.forEach(this::recordEvent);
+        userCacheService.evict(id);
+
+        return results;
+    }
+
+    private void record(UUID id, BalanceOperation operation, BigDecimal amount) {
+        BalanceLedgerEntry entry = BalanceLedgerEntry.builder()
+            .userId(id)
+            .operation(operation)
+            .amount(amount)
+            .build();
+        balanceLedgerRepository.save(entry);
+        recordEvent(entry);
+        userCacheService.evict(id);
+    }
+
+    private void recordEvent(BalanceLedgerEntry entry) {
+        outboxService.record(
+            entry.getUserId(),
+            entry.getOperation() == BalanceOperation.DEPOSIT
+                ? OutboxEventType.BALANCE_DEPOSIT
+                : OutboxEventType.BALANCE_PAYMENT,
+            new BalanceChangedEventDto(entry.getUserId(), entry.getId(), entry.getOperation(), entry.getAmount().abs())
+        );
     }
 
 }
@@ -0,0 +1,131 @@
+package ru.edalik.electronics.store.user.service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.edalik.electronics.store.user.service.config.properties.IdempotencyProperties;
+import ru.edalik.electronics.store.user.service.model.entity.IdempotencyKey;
+import ru.edalik.electronics.store.user.service.model.entity.IdempotencyKeyId;
+import ru.edalik.electronics.store.user.service.model.enums.BalanceOperation;
+import ru.edalik.electronics.store.user.service.model.exception.IdempotencyKeyReusedException;
+import ru.edalik.electronics.store.user.service.repository.IdempotencyKeyRepository;
+import ru.edalik.electronics.store.user.service.service.interfaces.IdempotencyService;
+import ru.edalik.electronics.store.user.service.service.security.UserContextService;
+
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_REUSED = "Idempotency key: %s was already used for another operation";
+
+    private static final String CACHE_NAME = "idempotency";
+    private static final String REPLAYS_METRIC = "idempotency.replays";
+    private static final String SOURCE_TAG = "source";
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+
+    private final UserContextService userContextService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final IdempotencyProperties properties;
+
+    private final Cache<IdempotencyKeyId, CompletedOperation> completedOperations;
+
+    private final Counter cacheReplays;
+
+    private final Counter databaseReplays;
+
+    public IdempotencyServiceImpl(
+        IdempotencyKeyRepository idempotencyKeyRepository,
+        UserContextService userContextService,
+        TransactionTemplate transactionTemplate,
+        IdempotencyProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.userContextService = userContextService;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.completedOperations = Caffeine.newBuilder()
+            .maximumSize(properties.cacheMaximumSize())
+            .expireAfterWrite(properties.cacheTtl())
+            .recordStats()
+            .build();
+        this.cacheReplays = meterRegistry.counter(REPLAYS_METRIC, SOURCE_TAG, "cache");
+        this.databaseReplays = meterRegistry.counter(REPLAYS_METRIC, SOURCE_TAG, "database");
+
+        CaffeineCacheMetrics.monitor(meterRegistry, completedOperations, CACHE_NAME);
+    }
+
+    public void execute(String key, BalanceOperation operation, BigDecimal amount, Runnable action) {
+        if (key == null) {
+            action.run();
+            return;
+        }
+
+        IdempotencyKeyId id = new IdempotencyKeyId(userContextService.getUserGuid(), key);
+        CompletedOperation cached = completedOperations.getIfPresent(id);
+        if (cached != null) {
+            cached.verify(key, operation, amount);
+            cacheReplays.increment();
+            return;
+        }
+
+        CompletedOperation completed = transactionTemplate.execute(status -> {
+            int claimed = idempotencyKeyRepository.claim(id.getUserId(), key, operation.name(), amount);
+            if (claimed < 1) {
+                return idempotencyKeyRepository.findById(id)
+                    .map(CompletedOperation::of)
+                    .orElseThrow(() -> new IllegalStateException("Idempotency key: %s vanished".formatted(key)));
+            }
+
+            action.run();
+            return null;
+        });
+
+        if (completed != null) {
+            completed.verify(key, operation, amount);
+            databaseReplays.increment();
+        } else {
+            completed = new CompletedOperation(operation, amount);
+        }
+
+        completedOperations.put(id, completed);
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval:PT1H}")
+    public void purgeExpired() {
+        int purged = idempotencyKeyRepository.deleteCreatedBefore(ZonedDateTime.now().minus(properties.retention()));
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private record CompletedOperation(BalanceOperation operation, BigDecimal amount) {
+
+        static CompletedOperation of(IdempotencyKey idempotencyKey) {
+            return new CompletedOperation(idempotencyKey.getOperation(), idempotencyKey.getAmount());
+        }
+
+        void verify(String key, BalanceOperation operation, BigDecimal amount) {
+            if (this.operation != operation || this.amount.compareTo(amount) != 0) {
+                throw new IdempotencyKeyReusedException(IDEMPOTENCY_KEY_REUSED.formatted(key));
+            }
+        }
+
+    }
+
+}
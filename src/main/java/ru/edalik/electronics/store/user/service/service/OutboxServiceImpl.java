@@ -0,0 +1,85 @@
+package ru.edalik.electronics.store.user.service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.edalik.electronics.store.user.service.model.entity.OutboxEvent;
+import ru.edalik.electronics.store.user.service.model.enums.OutboxEventType;
+import ru.edalik.electronics.store.user.service.repository.OutboxEventRepository;
+import ru.edalik.electronics.store.user.service.repository.OutboxSequenceJdbcRepository;
+import ru.edalik.electronics.store.user.service.service.interfaces.OutboxService;
+
+import java.io.UncheckedIOException;
+import java.util.UUID;
+
+@Slf4j
+@Service
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final OutboxSequenceJdbcRepository outboxSequenceJdbcRepository;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate savepointTemplate;
+
+    public OutboxServiceImpl(
+        OutboxEventRepository outboxEventRepository,
+        OutboxSequenceJdbcRepository outboxSequenceJdbcRepository,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxSequenceJdbcRepository = outboxSequenceJdbcRepository;
+        this.objectMapper = objectMapper;
+        this.savepointTemplate = new TransactionTemplate(transactionManager);
+        this.savepointTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_NESTED);
+    }
+
+    @Transactional(Transactional.TxType.MANDATORY)
+    public void record(UUID aggregateId, OutboxEventType type, Object payload) {
+        outboxEventRepository.save(
+            OutboxEvent.builder()
+                .aggregateId(aggregateId)
+                .aggregateSequence(nextSequence(aggregateId))
+                .eventType(type)
+                .payload(toJson(payload))
+                .build()
+        );
+    }
+
+    private long nextSequence(UUID aggregateId) {
+        if (outboxSequenceJdbcRepository.increment(aggregateId) < 1) {
+            createSequence(aggregateId);
+            outboxSequenceJdbcRepository.increment(aggregateId);
+        }
+
+        return outboxSequenceJdbcRepository.findLastSequence(aggregateId);
+    }
+
+    private void createSequence(UUID aggregateId) {
+        try {
+            savepointTemplate.executeWithoutResult(
+                status -> outboxSequenceJdbcRepository.insert(aggregateId)
+            );
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Outbox sequence for aggregate: {} was created concurrently", aggregateId);
+        }
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
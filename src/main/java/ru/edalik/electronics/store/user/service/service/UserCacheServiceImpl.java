@@ -0,0 +1,88 @@
+package ru.edalik.electronics.store.user.service.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Service;
+import ru.edalik.electronics.store.user.service.model.dto.UserDto;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserCacheInvalidationBus;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserCacheService;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
+
+import static ru.edalik.electronics.store.user.service.config.CacheConfig.USERS_CACHE;
+
+@Service
+@RequiredArgsConstructor
+public class UserCacheServiceImpl implements UserCacheService {
+
+    private final CacheManager cacheManager;
+
+    private final UserCacheInvalidationBus userCacheInvalidationBus;
+
+    public UserDto get(UUID id, Supplier<UserDto> loader) {
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> cached = getAsyncCache().get(id, (key, executor) -> load);
+        if (cached != load) {
+            return join(cached);
+        }
+
+        try {
+            UserDto user = loader.get();
+            load.complete(user);
+            return user;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    public void evict(UUID id) {
+        getCache().evict(id);
+        userCacheInvalidationBus.publish(id);
+    }
+
+    public void evictAll(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        Cache cache = getCache();
+        ids.forEach(cache::evict);
+        userCacheInvalidationBus.publishClear();
+    }
+
+    private Cache getCache() {
+        return Objects.requireNonNull(cacheManager.getCache(USERS_CACHE));
+    }
+
+    private AsyncCache<Object, Object> getAsyncCache() {
+        Cache cache = getCache();
+        if (cache instanceof TransactionAwareCacheDecorator decorator) {
+            cache = decorator.getTargetCache();
+        }
+
+        return ((CaffeineCache) cache).getAsyncCache();
+    }
+
+    private static UserDto join(CompletableFuture<Object> future) {
+        try {
+            return (UserDto) future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw e;
+        }
+    }
+
+}
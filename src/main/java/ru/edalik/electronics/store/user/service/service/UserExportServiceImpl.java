@@ -0,0 +1,57 @@
+package ru.edalik.electronics.store.user.service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.edalik.electronics.store.user.service.config.properties.UserExportProperties;
+import ru.edalik.electronics.store.user.service.model.dto.UserDto;
+import ru.edalik.electronics.store.user.service.repository.UserJdbcRepository;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserExportService;
+
+import java.time.ZonedDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+@Slf4j
+@Service
+public class UserExportServiceImpl implements UserExportService {
+
+    private final UserJdbcRepository userJdbcRepository;
+
+    private final UserExportProperties properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public UserExportServiceImpl(
+        UserJdbcRepository userJdbcRepository,
+        UserExportProperties properties,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.userJdbcRepository = userJdbcRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    public long export(ZonedDateTime updatedSince, Consumer<UserDto> action) {
+        AtomicLong exported = new AtomicLong();
+        long start = System.nanoTime();
+
+        transactionTemplate.executeWithoutResult(
+            status -> userJdbcRepository.findAllModifiedSince(
+                updatedSince,
+                properties.fetchSize(),
+                user -> {
+                    action.accept(user);
+                    exported.incrementAndGet();
+                }
+            )
+        );
+
+        log.info("Exported {} users in {} ms", exported.get(), (System.nanoTime() - start) / 1_000_000);
+
+        return exported.get();
+    }
+
+}
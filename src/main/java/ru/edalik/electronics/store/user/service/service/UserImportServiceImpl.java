@@ -0,0 +1,377 @@
+package ru.edalik.electronics.store.user.service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.edalik.electronics.store.user.service.config.properties.UserImportProperties;
+import ru.edalik.electronics.store.user.service.mapper.UserMapper;
+import ru.edalik.electronics.store.user.service.model.dto.UserImportRowDto;
+import ru.edalik.electronics.store.user.service.model.entity.User;
+import ru.edalik.electronics.store.user.service.model.entity.UserImportJob;
+import ru.edalik.electronics.store.user.service.model.enums.UserImportFormat;
+import ru.edalik.electronics.store.user.service.model.enums.UserImportStatus;
+import ru.edalik.electronics.store.user.service.model.exception.ImportJobConflictException;
+import ru.edalik.electronics.store.user.service.model.exception.InvalidImportFileException;
+import ru.edalik.electronics.store.user.service.model.exception.NotFoundException;
+import ru.edalik.electronics.store.user.service.repository.UserImportJdbcRepository;
+import ru.edalik.electronics.store.user.service.repository.UserImportJobRepository;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserCacheService;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserImportService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    public static final String IMPORT_JOB_NOT_FOUND_BY_ID = "Import job with id: %s was not found";
+    public static final String IMPORT_FILE_NOT_READABLE = "Import file %s is not readable";
+    public static final String IMPORT_JOB_RUNNING = "Import job with id: %s is already running";
+    public static final String IMPORT_JOB_COMPLETED = "Import job with id: %s is already completed";
+
+    static final String ROWS_METRIC = "user.import.rows";
+    static final String RESULT_TAG = "result";
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final UserImportJobRepository userImportJobRepository;
+
+    private final UserImportJdbcRepository userImportJdbcRepository;
+
+    private final UserMapper userMapper;
+
+    private final UserCacheService userCacheService;
+
+    private final Validator validator;
+
+    private final ObjectMapper objectMapper;
+
+    private final TaskExecutor taskExecutor;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final UserImportProperties properties;
+
+    private final CsvMapper csvMapper;
+
+    private final Counter importedRows;
+
+    private final Counter skippedRows;
+
+    private final Counter rejectedRows;
+
+    private final Set<UUID> runningJobs = ConcurrentHashMap.newKeySet();
+
+    public UserImportServiceImpl(
+        UserImportJobRepository userImportJobRepository,
+        UserImportJdbcRepository userImportJdbcRepository,
+        UserMapper userMapper,
+        UserCacheService userCacheService,
+        Validator validator,
+        ObjectMapper objectMapper,
+        @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+        TransactionTemplate transactionTemplate,
+        UserImportProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.userImportJobRepository = userImportJobRepository;
+        this.userImportJdbcRepository = userImportJdbcRepository;
+        this.userMapper = userMapper;
+        this.userCacheService = userCacheService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.taskExecutor = taskExecutor;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.csvMapper = CsvMapper.builder()
+            .addModule(new JavaTimeModule())
+            .enable(CsvParser.Feature.EMPTY_STRING_AS_NULL)
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build();
+        this.importedRows = meterRegistry.counter(ROWS_METRIC, RESULT_TAG, "imported");
+        this.skippedRows = meterRegistry.counter(ROWS_METRIC, RESULT_TAG, "skipped");
+        this.rejectedRows = meterRegistry.counter(ROWS_METRIC, RESULT_TAG, "rejected");
+    }
+
+    public UserImportJob start(String fileName, UserImportFormat format) {
+        resolve(fileName);
+        UserImportJob job = userImportJobRepository.save(
+            UserImportJob.builder()
+                .fileName(fileName)
+                .format(format)
+                .status(UserImportStatus.RUNNING)
+                .build()
+        );
+        submit(job.getId());
+
+        return job;
+    }
+
+    public UserImportJob resume(UUID id) {
+        UserImportJob resumed = transactionTemplate.execute(status -> {
+            UserImportJob job = get(id);
+            if (job.getStatus() == UserImportStatus.COMPLETED) {
+                throw new ImportJobConflictException(IMPORT_JOB_COMPLETED.formatted(id));
+            }
+            if (runningJobs.contains(id)) {
+                throw new ImportJobConflictException(IMPORT_JOB_RUNNING.formatted(id));
+            }
+
+            resolve(job.getFileName());
+            job.setStatus(UserImportStatus.RUNNING);
+            job.setError(null);
+
+            return userImportJobRepository.save(job);
+        });
+        submit(id);
+
+        return resumed;
+    }
+
+    public UserImportJob get(UUID id) {
+        return userImportJobRepository.findById(id)
+            .orElseThrow(
+                () -> new NotFoundException(IMPORT_JOB_NOT_FOUND_BY_ID.formatted(id))
+            );
+    }
+
+    void run(UUID id) {
+        UserImportJob job = Objects.requireNonNull(transactionTemplate.execute(status -> get(id)));
+        long resumedFrom = job.getProcessedRows();
+        long start = System.nanoTime();
+        log.info("Import job {} started on {} from row {}", id, job.getFileName(), resumedFrom);
+
+        try (BufferedReader reader = Files.newBufferedReader(resolve(job.getFileName()))) {
+            ObjectReader rowReader = rowReader(job.getFormat(), reader);
+            long skipped = 0;
+            while (skipped < resumedFrom && reader.readLine() != null) {
+                skipped++;
+            }
+
+            Chunk chunk = new Chunk(properties.chunkSize());
+            String text;
+            while ((text = reader.readLine()) != null) {
+                long line = job.getProcessedRows() + ++chunk.consumed;
+                if (!text.isBlank()) {
+                    User user = parse(rowReader, text, line);
+                    if (user != null) {
+                        chunk.lines.add(line);
+                        chunk.users.add(user);
+                    } else {
+                        chunk.rejected++;
+                    }
+                }
+
+                if (chunk.consumed >= properties.chunkSize()) {
+                    job = checkpoint(job, chunk, false, resumedFrom, start);
+                    chunk.clear();
+                }
+            }
+
+            job = checkpoint(job, chunk, true, resumedFrom, start);
+            log.info(
+                "Import job {} completed: {} imported, {} skipped, {} rejected, {} rows/s",
+                id,
+                job.getImportedRows(),
+                job.getSkippedRows(),
+                job.getRejectedRows(),
+                job.getRowsPerSecond()
+            );
+        } catch (OptimisticLockingFailureException e) {
+            log.warn("Import job {} was resumed elsewhere, stopping this run", id);
+        } catch (IOException | RuntimeException e) {
+            log.error("Import job {} failed at row {}", id, job.getProcessedRows(), e);
+            fail(id, e);
+        }
+    }
+
+    private void submit(UUID id) {
+        if (!runningJobs.add(id)) {
+            throw new ImportJobConflictException(IMPORT_JOB_RUNNING.formatted(id));
+        }
+
+        try {
+            taskExecutor.execute(() -> {
+                try {
+                    run(id);
+                } finally {
+                    runningJobs.remove(id);
+                }
+            });
+        } catch (RuntimeException e) {
+            runningJobs.remove(id);
+            throw e;
+        }
+    }
+
+    private UserImportJob checkpoint(UserImportJob job, Chunk chunk, boolean last, long resumedFrom, long start) {
+        long[] merged = new long[2];
+        UserImportJob saved = Objects.requireNonNull(transactionTemplate.execute(status -> {
+            ZonedDateTime now = ZonedDateTime.now();
+            if (!chunk.users.isEmpty()) {
+                userImportJdbcRepository.copyToStaging(chunk.lines, chunk.users);
+                List<UUID> updated = userImportJdbcRepository.mergeExisting(now);
+                int inserted = userImportJdbcRepository.insertNew(now);
+                userCacheService.evictAll(updated);
+                merged[0] = updated.size() + inserted;
+                merged[1] = chunk.users.size() - merged[0];
+            }
+
+            job.setProcessedRows(job.getProcessedRows() + chunk.consumed);
+            job.setImportedRows(job.getImportedRows() + merged[0]);
+            job.setSkippedRows(job.getSkippedRows() + merged[1]);
+            job.setRejectedRows(job.getRejectedRows() + chunk.rejected);
+            job.setRowsPerSecond(rowsPerSecond(job.getProcessedRows() - resumedFrom, System.nanoTime() - start));
+            if (last) {
+                job.setStatus(UserImportStatus.COMPLETED);
+                job.setFinishedTime(now);
+            }
+
+            return userImportJobRepository.save(job);
+        }));
+
+        importedRows.increment(merged[0]);
+        skippedRows.increment(merged[1]);
+        rejectedRows.increment(chunk.rejected);
+        log.info(
+            "Import job {} checkpoint at row {}: {} rows/s",
+            saved.getId(),
+            saved.getProcessedRows(),
+            saved.getRowsPerSecond()
+        );
+
+        return saved;
+    }
+
+    private void fail(UUID id, Exception cause) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                UserImportJob job = get(id);
+                if (job.getStatus() != UserImportStatus.RUNNING) {
+                    return;
+                }
+
+                String message = Objects.requireNonNullElse(cause.getMessage(), cause.getClass().getName());
+                job.setStatus(UserImportStatus.FAILED);
+                job.setError(message.length() > MAX_ERROR_LENGTH ? message.substring(0, MAX_ERROR_LENGTH) : message);
+                userImportJobRepository.save(job);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Could not mark import job {} as failed: {}", id, e.getMessage());
+        }
+    }
+
+    private ObjectReader rowReader(UserImportFormat format, BufferedReader reader) throws IOException {
+        if (format == UserImportFormat.NDJSON) {
+            return objectMapper.readerFor(UserImportRowDto.class);
+        }
+
+        CsvSchema.Builder schema = CsvSchema.builder();
+        String header = reader.readLine();
+        if (header != null) {
+            String[] columns = csvMapper.readerFor(String[].class).readValue(header);
+            for (String column : columns) {
+                schema.addColumn(column.trim());
+            }
+        }
+
+        return csvMapper.readerFor(UserImportRowDto.class).with(schema.build());
+    }
+
+    private User parse(ObjectReader rowReader, String text, long line) {
+        UserImportRowDto row;
+        try {
+            row = rowReader.readValue(text);
+        } catch (JsonProcessingException e) {
+            log.warn("Import row {} rejected: {}", line, e.getOriginalMessage());
+            return null;
+        }
+        if (row == null) {
+            return null;
+        }
+
+        Set<ConstraintViolation<?>> violations = new HashSet<>(validator.validate(row));
+        violations.addAll(validator.validate(row.toUpdateDto()));
+        if (!violations.isEmpty()) {
+            log.warn(
+                "Import row {} rejected: {}",
+                line,
+                violations.stream().map(violation -> violation.getPropertyPath() + " " + violation.getMessage()).toList()
+            );
+            return null;
+        }
+
+        User user = userMapper.toEntity(row.toUpdateDto());
+        user.setId(row.id());
+        user.setLogin(row.login());
+        user.setEmail(row.email());
+
+        return user;
+    }
+
+    private Path resolve(String fileName) {
+        Path directory = properties.directory().toAbsolutePath().normalize();
+        Path file = directory.resolve(fileName).normalize();
+        if (!file.startsWith(directory) || !Files.isRegularFile(file) || !Files.isReadable(file)) {
+            throw new InvalidImportFileException(IMPORT_FILE_NOT_READABLE.formatted(fileName));
+        }
+
+        return file;
+    }
+
+    private static long rowsPerSecond(long rows, long elapsedNanos) {
+        return elapsedNanos > 0 ? rows * TimeUnit.SECONDS.toNanos(1) / elapsedNanos : rows;
+    }
+
+    private static final class Chunk {
+
+        private final List<Long> lines;
+
+        private final List<User> users;
+
+        private int consumed;
+
+        private long rejected;
+
+        Chunk(int size) {
+            this.lines = new ArrayList<>(size);
+            this.users = new ArrayList<>(size);
+        }
+
+        void clear() {
+            lines.clear();
+            users.clear();
+            consumed = 0;
+            rejected = 0;
+        }
+
+    }
+
+}
@@ -0,0 +1,24 @@
+package ru.edalik.electronics.store.user.service.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import ru.edalik.electronics.store.user.service.model.dto.UserRevisionDto;
+import ru.edalik.electronics.store.user.service.repository.UserJdbcRepository;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserRevisionService;
+import ru.edalik.electronics.store.user.service.service.security.UserContextService;
+
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+public class UserRevisionServiceImpl implements UserRevisionService {
+
+    private final UserJdbcRepository userJdbcRepository;
+
+    private final UserContextService userContextService;
+
+    public Optional<UserRevisionDto> getRevision() {
+        return userJdbcRepository.findRevisionById(userContextService.getUserGuid());
+    }
+
+}
@@ -0,0 +1,35 @@
+package ru.edalik.electronics.store.user.service.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.edalik.electronics.store.user.service.model.dto.UserDto;
+import ru.edalik.electronics.store.user.service.model.dto.UserPageDto;
+import ru.edalik.electronics.store.user.service.model.dto.UserSearchCursor;
+import ru.edalik.electronics.store.user.service.repository.UserJdbcRepository;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserSearchService;
+
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class UserSearchServiceImpl implements UserSearchService {
+
+    private final UserJdbcRepository userJdbcRepository;
+
+    @Transactional(readOnly = true)
+    public UserPageDto search(String query, String cursor, int limit) {
+        String normalizedQuery = query != null && !query.isBlank() ? query.strip() : null;
+        UserSearchCursor after = cursor != null && !cursor.isBlank() ? UserSearchCursor.decode(cursor) : null;
+
+        List<UserDto> users = userJdbcRepository.search(normalizedQuery, after, limit + 1);
+        if (users.size() <= limit) {
+            return new UserPageDto(users, null);
+        }
+
+        List<UserDto> page = users.subList(0, limit);
+
+        return new UserPageDto(page, UserSearchCursor.of(page.get(limit - 1)).encode());
+    }
+
+}
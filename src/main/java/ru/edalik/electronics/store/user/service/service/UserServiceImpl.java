@@ -1,19 +1,41 @@
 package ru.edalik.electronics.store.user.service.service;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import io.micrometer.observation.annotation.Observed;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.edalik.electronics.store.user.service.mapper.UserMapper;
+import ru.edalik.electronics.store.user.service.model.dto.UserDto;
 import ru.edalik.electronics.store.user.service.model.dto.UserUpdateDto;
+import ru.edalik.electronics.store.user.service.model.dto.event.UserDeletedEventDto;
 import ru.edalik.electronics.store.user.service.model.entity.User;
+import ru.edalik.electronics.store.user.service.model.enums.OutboxEventType;
 import ru.edalik.electronics.store.user.service.model.exception.NotFoundException;
+import ru.edalik.electronics.store.user.service.model.exception.PreconditionFailedException;
+import ru.edalik.electronics.store.user.service.repository.UserJdbcRepository;
 import ru.edalik.electronics.store.user.service.repository.UserRepository;
+import ru.edalik.electronics.store.user.service.service.interfaces.OutboxService;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserCacheService;
 import ru.edalik.electronics.store.user.service.service.interfaces.UserService;
+import ru.edalik.electronics.store.user.service.service.metrics.DatabaseMetrics;
+import ru.edalik.electronics.store.user.service.service.retry.OptimisticLockRetry;
 import ru.edalik.electronics.store.user.service.service.security.UserContextService;
+import ru.edalik.electronics.store.user.service.service.security.UserPrincipal;
 
-import java.util.Optional;
+import java.math.BigDecimal;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+
+import static ru.edalik.electronics.store.user.service.config.metrics.OperationOutcomeObservationFilter.OPERATION_TAG;
+import static ru.edalik.electronics.store.user.service.config.metrics.OperationOutcomeObservationFilter.USER_OPERATION;
 
 @Slf4j
 @Service
@@ -21,45 +43,137 @@ import java.util.UUID;
 public class UserServiceImpl implements UserService {
 
     public static final String USER_NOT_FOUND_BY_ID = "User with id: %s was not found";
+    public static final String USER_VERSION_MISMATCH = "User with id: %s is at version %s, expected %s";
+
+    static final String UPDATE_OPERATION = "update";
+    static final String DELETE_OPERATION = "delete";
+    static final String GET_OR_CREATE_OPERATION = "get_or_create";
+
+    static final int BULK_CHUNK_SIZE = 1000;
 
     private final UserRepository userRepository;
 
+    private final UserJdbcRepository userJdbcRepository;
+
     private final UserMapper userMapper;
 
     private final UserContextService userContextService;
 
+    private final UserCacheService userCacheService;
+
+    private final OutboxService outboxService;
+
+    private final OptimisticLockRetry optimisticLockRetry;
+
+    private final DatabaseMetrics databaseMetrics;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ObservationRegistry observationRegistry;
+
+    @Observed(name = USER_OPERATION, lowCardinalityKeyValues = {OPERATION_TAG, "get_profile"})
+    public UserDto getProfile() {
+        UUID id = userContextService.getUserGuid();
+
+        return userCacheService.get(
+            id,
+            () -> Observation.createNotStarted(USER_OPERATION, observationRegistry)
+                .lowCardinalityKeyValue(OPERATION_TAG, GET_OR_CREATE_OPERATION)
+                .observe(() -> userMapper.toDto(userRepository.findById(id).orElseGet(this::getOrCreate)))
+        );
+    }
+
+    @Observed(name = USER_OPERATION, lowCardinalityKeyValues = {OPERATION_TAG, GET_OR_CREATE_OPERATION})
     public User getOrCreate() {
-        return userRepository.findById(userContextService.getUserGuid())
-            .orElseGet(this::register);
+        User user = newUser(userContextService.getUser());
+
+        return userJdbcRepository.getOrCreate(user.getId(), user.getLogin(), user.getEmail(), user.getCreatedTime())
+            .or(() -> userRepository.findById(user.getId()))
+            .orElseThrow(
+                () -> new NotFoundException(USER_NOT_FOUND_BY_ID.formatted(user.getId()))
+            );
     }
 
     public User register() {
-        User user = User.builder()
-            .id(userContextService.getUserGuid())
-            .login(userContextService.getPreferredUserName())
-            .email(userContextService.getEmail())
-            .build();
+        User user = newUser(userContextService.getUser());
+
+        return transactionTemplate.execute(status -> {
+            int rowsAffected = userRepository.insertIfAbsent(
+                user.getId(),
+                user.getLogin(),
+                user.getEmail(),
+                user.getCreatedTime()
+            );
+            if (rowsAffected > 0) {
+                return user;
+            }
 
-        return userRepository.save(user);
+            return userRepository.findById(user.getId())
+                .orElseThrow(
+                    () -> new NotFoundException(USER_NOT_FOUND_BY_ID.formatted(user.getId()))
+                );
+        });
     }
 
-    public User update(UserUpdateDto dto) {
+    @Observed(name = USER_OPERATION, lowCardinalityKeyValues = {OPERATION_TAG, UPDATE_OPERATION})
+    public User update(UserUpdateDto dto, Long expectedVersion) {
         UUID id = userContextService.getUserGuid();
-        Optional<User> user = userRepository.findById(id);
-        if (user.isEmpty()) {
-            throw new NotFoundException(USER_NOT_FOUND_BY_ID.formatted(id));
+
+        return optimisticLockRetry.execute(UPDATE_OPERATION, () -> update(id, dto, expectedVersion));
+    }
+
+    private User update(UUID id, UserUpdateDto dto, Long expectedVersion) {
+        User user = userRepository.findById(id)
+            .orElseThrow(
+                () -> new NotFoundException(USER_NOT_FOUND_BY_ID.formatted(id))
+            );
+        if (expectedVersion != null && !expectedVersion.equals(user.getVersion())) {
+            throw new PreconditionFailedException(
+                USER_VERSION_MISMATCH.formatted(id, user.getVersion(), expectedVersion)
+            );
         }
 
-        return userRepository.save(userMapper.partialUpdate(dto, user.get()));
+        User updated = userRepository.saveAndFlush(userMapper.partialUpdate(dto, user));
+        outboxService.record(id, OutboxEventType.USER_UPDATED, userMapper.toDto(updated));
+        userCacheService.evict(id);
+
+        return updated;
     }
 
+    @Observed(name = USER_OPERATION, lowCardinalityKeyValues = {OPERATION_TAG, DELETE_OPERATION})
     @Transactional
     public void delete() {
         UUID id = userContextService.getUserGuid();
         int rowsAffected = userRepository.customDeleteById(id);
         if (rowsAffected < 1) {
+            databaseMetrics.rowCountMismatch(DELETE_OPERATION);
             throw new NotFoundException(USER_NOT_FOUND_BY_ID.formatted(id));
         }
+
+        outboxService.record(id, OutboxEventType.USER_DELETED, new UserDeletedEventDto(id));
+        userCacheService.evict(id);
+    }
+
+    public void forEachById(Set<UUID> ids, Consumer<UserDto> action) {
+        List<UUID> idList = List.copyOf(ids);
+        for (int from = 0; from < idList.size(); from += BULK_CHUNK_SIZE) {
+            userJdbcRepository.findAllById(idList.subList(from, Math.min(from + BULK_CHUNK_SIZE, idList.size())), action);
+        }
+    }
+
+    private static User newUser(UserPrincipal principal) {
+        return User.builder()
+            .id(principal.id())
+            .login(principal.preferredUserName())
+            .email(principal.email())
+            .balanceSnapshot(BigDecimal.ZERO)
+            .ledgerPosition(0L)
+            .heldAmount(BigDecimal.ZERO)
+            .balance(BigDecimal.ZERO)
+            .version(0L)
+            .createdTime(ZonedDateTime.now().truncatedTo(ChronoUnit.MICROS))
+            .isNew(false)
+            .build();
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,21 @@
+package ru.edalik.electronics.store.user.service.service.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserCacheInvalidationBus;
+
+import java.util.UUID;
+
+@Service
+@ConditionalOnProperty(name = "cache.invalidation.enabled", havingValue = "false", matchIfMissing = true)
+public class LocalUserCacheInvalidationBus implements UserCacheInvalidationBus {
+
+    public void publish(UUID id) {
+        // not implemented because: single instance, local eviction is enough
+    }
+
+    public void publishClear() {
+        // not implemented because: single instance, local eviction is enough
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,160 @@
+package ru.edalik.electronics.store.user.service.service.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCallback;
+import org.springframework.stereotype.Service;
+import ru.edalik.electronics.store.user.service.config.properties.CacheInvalidationProperties;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserCacheInvalidationBus;
+import ru.edalik.electronics.store.user.service.service.replica.ReplicaRoutingPolicy;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Objects;
+import java.util.UUID;
+
+import static ru.edalik.electronics.store.user.service.config.CacheConfig.USERS_CACHE;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "cache.invalidation.enabled", havingValue = "true")
+public class PostgresUserCacheInvalidationBus implements UserCacheInvalidationBus, SmartLifecycle {
+
+    public static final String CHANNEL = "user_cache_invalidation";
+
+    public static final String CLEAR_ALL = "*";
+
+    private static final String NOTIFY = "SELECT pg_notify(?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DataSourceProperties dataSourceProperties;
+
+    private final CacheManager cacheManager;
+
+    private final CacheInvalidationProperties properties;
+
+    private final ObjectProvider<ReplicaRoutingPolicy> replicaRoutingPolicy;
+
+    private volatile boolean running;
+
+    private volatile boolean listening;
+
+    private Thread listener;
+
+    public void publish(UUID id) {
+        send(id.toString());
+    }
+
+    public void publishClear() {
+        send(CLEAR_ALL);
+    }
+
+    public boolean isListening() {
+        return listening;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        listener = new Thread(this::listen, "user-cache-invalidation");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        listener.interrupt();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = openConnection()) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+
+                getCache().clear();
+                listening = true;
+                log.info("Listening for user cache invalidations on channel: {}", CHANNEL);
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                int timeout = (int) properties.pollTimeout().toMillis();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(timeout);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            invalidate(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                listening = false;
+                if (running) {
+                    log.warn("User cache invalidation listener failed, reconnecting: {}", e.getMessage());
+                    sleep();
+                }
+            }
+        }
+
+        listening = false;
+    }
+
+    private void send(String payload) {
+        jdbcTemplate.execute(NOTIFY, (PreparedStatementCallback<Boolean>) statement -> {
+            statement.setString(1, CHANNEL);
+            statement.setString(2, payload);
+            return statement.execute();
+        });
+    }
+
+    private void invalidate(String payload) {
+        if (CLEAR_ALL.equals(payload)) {
+            getCache().clear();
+        } else {
+            UUID id = UUID.fromString(payload);
+            replicaRoutingPolicy.ifAvailable(policy -> policy.pin(id));
+            getCache().evict(id);
+        }
+    }
+
+    private Connection openConnection() throws SQLException {
+        return DriverManager.getConnection(
+            dataSourceProperties.determineUrl(),
+            dataSourceProperties.determineUsername(),
+            dataSourceProperties.determinePassword()
+        );
+    }
+
+    private Cache getCache() {
+        return Objects.requireNonNull(cacheManager.getCache(USERS_CACHE));
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(properties.reconnectDelay().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+}
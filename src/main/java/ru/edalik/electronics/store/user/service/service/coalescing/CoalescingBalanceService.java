@@ -0,0 +1,58 @@
+package ru.edalik.electronics.store.user.service.service.coalescing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceDto;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceOperationDto;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceOperationResultDto;
+import ru.edalik.electronics.store.user.service.service.BalanceServiceImpl;
+import ru.edalik.electronics.store.user.service.service.interfaces.BalanceService;
+import ru.edalik.electronics.store.user.service.service.replica.ReplicaRoutingPolicy;
+import ru.edalik.electronics.store.user.service.service.security.UserContextService;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Primary
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "balance.coalescing.enabled", havingValue = "true")
+public class CoalescingBalanceService implements BalanceService {
+
+    private final BalanceServiceImpl balanceService;
+
+    private final DepositCoalescer depositCoalescer;
+
+    private final UserContextService userContextService;
+
+    private final ObjectProvider<ReplicaRoutingPolicy> replicaRoutingPolicy;
+
+    public BigDecimal getBalance() {
+        return balanceService.getBalance();
+    }
+
+    public void deposit(BalanceDto dto) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            balanceService.deposit(dto);
+            return;
+        }
+
+        UUID userId = userContextService.getUserGuid();
+        depositCoalescer.deposit(userId, dto.amount());
+        replicaRoutingPolicy.ifAvailable(policy -> policy.pin(userId));
+    }
+
+    public void payment(BalanceDto dto) {
+        balanceService.payment(dto);
+    }
+
+    public List<BalanceOperationResultDto> applyBatch(List<BalanceOperationDto> operations) {
+        return balanceService.applyBatch(operations);
+    }
+
+}
@@ -0,0 +1,170 @@
+package ru.edalik.electronics.store.user.service.service.coalescing;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import ru.edalik.electronics.store.user.service.config.properties.DepositCoalescingProperties;
+import ru.edalik.electronics.store.user.service.service.BalanceServiceImpl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "balance.coalescing.enabled", havingValue = "true")
+public class DepositCoalescer implements SmartLifecycle {
+
+    private static final String BATCH_SIZE_METRIC = "balance.deposit.coalesced.batch.size";
+
+    private final BalanceServiceImpl balanceService;
+
+    private final TaskExecutor taskExecutor;
+
+    private final DepositCoalescingProperties properties;
+
+    private final DistributionSummary batchSizes;
+
+    private final Map<UUID, Batch> batches = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+
+    private ScheduledExecutorService scheduler;
+
+    public DepositCoalescer(
+        BalanceServiceImpl balanceService,
+        @Qualifier("applicationTaskExecutor") TaskExecutor taskExecutor,
+        DepositCoalescingProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.balanceService = balanceService;
+        this.taskExecutor = taskExecutor;
+        this.properties = properties;
+        this.batchSizes = DistributionSummary.builder(BATCH_SIZE_METRIC)
+            .description("Deposits applied per coalesced transaction")
+            .register(meterRegistry);
+    }
+
+    public void deposit(UUID userId, BigDecimal amount) {
+        try {
+            submit(userId, amount).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for deposit of user: %s".formatted(userId), e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    CompletableFuture<Void> submit(UUID userId, BigDecimal amount) {
+        PendingDeposit deposit = new PendingDeposit(amount, new CompletableFuture<>());
+        if (!running) {
+            apply(new Batch(userId, List.of(deposit)));
+            return deposit.future();
+        }
+
+        Batch[] full = new Batch[1];
+        batches.compute(userId, (id, batch) -> {
+            if (batch == null) {
+                Batch created = new Batch(id, new ArrayList<>());
+                scheduler.schedule(() -> flushExpired(created), properties.window().toNanos(), TimeUnit.NANOSECONDS);
+                batch = created;
+            }
+
+            batch.getDeposits().add(deposit);
+            if (batch.getDeposits().size() >= properties.maxOperations()) {
+                full[0] = batch;
+                return null;
+            }
+
+            return batch;
+        });
+
+        if (full[0] != null) {
+            taskExecutor.execute(() -> apply(full[0]));
+        }
+
+        return deposit.future();
+    }
+
+    @Override
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "deposit-coalescer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        scheduler.shutdownNow();
+        for (UUID userId : List.copyOf(batches.keySet())) {
+            Batch batch = batches.remove(userId);
+            if (batch != null) {
+                apply(batch);
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void flushExpired(Batch batch) {
+        if (batches.remove(batch.getUserId(), batch)) {
+            taskExecutor.execute(() -> apply(batch));
+        }
+    }
+
+    private void apply(Batch batch) {
+        List<BigDecimal> amounts = batch.getDeposits().stream().map(PendingDeposit::amount).toList();
+        try {
+            balanceService.depositAll(batch.getUserId(), amounts);
+        } catch (RuntimeException e) {
+            log.warn("Coalesced deposit of {} operations for user: {} failed", amounts.size(), batch.getUserId(), e);
+            batch.getDeposits().forEach(deposit -> deposit.future().completeExceptionally(e));
+            return;
+        }
+
+        batchSizes.record(amounts.size());
+        batch.getDeposits().forEach(deposit -> deposit.future().complete(null));
+    }
+
+    private record PendingDeposit(BigDecimal amount, CompletableFuture<Void> future) {
+
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static final class Batch {
+
+        private final UUID userId;
+
+        private final List<PendingDeposit> deposits;
+
+    }
+
+}
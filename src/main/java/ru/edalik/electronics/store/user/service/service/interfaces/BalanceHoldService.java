@@ -0,0 +1,17 @@
+package ru.edalik.electronics.store.user.service.service.interfaces;
+
+import ru.edalik.electronics.store.user.service.model.entity.BalanceHold;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.UUID;
+
+public interface BalanceHoldService {
+
+    BalanceHold create(BigDecimal amount, Duration ttl);
+
+    BalanceHold capture(UUID holdId);
+
+    BalanceHold release(UUID holdId);
+
+}
@@ -1,8 +1,11 @@
 package ru.edalik.electronics.store.user.service.service.interfaces;
 
 import ru.edalik.electronics.store.user.service.model.dto.BalanceDto;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceOperationDto;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceOperationResultDto;
 
 import java.math.BigDecimal;
+import java.util.List;
 
 public interface BalanceService {
 
@@ -12,4 +15,6 @@ public interface BalanceService {
 
     void payment(BalanceDto dto);
 
+    List<BalanceOperationResultDto> applyBatch(List<BalanceOperationDto> operations);
+
 }
\ No newline at end of file
@@ -0,0 +1,13 @@
+package ru.edalik.electronics.store.user.service.service.interfaces;
+
+import ru.edalik.electronics.store.user.service.model.enums.BalanceOperation;
+
+import java.math.BigDecimal;
+
+public interface IdempotencyService {
+
+    void execute(String key, BalanceOperation operation, BigDecimal amount, Runnable action);
+
+    void purgeExpired();
+
+}
\ No newline at end of file
@@ -0,0 +1,11 @@
+package ru.edalik.electronics.store.user.service.service.interfaces;
+
+import ru.edalik.electronics.store.user.service.model.entity.OutboxEvent;
+
+import java.util.List;
+
+public interface OutboxEventPublisher {
+
+    void publish(List<OutboxEvent> events);
+
+}
@@ -0,0 +1,11 @@
+package ru.edalik.electronics.store.user.service.service.interfaces;
+
+import ru.edalik.electronics.store.user.service.model.enums.OutboxEventType;
+
+import java.util.UUID;
+
+public interface OutboxService {
+
+    void record(UUID aggregateId, OutboxEventType type, Object payload);
+
+}
@@ -0,0 +1,11 @@
+package ru.edalik.electronics.store.user.service.service.interfaces;
+
+import java.util.UUID;
+
+public interface UserCacheInvalidationBus {
+
+    void publish(UUID id);
+
+    void publishClear();
+
+}
\ No newline at end of file
@@ -0,0 +1,17 @@
+package ru.edalik.electronics.store.user.service.service.interfaces;
+
+import ru.edalik.electronics.store.user.service.model.dto.UserDto;
+
+import java.util.Collection;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+public interface UserCacheService {
+
+    UserDto get(UUID id, Supplier<UserDto> loader);
+
+    void evict(UUID id);
+
+    void evictAll(Collection<UUID> ids);
+
+}
\ No newline at end of file
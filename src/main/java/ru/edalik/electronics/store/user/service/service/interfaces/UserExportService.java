@@ -0,0 +1,12 @@
+package ru.edalik.electronics.store.user.service.service.interfaces;
+
+import ru.edalik.electronics.store.user.service.model.dto.UserDto;
+
+import java.time.ZonedDateTime;
+import java.util.function.Consumer;
+
+public interface UserExportService {
+
+    long export(ZonedDateTime updatedSince, Consumer<UserDto> action);
+
+}
@@ -0,0 +1,16 @@
+package ru.edalik.electronics.store.user.service.service.interfaces;
+
+import ru.edalik.electronics.store.user.service.model.entity.UserImportJob;
+import ru.edalik.electronics.store.user.service.model.enums.UserImportFormat;
+
+import java.util.UUID;
+
+public interface UserImportService {
+
+    UserImportJob start(String fileName, UserImportFormat format);
+
+    UserImportJob resume(UUID id);
+
+    UserImportJob get(UUID id);
+
+}
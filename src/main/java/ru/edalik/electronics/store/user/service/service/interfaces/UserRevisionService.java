@@ -0,0 +1,11 @@
+package ru.edalik.electronics.store.user.service.service.interfaces;
+
+import ru.edalik.electronics.store.user.service.model.dto.UserRevisionDto;
+
+import java.util.Optional;
+
+public interface UserRevisionService {
+
+    Optional<UserRevisionDto> getRevision();
+
+}
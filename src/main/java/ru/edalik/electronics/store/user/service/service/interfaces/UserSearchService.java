@@ -0,0 +1,9 @@
+package ru.edalik.electronics.store.user.service.service.interfaces;
+
+import ru.edalik.electronics.store.user.service.model.dto.UserPageDto;
+
+public interface UserSearchService {
+
+    UserPageDto search(String query, String cursor, int limit);
+
+}
@@ -1,16 +1,25 @@
 package ru.edalik.electronics.store.user.service.service.interfaces;
 
+import ru.edalik.electronics.store.user.service.model.dto.UserDto;
 import ru.edalik.electronics.store.user.service.model.dto.UserUpdateDto;
 import ru.edalik.electronics.store.user.service.model.entity.User;
 
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
 public interface UserService {
 
+    UserDto getProfile();
+
     User getOrCreate();
 
     User register();
 
-    User update(UserUpdateDto dto);
+    User update(UserUpdateDto dto, Long expectedVersion);
 
     void delete();
 
+    void forEachById(Set<UUID> ids, Consumer<UserDto> action);
+
 }
\ No newline at end of file
@@ -0,0 +1,73 @@
+package ru.edalik.electronics.store.user.service.service.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+@Component
+@RequiredArgsConstructor
+public class DatabaseMetrics implements RepositoryMethodInvocationListener {
+
+    static final String LOCKING_QUERY_METRIC = "db.locking.query";
+    static final String ROW_COUNT_MISMATCH_METRIC = "db.row.count.mismatch";
+    static final String REPOSITORY_TAG = "repository";
+    static final String METHOD_TAG = "method";
+    static final String STATE_TAG = "state";
+    static final String OPERATION_TAG = "operation";
+
+    private static final Pattern LOCKING_CLAUSE =
+        Pattern.compile("\\bFOR\\s+(NO\\s+KEY\\s+UPDATE|UPDATE|KEY\\s+SHARE|SHARE)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ROW_WRITE = Pattern.compile("^\\s*(UPDATE|DELETE)\\b", Pattern.CASE_INSENSITIVE);
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<Method, Boolean> lockingMethods = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterInvocation(RepositoryMethodInvocation invocation) {
+        if (!lockingMethods.computeIfAbsent(invocation.getMethod(), DatabaseMetrics::isLocking)) {
+            return;
+        }
+
+        Timer.builder(LOCKING_QUERY_METRIC)
+            .description(
+                "Time spent in repository calls that lock rows (SELECT ... FOR and modifying UPDATE/DELETE queries), "
+                    + "including waiting for the locks"
+            )
+            .tag(REPOSITORY_TAG, invocation.getRepositoryInterface().getSimpleName())
+            .tag(METHOD_TAG, invocation.getMethod().getName())
+            .tag(STATE_TAG, invocation.getResult().getState().name().toLowerCase())
+            .register(meterRegistry)
+            .record(invocation.getDuration(TimeUnit.NANOSECONDS), TimeUnit.NANOSECONDS);
+    }
+
+    public void rowCountMismatch(String operation) {
+        meterRegistry.counter(ROW_COUNT_MISMATCH_METRIC, OPERATION_TAG, operation).increment();
+    }
+
+    private static boolean isLocking(Method method) {
+        if (method.isAnnotationPresent(Lock.class)) {
+            return true;
+        }
+
+        Query query = method.getAnnotation(Query.class);
+        if (query == null) {
+            return false;
+        }
+
+        return LOCKING_CLAUSE.matcher(query.value()).find()
+            || method.isAnnotationPresent(Modifying.class) && ROW_WRITE.matcher(query.value()).find();
+    }
+
+}
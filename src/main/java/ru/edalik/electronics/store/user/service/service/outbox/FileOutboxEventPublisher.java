@@ -0,0 +1,76 @@
+package ru.edalik.electronics.store.user.service.service.outbox;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import ru.edalik.electronics.store.user.service.config.properties.OutboxProperties;
+import ru.edalik.electronics.store.user.service.model.entity.OutboxEvent;
+import ru.edalik.electronics.store.user.service.service.interfaces.OutboxEventPublisher;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Service
+@ConditionalOnProperty(name = "outbox.publisher", havingValue = "file", matchIfMissing = true)
+public class FileOutboxEventPublisher implements OutboxEventPublisher {
+
+    private final ObjectMapper objectMapper;
+
+    private final Path path;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public FileOutboxEventPublisher(ObjectMapper objectMapper, OutboxProperties properties) {
+        this.objectMapper = objectMapper;
+        this.path = Path.of(properties.filePath()).toAbsolutePath();
+    }
+
+    public void publish(List<OutboxEvent> events) {
+        lock.lock();
+        try {
+            Files.createDirectories(path.getParent());
+            try (
+                Writer writer = Files.newBufferedWriter(
+                    path,
+                    StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND
+                );
+                JsonGenerator generator = objectMapper.getFactory().createGenerator(writer)
+            ) {
+                generator.setRootValueSeparator(null);
+                for (OutboxEvent event : events) {
+                    writeEvent(generator, event);
+                    generator.writeRaw('\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static void writeEvent(JsonGenerator generator, OutboxEvent event) throws IOException {
+        generator.writeStartObject();
+        generator.writeNumberField("id", event.getId());
+        generator.writeStringField("aggregateId", event.getAggregateId().toString());
+        if (event.getAggregateSequence() != null) {
+            generator.writeNumberField("aggregateSequence", event.getAggregateSequence());
+        }
+        generator.writeStringField("type", event.getEventType().name());
+        generator.writeStringField("createdTime", String.valueOf(event.getCreatedTime()));
+        generator.writeFieldName("payload");
+        generator.writeRawValue(event.getPayload());
+        generator.writeEndObject();
+    }
+
+}
@@ -0,0 +1,29 @@
+package ru.edalik.electronics.store.user.service.service.outbox;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import ru.edalik.electronics.store.user.service.model.entity.OutboxEvent;
+import ru.edalik.electronics.store.user.service.service.interfaces.OutboxEventPublisher;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+@Service
+@ConditionalOnProperty(name = "outbox.publisher", havingValue = "in-memory")
+public class InMemoryOutboxEventPublisher implements OutboxEventPublisher {
+
+    private final List<OutboxEvent> events = new CopyOnWriteArrayList<>();
+
+    public void publish(List<OutboxEvent> batch) {
+        events.addAll(batch);
+    }
+
+    public List<OutboxEvent> getEvents() {
+        return List.copyOf(events);
+    }
+
+    public void clear() {
+        events.clear();
+    }
+
+}
@@ -0,0 +1,97 @@
+package ru.edalik.electronics.store.user.service.service.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.edalik.electronics.store.user.service.config.properties.OutboxProperties;
+import ru.edalik.electronics.store.user.service.model.entity.OutboxEvent;
+import ru.edalik.electronics.store.user.service.repository.OutboxEventRepository;
+import ru.edalik.electronics.store.user.service.repository.OutboxEventRepository.AggregateHead;
+import ru.edalik.electronics.store.user.service.service.interfaces.OutboxEventPublisher;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "outbox.relay-enabled", havingValue = "true")
+public class OutboxRelay {
+
+    private static final String EVENTS_METRIC = "outbox.events";
+    private static final String RESULT_TAG = "result";
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final OutboxEventPublisher outboxEventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final OutboxProperties properties;
+
+    private final Counter publishedEvents;
+
+    private final Counter deferredEvents;
+
+    public OutboxRelay(
+        OutboxEventRepository outboxEventRepository,
+        OutboxEventPublisher outboxEventPublisher,
+        TransactionTemplate transactionTemplate,
+        OutboxProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxEventPublisher = outboxEventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = properties;
+        this.publishedEvents = meterRegistry.counter(EVENTS_METRIC, RESULT_TAG, "published");
+        this.deferredEvents = meterRegistry.counter(EVENTS_METRIC, RESULT_TAG, "deferred");
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay-interval:PT1S}")
+    public void relay() {
+        int published;
+        do {
+            published = Objects.requireNonNull(transactionTemplate.execute(status -> relayBatch()));
+        } while (published == properties.batchSize());
+    }
+
+    int relayBatch() {
+        List<OutboxEvent> events = outboxEventRepository.lockNextBatch(properties.batchSize());
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        Map<UUID, Long> batchHeads = new HashMap<>();
+        for (OutboxEvent event : events) {
+            batchHeads.putIfAbsent(event.getAggregateId(), event.getId());
+        }
+        Map<UUID, Long> heads = outboxEventRepository.findHeads(batchHeads.keySet()).stream()
+            .collect(Collectors.toMap(AggregateHead::getAggregateId, AggregateHead::getFirstId));
+
+        List<OutboxEvent> publishable = events.stream()
+            .filter(event -> batchHeads.get(event.getAggregateId()).equals(heads.get(event.getAggregateId())))
+            .toList();
+        if (publishable.size() < events.size()) {
+            deferredEvents.increment(events.size() - publishable.size());
+        }
+        if (publishable.isEmpty()) {
+            return 0;
+        }
+
+        outboxEventPublisher.publish(publishable);
+        outboxEventRepository.deleteAllByIdInBatch(publishable.stream().map(OutboxEvent::getId).toList());
+        publishedEvents.increment(publishable.size());
+        log.debug("Relayed {} outbox events", publishable.size());
+
+        return publishable.size();
+    }
+
+}
@@ -0,0 +1,171 @@
+package ru.edalik.electronics.store.user.service.service.replica;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.edalik.electronics.store.user.service.config.properties.ReplicaProperties;
+import ru.edalik.electronics.store.user.service.service.security.UserAuthenticationToken;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.UUID;
+
+import static ru.edalik.electronics.store.user.service.config.datasource.ReplicaDataSourceConfig.REPLICA_DATA_SOURCE;
+
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "replica.enabled", havingValue = "true")
+public class ReplicaRoutingPolicy {
+
+    static final String ROUTING_METRIC = "datasource.routing";
+    static final String LAG_METRIC = "datasource.replica.lag";
+    static final String TARGET_TAG = "target";
+    static final String REASON_TAG = "reason";
+
+    static final String LAG_QUERY = """
+        SELECT CASE
+            WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+            ELSE (extract(epoch FROM now() - pg_last_xact_replay_timestamp()) * 1000)::bigint
+        END
+        """;
+
+    private final JdbcTemplate replicaJdbcTemplate;
+
+    private final ReplicaProperties properties;
+
+    private final Cache<UUID, Boolean> pinnedUsers;
+
+    private final Counter replicaReads;
+
+    private final Counter pinnedReads;
+
+    private final Counter laggingReads;
+
+    private final Counter unavailableReads;
+
+    private volatile boolean available = true;
+
+    private volatile boolean lagging;
+
+    private volatile long lagMillis;
+
+    public ReplicaRoutingPolicy(
+        @Qualifier(REPLICA_DATA_SOURCE) DataSource replicaDataSource,
+        ReplicaProperties properties,
+        MeterRegistry meterRegistry
+    ) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.properties = properties;
+        this.pinnedUsers = Caffeine.newBuilder()
+            .maximumSize(properties.pinnedUsersMaximumSize())
+            .expireAfterWrite(properties.pinDuration())
+            .build();
+        this.replicaReads = meterRegistry.counter(ROUTING_METRIC, TARGET_TAG, "replica", REASON_TAG, "read_only");
+        this.pinnedReads = meterRegistry.counter(ROUTING_METRIC, TARGET_TAG, "primary", REASON_TAG, "pinned");
+        this.laggingReads = meterRegistry.counter(ROUTING_METRIC, TARGET_TAG, "primary", REASON_TAG, "lagging");
+        this.unavailableReads = meterRegistry.counter(ROUTING_METRIC, TARGET_TAG, "primary", REASON_TAG, "unavailable");
+        meterRegistry.gauge(LAG_METRIC, this, policy -> policy.lagMillis);
+    }
+
+    public boolean readFromReplica() {
+        UUID userId = currentUserId();
+        if (userId != null && pinnedUsers.getIfPresent(userId) != null) {
+            pinnedReads.increment();
+            return false;
+        }
+        if (!available) {
+            unavailableReads.increment();
+            return false;
+        }
+        if (lagging) {
+            laggingReads.increment();
+            return false;
+        }
+
+        replicaReads.increment();
+        return true;
+    }
+
+    public void pinAfterCommit() {
+        UUID userId = currentUserId();
+        if (userId == null) {
+            return;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            pin(userId);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pin(userId);
+            }
+        });
+    }
+
+    public void pin(UUID userId) {
+        pinnedUsers.put(userId, Boolean.TRUE);
+    }
+
+    public void replicaFailed(SQLException e) {
+        if (available) {
+            log.warn("Replica is unavailable, routing reads to primary: {}", e.getMessage());
+        }
+
+        available = false;
+    }
+
+    @Scheduled(fixedDelayString = "${replica.check-interval:PT5S}")
+    public void checkReplica() {
+        Long lag;
+        try {
+            lag = queryLag();
+        } catch (DataAccessException e) {
+            if (available) {
+                log.warn("Replica health check failed, routing reads to primary: {}", e.getMessage());
+            }
+
+            available = false;
+            return;
+        }
+
+        boolean nowLagging = lag == null || Duration.ofMillis(lag).compareTo(properties.maxLag()) > 0;
+        if (!available) {
+            log.info("Replica is available again");
+        }
+        if (nowLagging != lagging) {
+            log.info("Replica lag is {} ms, reads go to {}", lag, nowLagging ? "primary" : "replica");
+        }
+
+        lagMillis = lag != null ? lag : -1;
+        lagging = nowLagging;
+        available = true;
+    }
+
+    Long queryLag() {
+        return replicaJdbcTemplate.queryForObject(LAG_QUERY, Long.class);
+    }
+
+    private static UUID currentUserId() {
+        if (SecurityContextHolder.getContext().getAuthentication() instanceof UserAuthenticationToken token) {
+            return token.getUser().id();
+        }
+
+        return null;
+    }
+
+}
@@ -0,0 +1,69 @@
+package ru.edalik.electronics.store.user.service.service.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.edalik.electronics.store.user.service.config.properties.OptimisticLockProperties;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OptimisticLockRetry {
+
+    static final String OPERATIONS_METRIC = "optimistic.lock.operations";
+    static final String CONFLICTS_METRIC = "optimistic.lock.conflicts";
+    static final String OPERATION_TAG = "operation";
+    static final String OUTCOME_TAG = "outcome";
+
+    private static final int MAX_BACKOFF_SHIFT = 20;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final OptimisticLockProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    public <T> T execute(String operation, Supplier<T> action) {
+        meterRegistry.counter(OPERATIONS_METRIC, OPERATION_TAG, operation).increment();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> action.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= properties.maxAttempts()) {
+                    meterRegistry.counter(CONFLICTS_METRIC, OPERATION_TAG, operation, OUTCOME_TAG, "exhausted")
+                        .increment();
+                    log.warn("Optimistic lock conflict on {} persisted after {} attempts", operation, attempt);
+                    throw e;
+                }
+
+                meterRegistry.counter(CONFLICTS_METRIC, OPERATION_TAG, operation, OUTCOME_TAG, "retried").increment();
+                backoff(attempt, e);
+            }
+        }
+    }
+
+    private void backoff(int attempt, OptimisticLockingFailureException conflict) {
+        long ceiling = Math.min(
+            properties.maxBackoff().toNanos(),
+            properties.initialBackoff().toNanos() << Math.min(attempt - 1, MAX_BACKOFF_SHIFT)
+        );
+        if (ceiling <= 0) {
+            return;
+        }
+
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflict;
+        }
+    }
+
+}
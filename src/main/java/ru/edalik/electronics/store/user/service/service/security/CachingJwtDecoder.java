@@ -0,0 +1,100 @@
+package ru.edalik.electronics.store.user.service.service.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+public class CachingJwtDecoder implements JwtDecoder {
+
+    private final JwtDecoder delegate;
+
+    private final Duration expirySkew;
+
+    private final Clock clock;
+
+    private final Cache<String, Jwt> cache;
+
+    public CachingJwtDecoder(JwtDecoder delegate, long maximumSize, Duration expirySkew, Clock clock) {
+        this.delegate = delegate;
+        this.expirySkew = expirySkew;
+        this.clock = clock;
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfter(new TokenExpiry())
+            .recordStats()
+            .build();
+    }
+
+    public Cache<String, Jwt> getCache() {
+        return cache;
+    }
+
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String hash = hash(token);
+        Jwt cached = cache.getIfPresent(hash);
+        if (cached != null && cached.getTokenValue().equals(token) && isFresh(cached)) {
+            return cached;
+        }
+
+        Jwt jwt = delegate.decode(token);
+        if (isFresh(jwt)) {
+            cache.put(hash, jwt);
+        }
+
+        return jwt;
+    }
+
+    private boolean isFresh(Jwt jwt) {
+        return remainingLifetime(jwt).compareTo(Duration.ZERO) > 0;
+    }
+
+    private Duration remainingLifetime(Jwt jwt) {
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt == null) {
+            return Duration.ZERO;
+        }
+
+        return Duration.between(clock.instant(), expiresAt.minus(expirySkew));
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private class TokenExpiry implements Expiry<String, Jwt> {
+
+        @Override
+        public long expireAfterCreate(String key, Jwt jwt, long currentTime) {
+            return Math.max(remainingLifetime(jwt).toNanos(), 0);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, jwt, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Jwt jwt, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+    }
+
+}
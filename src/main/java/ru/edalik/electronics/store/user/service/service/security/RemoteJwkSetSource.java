@@ -0,0 +1,118 @@
+package ru.edalik.electronics.store.user.service.service.security;
+
+import com.nimbusds.jose.KeySourceException;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.client.RestClient;
+
+import java.text.ParseException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+@Slf4j
+public class RemoteJwkSetSource implements JWKSource<SecurityContext> {
+
+    private final RestClient restClient;
+
+    private final String jwkSetUri;
+
+    private final Duration minRefreshInterval;
+
+    private final Clock clock;
+
+    private final Lock refreshLock = new ReentrantLock();
+
+    private volatile JWKSet jwkSet;
+
+    private volatile Instant lastAttempt = Instant.MIN;
+
+    public RemoteJwkSetSource(RestClient restClient, String jwkSetUri, Duration minRefreshInterval, Clock clock) {
+        this.restClient = restClient;
+        this.jwkSetUri = jwkSetUri;
+        this.minRefreshInterval = minRefreshInterval;
+        this.clock = clock;
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector jwkSelector, SecurityContext context) throws KeySourceException {
+        JWKSet current = jwkSet;
+        if (current != null) {
+            List<JWK> keys = jwkSelector.select(current);
+            if (!keys.isEmpty() || !isRefreshAllowed()) {
+                return keys;
+            }
+        }
+
+        try {
+            return jwkSelector.select(refresh());
+        } catch (RuntimeException | ParseException e) {
+            throw new KeySourceException("Couldn't retrieve JWK set from: " + jwkSetUri, e);
+        }
+    }
+
+    public void prefetch() {
+        try {
+            refresh();
+        } catch (RuntimeException | ParseException e) {
+            log.warn("Couldn't prefetch JWK set from: {}, will retry on demand: {}", jwkSetUri, e.getMessage());
+        }
+    }
+
+    @Scheduled(
+        initialDelayString = "${security.jwt.jwks-refresh-interval:PT5M}",
+        fixedDelayString = "${security.jwt.jwks-refresh-interval:PT5M}"
+    )
+    public void scheduledRefresh() {
+        try {
+            refresh();
+        } catch (RuntimeException | ParseException e) {
+            log.warn("Couldn't refresh JWK set from: {}, keeping previous keys: {}", jwkSetUri, e.getMessage());
+        }
+    }
+
+    public JWKSet getJwkSet() {
+        return jwkSet;
+    }
+
+    private JWKSet refresh() throws ParseException {
+        refreshLock.lock();
+        try {
+            if (!isRefreshAllowed()) {
+                if (jwkSet != null) {
+                    return jwkSet;
+                }
+                throw new IllegalStateException(
+                    "JWK set fetch failed recently, next attempt after: " + lastAttempt.plus(minRefreshInterval)
+                );
+            }
+
+            lastAttempt = clock.instant();
+            String body = restClient.get()
+                .uri(jwkSetUri)
+                .retrieve()
+                .body(String.class);
+            JWKSet fetched = JWKSet.parse(body);
+
+            jwkSet = fetched;
+            log.info("Loaded {} keys from JWK set: {}", fetched.getKeys().size(), jwkSetUri);
+
+            return fetched;
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    private boolean isRefreshAllowed() {
+        return !clock.instant().isBefore(lastAttempt.plus(minRefreshInterval));
+    }
+
+}
@@ -0,0 +1,20 @@
+package ru.edalik.electronics.store.user.service.service.security;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.util.Collection;
+
+@RequiredArgsConstructor
+public class UserAuthenticationConverter implements Converter<Jwt, UserAuthenticationToken> {
+
+    private final Converter<Jwt, Collection<GrantedAuthority>> authoritiesConverter;
+
+    @Override
+    public UserAuthenticationToken convert(Jwt jwt) {
+        return new UserAuthenticationToken(jwt, authoritiesConverter.convert(jwt), UserPrincipal.from(jwt));
+    }
+
+}
@@ -0,0 +1,20 @@
+package ru.edalik.electronics.store.user.service.service.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.Collection;
+
+@Getter
+public class UserAuthenticationToken extends JwtAuthenticationToken {
+
+    private final UserPrincipal user;
+
+    public UserAuthenticationToken(Jwt jwt, Collection<? extends GrantedAuthority> authorities, UserPrincipal user) {
+        super(jwt, authorities, user.id().toString());
+        this.user = user;
+    }
+
+}
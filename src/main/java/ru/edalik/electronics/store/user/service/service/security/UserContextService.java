@@ -3,50 +3,63 @@ package ru.edalik.electronics.store.user.service.service.security;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.oauth2.jwt.Jwt;
 import org.springframework.stereotype.Service;
 
 import java.util.UUID;
 
-import static org.springframework.security.oauth2.core.oidc.StandardClaimNames.EMAIL;
-import static org.springframework.security.oauth2.core.oidc.StandardClaimNames.PREFERRED_USERNAME;
-
 @Slf4j
 @Service
 @AllArgsConstructor
 public class UserContextService {
 
-    public Jwt getPrincipal() {
-        SecurityContext context = SecurityContextHolder.getContext();
-        Authentication authentication = context.getAuthentication();
+    public UserPrincipal getUser() {
+        Authentication authentication = getAuthentication();
 
-        if (authentication == null) {
-            throw new IllegalStateException("No authentication found");
+        if (authentication instanceof UserAuthenticationToken token) {
+            return token.getUser();
         }
 
-        if (authentication.getPrincipal() instanceof Jwt jwt) {
-            return jwt;
-        } else {
-            throw new IllegalStateException("No principal found");
-        }
+        return UserPrincipal.from(getPrincipal(authentication));
+    }
+
+    public Jwt getPrincipal() {
+        return getPrincipal(getAuthentication());
     }
 
     public UUID getUserGuid() {
-        return UUID.fromString(getPrincipal().getSubject());
+        return getUser().id();
     }
 
     public String getPreferredUserName() {
-        return getPrincipal().getClaimAsString(PREFERRED_USERNAME);
+        return getUser().preferredUserName();
     }
 
     public String getEmail() {
-        return getPrincipal().getClaimAsString(EMAIL);
+        return getUser().email();
     }
 
     public String getTokenString() {
         return getPrincipal().getTokenValue();
     }
 
-}
\ No newline at end of file
+    private Authentication getAuthentication() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+
+        if (authentication == null) {
+            throw new IllegalStateException("No authentication found");
+        }
+
+        return authentication;
+    }
+
+    private Jwt getPrincipal(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof Jwt jwt) {
+            return jwt;
+        } else {
+            throw new IllegalStateException("No principal found");
+        }
+    }
+
+}
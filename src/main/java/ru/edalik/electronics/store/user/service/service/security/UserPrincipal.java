@@ -0,0 +1,25 @@
+package ru.edalik.electronics.store.user.service.service.security;
+
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+import static org.springframework.security.oauth2.core.oidc.StandardClaimNames.EMAIL;
+import static org.springframework.security.oauth2.core.oidc.StandardClaimNames.PREFERRED_USERNAME;
+
+public record UserPrincipal(
+    UUID id,
+    String preferredUserName,
+    String email
+) implements Serializable {
+
+    public static UserPrincipal from(Jwt jwt) {
+        return new UserPrincipal(
+            UUID.fromString(jwt.getSubject()),
+            jwt.getClaimAsString(PREFERRED_USERNAME),
+            jwt.getClaimAsString(EMAIL)
+        );
+    }
+
+}
@@ -0,0 +1,129 @@
+package ru.edalik.electronics.store.user.service;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.edalik.electronics.store.user.service.model.entity.User;
+import ru.edalik.electronics.store.user.service.repository.UserRepository;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@ActiveProfiles("jdbc-batching")
+@SpringBootTest(
+    properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "cache.invalidation.enabled=false"
+    }
+)
+class JdbcBatchingProfileTest {
+
+    static final int USERS = 120;
+    static final int BATCH_SIZE = 50;
+    static final int BATCHES = (USERS + BATCH_SIZE - 1) / BATCH_SIZE;
+
+    static EmbeddedPostgres postgres;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    TransactionTemplate transactionTemplate;
+
+    Statistics statistics;
+
+    List<UUID> ids;
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        ids = IntStream.range(0, USERS).mapToObj(i -> UUID.randomUUID()).toList();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        userRepository.deleteAllByIdInBatch(ids);
+    }
+
+    @Test
+    void insert_ShouldSendOneStatementPerBatch() {
+        statistics.clear();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userRepository.saveAll(ids.stream().map(JdbcBatchingProfileTest::user).toList());
+            userRepository.flush();
+        });
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(USERS);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(BATCHES);
+    }
+
+    @Test
+    void update_ShouldBatch_WhenEntitiesChangeDifferentColumns() {
+        transactionTemplate.executeWithoutResult(
+            status -> userRepository.saveAll(ids.stream().map(JdbcBatchingProfileTest::user).toList())
+        );
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<User> users = userRepository.findAllById(ids);
+            statistics.clear();
+            for (int i = 0; i < users.size(); i++) {
+                if (i % 2 == 0) {
+                    users.get(i).setName("Name" + i);
+                } else {
+                    users.get(i).setSurname("Surname" + i);
+                }
+            }
+            userRepository.flush();
+        });
+
+        assertThat(statistics.getEntityUpdateCount()).isEqualTo(USERS);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(BATCHES);
+    }
+
+    private static User user(UUID id) {
+        return User.builder()
+            .id(id)
+            .login("batch-" + id)
+            .balanceSnapshot(BigDecimal.ZERO)
+            .ledgerPosition(0L)
+            .build();
+    }
+
+}
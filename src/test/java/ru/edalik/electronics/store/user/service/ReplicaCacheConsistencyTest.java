@@ -0,0 +1,137 @@
+package ru.edalik.electronics.store.user.service;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceDto;
+import ru.edalik.electronics.store.user.service.service.cache.PostgresUserCacheInvalidationBus;
+import ru.edalik.electronics.store.user.service.service.interfaces.BalanceService;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserService;
+import ru.edalik.electronics.store.user.service.service.security.UserAuthenticationToken;
+import ru.edalik.electronics.store.user.service.service.security.UserPrincipal;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static ru.edalik.electronics.store.user.service.config.CacheConfig.USERS_CACHE;
+
+class ReplicaCacheConsistencyTest {
+
+    static final BigDecimal INITIAL_BALANCE = new BigDecimal("200");
+    static final BigDecimal PAYMENT = new BigDecimal("50");
+
+    static EmbeddedPostgres primary;
+
+    static EmbeddedPostgres replica;
+
+    static ConfigurableApplicationContext firstNode;
+
+    static ConfigurableApplicationContext secondNode;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        primary = EmbeddedPostgres.start();
+        replica = EmbeddedPostgres.start();
+
+        new SpringApplicationBuilder(UserServiceApplication.class)
+            .run(
+                "--server.port=0",
+                "--spring.datasource.url=" + replica.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--cache.invalidation.enabled=false",
+                "--outbox.relay-enabled=false"
+            )
+            .close();
+
+        firstNode = startNode();
+        secondNode = startNode();
+
+        await().atMost(Duration.ofSeconds(10)).until(
+            () -> firstNode.getBean(PostgresUserCacheInvalidationBus.class).isListening()
+                && secondNode.getBean(PostgresUserCacheInvalidationBus.class).isListening()
+        );
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        secondNode.close();
+        firstNode.close();
+        replica.close();
+        primary.close();
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void payment_OnOtherNode_ShouldNotCacheStaleReplicaBalance() {
+        UUID userId = seed();
+        authenticate(userId);
+        Cache secondCache = secondNode.getBean(CacheManager.class).getCache(USERS_CACHE);
+        assertThat(secondNode.getBean(UserService.class).getProfile().balance())
+            .isEqualByComparingTo(INITIAL_BALANCE);
+
+        firstNode.getBean(BalanceService.class).payment(new BalanceDto(PAYMENT));
+        await().atMost(Duration.ofSeconds(2)).until(() -> secondCache.get(userId) == null);
+
+        BigDecimal expected = INITIAL_BALANCE.subtract(PAYMENT);
+        assertThat(secondNode.getBean(UserService.class).getProfile().balance()).isEqualByComparingTo(expected);
+        assertThat(secondNode.getBean(BalanceService.class).getBalance()).isEqualByComparingTo(expected);
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(UserServiceApplication.class)
+            .run(
+                "--server.port=0",
+                "--spring.datasource.url=" + primary.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--outbox.relay-enabled=false",
+                "--cache.invalidation.enabled=true",
+                "--cache.invalidation.poll-timeout=100ms",
+                "--replica.enabled=true",
+                "--replica.url=" + replica.getJdbcUrl("postgres", "postgres"),
+                "--replica.username=postgres",
+                "--replica.password=postgres",
+                "--replica.check-interval=PT1H",
+                "--replica.hikari.connection-timeout=1000"
+            );
+    }
+
+    private static UUID seed() {
+        UUID userId = UUID.randomUUID();
+        String insert = "INSERT INTO users (id, login, balance, created_time) VALUES (?, ?, ?, now())";
+        new JdbcTemplate(primary.getPostgresDatabase()).update(insert, userId, userId.toString(), INITIAL_BALANCE);
+        new JdbcTemplate(replica.getPostgresDatabase()).update(insert, userId, userId.toString(), INITIAL_BALANCE);
+
+        return userId;
+    }
+
+    private static void authenticate(UUID userId) {
+        Jwt jwt = Jwt.withTokenValue("token")
+            .header("alg", "none")
+            .subject(userId.toString())
+            .build();
+        SecurityContextHolder.getContext().setAuthentication(
+            new UserAuthenticationToken(jwt, List.of(), new UserPrincipal(userId, userId.toString(), null))
+        );
+    }
+
+}
@@ -0,0 +1,201 @@
+package ru.edalik.electronics.store.user.service;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.MethodOrderer;
+import org.junit.jupiter.api.Order;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestMethodOrder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceDto;
+import ru.edalik.electronics.store.user.service.repository.UserRepository;
+import ru.edalik.electronics.store.user.service.service.interfaces.BalanceService;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserSearchService;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserService;
+import ru.edalik.electronics.store.user.service.service.security.UserAuthenticationToken;
+import ru.edalik.electronics.store.user.service.service.security.UserPrincipal;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@TestMethodOrder(MethodOrderer.OrderAnnotation.class)
+class ReplicaRoutingTest {
+
+    static final BigDecimal PRIMARY_BALANCE = new BigDecimal("200");
+    static final BigDecimal REPLICA_BALANCE = new BigDecimal("100");
+
+    static EmbeddedPostgres primary;
+
+    static EmbeddedPostgres replica;
+
+    static ConfigurableApplicationContext context;
+
+    static JdbcTemplate primaryJdbcTemplate;
+
+    static JdbcTemplate replicaJdbcTemplate;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        primary = EmbeddedPostgres.start();
+        replica = EmbeddedPostgres.start();
+
+        new SpringApplicationBuilder(UserServiceApplication.class)
+            .run(arguments(replica))
+            .close();
+
+        context = new SpringApplicationBuilder(UserServiceApplication.class)
+            .run(
+                arguments(
+                    primary,
+                    "--replica.enabled=true",
+                    "--replica.url=" + replica.getJdbcUrl("postgres", "postgres"),
+                    "--replica.username=postgres",
+                    "--replica.password=postgres",
+                    "--replica.check-interval=PT1H",
+                    "--replica.pin-duration=PT1H",
+                    "--replica.hikari.connection-timeout=1000"
+                )
+            );
+        primaryJdbcTemplate = new JdbcTemplate(primary.getPostgresDatabase());
+        replicaJdbcTemplate = new JdbcTemplate(replica.getPostgresDatabase());
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        context.close();
+        primary.close();
+        if (replica != null) {
+            replica.close();
+        }
+    }
+
+    @AfterEach
+    void clearAuthentication() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransaction_ShouldReadFromReplica() {
+        UUID userId = seed();
+
+        assertThat(readOnlyName(userId)).isEqualTo("replica");
+        assertThat(context.getBean(UserSearchService.class).search(userId.toString(), null, 1).items())
+            .singleElement()
+            .satisfies(user -> assertThat(user.name()).isEqualTo("replica"));
+    }
+
+    @Test
+    void balanceAndProfileReads_ShouldUseReplica_WhenUserIsNotPinned() {
+        UUID userId = seed();
+        authenticate(userId);
+
+        assertThat(context.getBean(BalanceService.class).getBalance()).isEqualByComparingTo(REPLICA_BALANCE);
+        assertThat(context.getBean(UserService.class).getProfile().name()).isEqualTo("replica");
+    }
+
+    @Test
+    void readWriteTransaction_ShouldUsePrimary() {
+        UUID userId = seed();
+
+        String name = context.getBean(TransactionTemplate.class).execute(
+            status -> context.getBean(UserRepository.class).findById(userId).orElseThrow().getName()
+        );
+
+        assertThat(name).isEqualTo("primary");
+    }
+
+    @Test
+    void readAfterWrite_ShouldPinWriterToPrimary() {
+        UUID writerId = seed();
+        UUID otherId = seed();
+
+        authenticate(writerId);
+        context.getBean(BalanceService.class).deposit(new BalanceDto(BigDecimal.TEN));
+
+        assertThat(readOnlyName(writerId)).isEqualTo("primary");
+        assertThat(replicaBalance(writerId)).isEqualByComparingTo(REPLICA_BALANCE);
+
+        authenticate(otherId);
+        assertThat(readOnlyName(otherId)).isEqualTo("replica");
+    }
+
+    @Test
+    @Order(Integer.MAX_VALUE)
+    void readOnlyTransaction_ReplicaDown_ShouldFallBackToPrimary() throws IOException {
+        UUID userId = seed();
+        replica.close();
+        replica = null;
+
+        assertThat(readOnlyName(userId)).isEqualTo("primary");
+        assertThat(readOnlyName(userId)).isEqualTo("primary");
+    }
+
+    private static String[] arguments(EmbeddedPostgres postgres, String... extra) {
+        return Stream.concat(
+            Stream.of(
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--cache.invalidation.enabled=false",
+                "--outbox.relay-enabled=false"
+            ),
+            Stream.of(extra)
+        ).toArray(String[]::new);
+    }
+
+    private static UUID seed() {
+        UUID userId = UUID.randomUUID();
+        insert(primaryJdbcTemplate, userId, "primary", PRIMARY_BALANCE);
+        insert(replicaJdbcTemplate, userId, "replica", REPLICA_BALANCE);
+
+        return userId;
+    }
+
+    private static void insert(JdbcTemplate jdbcTemplate, UUID userId, String name, BigDecimal balance) {
+        jdbcTemplate.update(
+            "INSERT INTO users (id, login, name, balance, created_time) VALUES (?, ?, ?, ?, now())",
+            userId,
+            userId.toString(),
+            name,
+            balance
+        );
+    }
+
+    private static String readOnlyName(UUID userId) {
+        TransactionTemplate readOnly = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnly.setReadOnly(true);
+
+        return readOnly.execute(
+            status -> context.getBean(UserRepository.class).findById(userId).orElseThrow().getName()
+        );
+    }
+
+    private static BigDecimal replicaBalance(UUID userId) {
+        return replicaJdbcTemplate.queryForObject("SELECT balance FROM users WHERE id = ?", BigDecimal.class, userId);
+    }
+
+    private static void authenticate(UUID userId) {
+        Jwt jwt = Jwt.withTokenValue("token")
+            .header("alg", "none")
+            .subject(userId.toString())
+            .build();
+        SecurityContextHolder.getContext().setAuthentication(
+            new UserAuthenticationToken(jwt, List.of(), new UserPrincipal(userId, userId.toString(), null))
+        );
+    }
+
+}
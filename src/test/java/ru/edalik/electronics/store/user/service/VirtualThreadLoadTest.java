@@ -0,0 +1,124 @@
+package ru.edalik.electronics.store.user.service;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@Slf4j
+@ActiveProfiles("virtual-threads")
+@EnabledForJreRange(min = JRE.JAVA_21)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class VirtualThreadLoadTest {
+
+    static final int CONCURRENT_REQUESTS = 1000;
+
+    static EmbeddedPostgres postgres;
+
+    @LocalServerPort
+    int port;
+
+    @MockitoBean
+    JwtDecoder jwtDecoder;
+
+    final String balanceUser = UUID.randomUUID().toString();
+
+    final HttpClient httpClient = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .build();
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) throws IOException {
+        postgres = EmbeddedPostgres.start();
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        postgres.close();
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(jwtDecoder.decode(any())).thenAnswer(
+            invocation -> Jwt.withTokenValue(invocation.getArgument(0))
+                .header("alg", "none")
+                .subject(invocation.getArgument(0))
+                .claim("preferred_username", "load-" + invocation.getArgument(0))
+                .claim("email", "load@example.com")
+                .build()
+        );
+        httpClient.send(request("/api/v1/users", balanceUser), HttpResponse.BodyHandlers.discarding());
+    }
+
+    @Test
+    void balanceAndProfileCacheMisses_ShouldServeConcurrentRequests_WithoutPinningCarrierThreads() {
+        AtomicInteger pinned = new AtomicInteger();
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>();
+
+        try (RecordingStream recording = new RecordingStream()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(20)).withStackTrace();
+            recording.onEvent("jdk.VirtualThreadPinned", event -> {
+                pinned.incrementAndGet();
+                log.warn("Pinned virtual thread: {}", event.getStackTrace());
+            });
+            recording.startAsync();
+
+            long begin = System.nanoTime();
+            for (int i = 0; i < CONCURRENT_REQUESTS; i++) {
+                HttpRequest request = i % 2 == 0
+                    ? request("/api/v1/users/balance", balanceUser)
+                    : request("/api/v1/users", UUID.randomUUID().toString());
+                responses.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding()));
+            }
+            CompletableFuture.allOf(responses.toArray(CompletableFuture[]::new)).join();
+
+            log.info(
+                "Served {} concurrent balance and cache-miss profile requests in {} ms",
+                CONCURRENT_REQUESTS,
+                Duration.ofNanos(System.nanoTime() - begin).toMillis()
+            );
+        }
+
+        assertThat(responses).allSatisfy(response -> assertThat(response.join().statusCode()).isEqualTo(200));
+        assertThat(pinned.get()).isZero();
+    }
+
+    private HttpRequest request(String path, String token) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .header("Authorization", "Bearer " + token)
+            .GET()
+            .build();
+    }
+
+}
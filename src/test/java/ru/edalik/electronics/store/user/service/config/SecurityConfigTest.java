@@ -0,0 +1,85 @@
+package ru.edalik.electronics.store.user.service.config;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.jwt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static ru.edalik.electronics.store.user.service.config.SecurityConfig.ADMIN_ROLE;
+import static ru.edalik.electronics.store.user.service.config.SecurityConfig.SERVICE_ROLE;
+
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@SpringBootTest(
+    properties = {
+        "management.endpoints.web.exposure.include=health,caches,prometheus",
+        "cache.invalidation.enabled=false"
+    }
+)
+class SecurityConfigTest {
+
+    static final String CACHES_URL = "/actuator/caches";
+    static final String PROMETHEUS_URL = "/actuator/prometheus";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Test
+    @SneakyThrows
+    void health_ShouldBePublic() {
+        mockMvc.perform(get("/actuator/health"))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    @SneakyThrows
+    void caches_Anonymous_ReturnsUnauthorized() {
+        mockMvc.perform(delete(CACHES_URL).with(csrf()))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @SneakyThrows
+    void caches_UserToken_ReturnsForbidden() {
+        mockMvc.perform(delete(CACHES_URL).with(jwt()).with(csrf()))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @SneakyThrows
+    void caches_AdminToken_IsAllowed() {
+        mockMvc.perform(delete(CACHES_URL).with(jwt().authorities(new SimpleGrantedAuthority(ADMIN_ROLE))).with(csrf()))
+            .andExpect(status().isNoContent());
+    }
+
+    @Test
+    @SneakyThrows
+    void prometheus_Anonymous_ReturnsUnauthorized() {
+        mockMvc.perform(get(PROMETHEUS_URL))
+            .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    @SneakyThrows
+    void prometheus_UserToken_ReturnsForbidden() {
+        mockMvc.perform(get(PROMETHEUS_URL).with(jwt()))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @SneakyThrows
+    void prometheus_ServiceToken_IsAllowed() {
+        mockMvc.perform(get(PROMETHEUS_URL).with(jwt().authorities(new SimpleGrantedAuthority(SERVICE_ROLE))))
+            .andExpect(status().isOk());
+    }
+
+}
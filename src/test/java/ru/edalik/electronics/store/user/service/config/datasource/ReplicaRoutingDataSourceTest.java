@@ -0,0 +1,101 @@
+package ru.edalik.electronics.store.user.service.config.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.edalik.electronics.store.user.service.service.replica.ReplicaRoutingPolicy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    DataSource primaryDataSource;
+
+    @Mock
+    DataSource replicaDataSource;
+
+    @Mock
+    ReplicaRoutingPolicy policy;
+
+    @Mock
+    Connection primaryConnection;
+
+    @Mock
+    Connection replicaConnection;
+
+    ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ReplicaRoutingDataSource(primaryDataSource, replicaDataSource, policy, 1);
+        dataSource.afterPropertiesSet();
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void getConnection_ValidReplicaConnection_ReturnsReplica() throws SQLException {
+        when(policy.readFromReplica()).thenReturn(true);
+        when(replicaDataSource.getConnection()).thenReturn(replicaConnection);
+        when(replicaConnection.isValid(1)).thenReturn(true);
+
+        assertThat(dataSource.getConnection()).isSameAs(replicaConnection);
+        verify(policy, never()).replicaFailed(any());
+        verify(primaryDataSource, never()).getConnection();
+    }
+
+    @Test
+    void getConnection_ClosedReplicaConnection_FallsBackToPrimary() throws SQLException {
+        when(policy.readFromReplica()).thenReturn(true);
+        when(replicaDataSource.getConnection()).thenReturn(replicaConnection);
+        when(replicaConnection.isValid(1)).thenReturn(false);
+        when(primaryDataSource.getConnection()).thenReturn(primaryConnection);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+
+        ArgumentCaptor<SQLException> failure = ArgumentCaptor.forClass(SQLException.class);
+        verify(policy).replicaFailed(failure.capture());
+        assertThat(failure.getValue().getSQLState()).startsWith("08");
+        verify(replicaConnection).close();
+    }
+
+    @Test
+    void getConnection_ReplicaUnreachable_FallsBackToPrimary() throws SQLException {
+        SQLException refused = new SQLException("Connection refused", "08001");
+        when(policy.readFromReplica()).thenReturn(true);
+        when(replicaDataSource.getConnection()).thenThrow(refused);
+        when(primaryDataSource.getConnection()).thenReturn(primaryConnection);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        verify(policy).replicaFailed(refused);
+    }
+
+    @Test
+    void getConnection_ReadWriteTransaction_UsesPrimaryWithoutValidation() throws SQLException {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        when(primaryDataSource.getConnection()).thenReturn(primaryConnection);
+
+        assertThat(dataSource.getConnection()).isSameAs(primaryConnection);
+        verify(replicaDataSource, never()).getConnection();
+    }
+
+}
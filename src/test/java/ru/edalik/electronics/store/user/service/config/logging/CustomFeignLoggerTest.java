@@ -0,0 +1,75 @@
+package ru.edalik.electronics.store.user.service.config.logging;
+
+import feign.Logger;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CustomFeignLoggerTest {
+
+    static final int MAX_BODY_SIZE = 8;
+    static final byte[] BODY = "0123456789abcdef".getBytes(StandardCharsets.UTF_8);
+
+    final List<String> loggedBodies = new ArrayList<>();
+
+    final CustomFeignLogger feignLogger = new CustomFeignLogger(MAX_BODY_SIZE) {
+        @Override
+        protected void logResponse(Response response, String resBody) {
+            loggedBodies.add(resBody);
+        }
+    };
+
+    final Request request = Request.create(
+        Request.HttpMethod.GET,
+        "http://localhost/api",
+        Map.of(),
+        null,
+        StandardCharsets.UTF_8,
+        null
+    );
+
+    @Test
+    void logAndRebufferResponse_ShouldPassBodyThroughAndLogCappedPrefix() throws IOException {
+        Response response = feignLogger.logAndRebufferResponse("key", Logger.Level.BASIC, response(), 1);
+        assertTrue(loggedBodies.isEmpty());
+
+        byte[] body;
+        try (InputStream inputStream = response.body().asInputStream()) {
+            body = inputStream.readAllBytes();
+        }
+        response.close();
+
+        assertArrayEquals(BODY, body);
+        assertEquals(List.of("01234567"), loggedBodies);
+    }
+
+    @Test
+    void logAndRebufferResponse_ShouldLogEmptyPrefix_WhenBodyIsNeverRead() throws IOException {
+        Response response = feignLogger.logAndRebufferResponse("key", Logger.Level.BASIC, response(), 1);
+
+        response.close();
+
+        assertEquals(List.of(""), loggedBodies);
+    }
+
+    private Response response() {
+        return Response.builder()
+            .status(200)
+            .request(request)
+            .headers(Map.of())
+            .body(BODY)
+            .build();
+    }
+
+}
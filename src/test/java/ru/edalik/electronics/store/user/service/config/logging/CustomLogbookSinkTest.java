@@ -0,0 +1,115 @@
+package ru.edalik.electronics.store.user.service.config.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.boot.web.context.WebServerGracefulShutdownLifecycle;
+import org.zalando.logbook.HttpHeaders;
+import org.zalando.logbook.HttpRequest;
+import org.zalando.logbook.Precorrelation;
+import ru.edalik.electronics.store.user.service.config.properties.HttpLoggingProperties;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CustomLogbookSinkTest {
+
+    final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    final CustomLogbookSink sink = new CustomLogbookSink(
+        new HttpLoggingProperties(2, 16, 1024, 1.0, Map.of(), Duration.ofSeconds(1)),
+        meterRegistry
+    );
+
+    final HttpRequest request = mock(HttpRequest.class);
+
+    final Precorrelation precorrelation = mock(Precorrelation.class);
+
+    final ListAppender<ILoggingEvent> appender = new ListAppender<>() {
+        @Override
+        protected void append(ILoggingEvent event) {
+            event.prepareForDeferredProcessing();
+            super.append(event);
+        }
+    };
+
+    @AfterEach
+    void tearDown() {
+        if (sink.isRunning()) {
+            sink.stop();
+        }
+        ((Logger) LoggerFactory.getLogger(CustomLogbookSink.class)).detachAppender(appender);
+        MDC.clear();
+    }
+
+    @Test
+    void write_ShouldDropAndCount_WhenQueueIsFull() throws IOException {
+        stubRequest();
+
+        for (int i = 0; i < 5; i++) {
+            sink.write(precorrelation, request);
+        }
+
+        assertEquals(3, sink.getDroppedCount());
+        assertEquals(3, meterRegistry.counter("http.logging.dropped").count());
+    }
+
+    @Test
+    void start_ShouldDrainQueuedEvents() throws IOException {
+        stubRequest();
+        sink.write(precorrelation, request);
+        sink.write(precorrelation, request);
+
+        sink.start();
+
+        await().atMost(Duration.ofSeconds(2)).until(
+            () -> meterRegistry.get("http.logging.queue.size").gauge().value() == 0
+        );
+        assertEquals(0, sink.getDroppedCount());
+    }
+
+    @Test
+    void start_ShouldWriteEventsWithCallerTraceContext() throws IOException {
+        stubRequest();
+        appender.start();
+        ((Logger) LoggerFactory.getLogger(CustomLogbookSink.class)).addAppender(appender);
+        MDC.put("traceId", "4bf92f3577b34da6a3ce929d0e0e4736");
+        MDC.put("spanId", "00f067aa0ba902b7");
+        sink.write(precorrelation, request);
+        MDC.clear();
+
+        sink.start();
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> !appender.list.isEmpty());
+        Map<String, String> context = appender.list.get(0).getMDCPropertyMap();
+        assertEquals("4bf92f3577b34da6a3ce929d0e0e4736", context.get("traceId"));
+        assertEquals("00f067aa0ba902b7", context.get("spanId"));
+        assertEquals("GET", context.get("request.method"));
+    }
+
+    @Test
+    void getPhase_ShouldStopAfterGracefulShutdownDrainsRequests() {
+        assertTrue(sink.getPhase() < WebServerGracefulShutdownLifecycle.SMART_LIFECYCLE_PHASE);
+    }
+
+    private void stubRequest() throws IOException {
+        when(request.getRequestUri()).thenReturn("http://localhost/api/v1/users/balance");
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeaders()).thenReturn(HttpHeaders.empty());
+        when(request.getBodyAsString()).thenReturn("");
+        when(request.getRemote()).thenReturn("127.0.0.1");
+    }
+
+}
@@ -0,0 +1,44 @@
+package ru.edalik.electronics.store.user.service.config.logging;
+
+import org.junit.jupiter.api.Test;
+import org.zalando.logbook.HttpRequest;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RouteSamplingConditionTest {
+
+    final RouteSamplingCondition condition = new RouteSamplingCondition(
+        0.5,
+        Map.of(
+            "/actuator", 0.0,
+            "/api/v1/users", 1.0,
+            "/api/v1/users/balance", 0.1
+        )
+    );
+
+    @Test
+    void rateFor_ShouldUseLongestMatchingPrefix() {
+        assertEquals(0.1, condition.rateFor("/api/v1/users/balance/deposit"));
+        assertEquals(1.0, condition.rateFor("/api/v1/users"));
+        assertEquals(0.5, condition.rateFor("/user-service/v3/api-docs"));
+    }
+
+    @Test
+    void test_ShouldHonourAlwaysAndNever() {
+        assertTrue(condition.test(request("/api/v1/users")));
+        assertFalse(condition.test(request("/actuator/health")));
+    }
+
+    private static HttpRequest request(String path) {
+        HttpRequest request = mock(HttpRequest.class);
+        when(request.getPath()).thenReturn(path);
+        return request;
+    }
+
+}
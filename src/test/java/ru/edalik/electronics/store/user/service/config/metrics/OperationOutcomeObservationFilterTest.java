@@ -0,0 +1,52 @@
+package ru.edalik.electronics.store.user.service.config.metrics;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import ru.edalik.electronics.store.user.service.model.exception.InsufficientFunds;
+import ru.edalik.electronics.store.user.service.model.exception.NotFoundException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.edalik.electronics.store.user.service.config.metrics.OperationOutcomeObservationFilter.BALANCE_OPERATION;
+import static ru.edalik.electronics.store.user.service.config.metrics.OperationOutcomeObservationFilter.OUTCOME_TAG;
+import static ru.edalik.electronics.store.user.service.config.metrics.OperationOutcomeObservationFilter.USER_OPERATION;
+
+class OperationOutcomeObservationFilterTest {
+
+    final OperationOutcomeObservationFilter filter = new OperationOutcomeObservationFilter();
+
+    @Test
+    void map_SuccessfulOperation_TagsOk() {
+        assertThat(outcome(BALANCE_OPERATION, null)).isEqualTo("ok");
+    }
+
+    @Test
+    void map_FailedOperation_TagsOutcomeByException() {
+        assertThat(outcome(BALANCE_OPERATION, new NotFoundException("User not found"))).isEqualTo("not_found");
+        assertThat(outcome(BALANCE_OPERATION, new InsufficientFunds())).isEqualTo("insufficient_funds");
+        assertThat(outcome(USER_OPERATION, new OptimisticLockingFailureException("Stale"))).isEqualTo("conflict");
+        assertThat(outcome(USER_OPERATION, new IllegalStateException())).isEqualTo("error");
+    }
+
+    @Test
+    void map_ForeignObservation_LeavesContextUntouched() {
+        Observation.Context context = new Observation.Context();
+        context.setName("http.server.requests");
+
+        assertThat(filter.map(context).getLowCardinalityKeyValue(OUTCOME_TAG)).isNull();
+    }
+
+    private String outcome(String name, Throwable error) {
+        Observation.Context context = new Observation.Context();
+        context.setName(name);
+        if (error != null) {
+            context.setError(error);
+        }
+
+        KeyValue outcome = filter.map(context).getLowCardinalityKeyValue(OUTCOME_TAG);
+
+        return outcome.getValue();
+    }
+
+}
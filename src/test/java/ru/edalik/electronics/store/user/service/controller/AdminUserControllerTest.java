@@ -0,0 +1,272 @@
+package ru.edalik.electronics.store.user.service.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.edalik.electronics.store.user.service.mapper.UserImportJobMapper;
+import ru.edalik.electronics.store.user.service.model.dto.UserDto;
+import ru.edalik.electronics.store.user.service.model.dto.UserImportJobDto;
+import ru.edalik.electronics.store.user.service.model.dto.UserImportRequestDto;
+import ru.edalik.electronics.store.user.service.model.dto.UserPageDto;
+import ru.edalik.electronics.store.user.service.model.entity.UserImportJob;
+import ru.edalik.electronics.store.user.service.model.enums.UserImportFormat;
+import ru.edalik.electronics.store.user.service.model.enums.UserImportStatus;
+import ru.edalik.electronics.store.user.service.model.exception.ImportJobConflictException;
+import ru.edalik.electronics.store.user.service.model.exception.InvalidCursorException;
+import ru.edalik.electronics.store.user.service.model.exception.InvalidImportFileException;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserExportService;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserImportService;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserSearchService;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AdminUserController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class AdminUserControllerTest {
+
+    static final String BASE_URL = "/api/v1/admin/users";
+    static final String EXPORT_URL = BASE_URL + "/export";
+    static final String IMPORT_URL = BASE_URL + "/import";
+
+    @Autowired
+    MockMvc mockMvc;
+
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @MockitoBean
+    UserSearchService userSearchService;
+
+    @MockitoBean
+    UserExportService userExportService;
+
+    @MockitoBean
+    UserImportService userImportService;
+
+    @MockitoBean
+    UserImportJobMapper userImportJobMapper;
+
+    final UserDto first = UserDto.builder().id(UUID.randomUUID()).login("first").build();
+
+    final UserDto second = UserDto.builder().id(UUID.randomUUID()).login("second").build();
+
+    @Test
+    @SneakyThrows
+    void search_ShouldReturnPage() {
+        when(userSearchService.search("ivanov", "cursor", 20)).thenReturn(new UserPageDto(List.of(first), "next"));
+
+        mockMvc.perform(get(BASE_URL)
+                .param("query", "ivanov")
+                .param("cursor", "cursor")
+                .param("limit", "20"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.items[0].login").value("first"))
+            .andExpect(jsonPath("$.nextCursor").value("next"));
+    }
+
+    @Test
+    @SneakyThrows
+    void search_ShortQuery_ReturnsBadRequest() {
+        mockMvc.perform(get(BASE_URL).param("query", "iv"))
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userSearchService);
+    }
+
+    @Test
+    @SneakyThrows
+    void search_InvalidCursor_ReturnsBadRequest() {
+        when(userSearchService.search(null, "broken", 50)).thenThrow(new InvalidCursorException("Cursor is invalid"));
+
+        mockMvc.perform(get(BASE_URL).param("cursor", "broken"))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Cursor is invalid"));
+    }
+
+    @Test
+    @SneakyThrows
+    void export_ShouldStreamOneUserPerLine() {
+        mockExport();
+
+        MvcResult result = mockMvc.perform(get(EXPORT_URL))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+            .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        assertThat(body).isEqualTo(
+            objectMapper.writeValueAsString(first) + "\n" + objectMapper.writeValueAsString(second) + "\n"
+        );
+        verify(userExportService).export(isNull(), any());
+    }
+
+    @Test
+    @SneakyThrows
+    void export_GzipAccepted_ShouldCompressBody() {
+        mockExport();
+
+        MvcResult result = mockMvc.perform(get(EXPORT_URL).header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        byte[] body = mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        try (GZIPInputStream inputStream = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(inputStream.readAllBytes(), StandardCharsets.UTF_8).lines())
+                .containsExactly(objectMapper.writeValueAsString(first), objectMapper.writeValueAsString(second));
+        }
+    }
+
+    @Test
+    @SneakyThrows
+    void export_WithUpdatedSince_ShouldPassFilter() {
+        ZonedDateTime updatedSince = ZonedDateTime.parse("2025-01-01T00:00:00Z");
+        mockExport();
+
+        MvcResult result = mockMvc.perform(get(EXPORT_URL).param("updatedSince", "2025-01-01T00:00:00Z"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk());
+
+        verify(userExportService).export(eq(updatedSince), any());
+    }
+
+    @Test
+    @SneakyThrows
+    void startImport_ShouldReturnAccepted() {
+        UserImportJob job = UserImportJob.builder().id(UUID.randomUUID()).build();
+        when(userImportService.start("users.csv", UserImportFormat.CSV)).thenReturn(job);
+        when(userImportJobMapper.toDto(job)).thenReturn(importJobDto(job.getId()));
+
+        mockMvc.perform(post(IMPORT_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new UserImportRequestDto("users.csv", UserImportFormat.CSV))))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.id").value(job.getId().toString()))
+            .andExpect(jsonPath("$.status").value("RUNNING"));
+    }
+
+    @Test
+    @SneakyThrows
+    void startImport_BlankFileName_ReturnsBadRequest() {
+        mockMvc.perform(post(IMPORT_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new UserImportRequestDto(" ", UserImportFormat.CSV))))
+            .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(userImportService);
+    }
+
+    @Test
+    @SneakyThrows
+    void startImport_UnreadableFile_ReturnsBadRequest() {
+        when(userImportService.start("../secret.csv", UserImportFormat.CSV))
+            .thenThrow(new InvalidImportFileException("Import file ../secret.csv is not readable"));
+
+        mockMvc.perform(post(IMPORT_URL)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new UserImportRequestDto("../secret.csv", UserImportFormat.CSV))))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Import file ../secret.csv is not readable"));
+    }
+
+    @Test
+    @SneakyThrows
+    void resumeImport_ShouldReturnAccepted() {
+        UserImportJob job = UserImportJob.builder().id(UUID.randomUUID()).build();
+        when(userImportService.resume(job.getId())).thenReturn(job);
+        when(userImportJobMapper.toDto(job)).thenReturn(importJobDto(job.getId()));
+
+        mockMvc.perform(post(IMPORT_URL + "/{id}/resume", job.getId()))
+            .andExpect(status().isAccepted())
+            .andExpect(jsonPath("$.id").value(job.getId().toString()));
+    }
+
+    @Test
+    @SneakyThrows
+    void resumeImport_Completed_ReturnsConflict() {
+        UUID id = UUID.randomUUID();
+        when(userImportService.resume(id)).thenThrow(new ImportJobConflictException("Import job is already completed"));
+
+        mockMvc.perform(post(IMPORT_URL + "/{id}/resume", id))
+            .andExpect(status().isConflict());
+    }
+
+    @Test
+    @SneakyThrows
+    void getImport_ShouldReturnProgress() {
+        UserImportJob job = UserImportJob.builder().id(UUID.randomUUID()).build();
+        when(userImportService.get(job.getId())).thenReturn(job);
+        when(userImportJobMapper.toDto(job)).thenReturn(importJobDto(job.getId()));
+
+        mockMvc.perform(get(IMPORT_URL + "/{id}", job.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.processedRows").value(10))
+            .andExpect(jsonPath("$.importedRows").value(8));
+    }
+
+    private UserImportJobDto importJobDto(UUID id) {
+        return UserImportJobDto.builder()
+            .id(id)
+            .fileName("users.csv")
+            .format(UserImportFormat.CSV)
+            .status(UserImportStatus.RUNNING)
+            .processedRows(10)
+            .importedRows(8)
+            .build();
+    }
+
+    private void mockExport() {
+        doAnswer(invocation -> {
+            Consumer<UserDto> action = invocation.getArgument(1);
+            action.accept(first);
+            action.accept(second);
+            return 2L;
+        }).when(userExportService).export(any(), any());
+    }
+
+}
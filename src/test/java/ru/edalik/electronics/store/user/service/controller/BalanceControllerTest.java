@@ -1,25 +1,57 @@
 package ru.edalik.electronics.store.user.service.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.edalik.electronics.store.user.service.mapper.BalanceHoldMapper;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceBatchDto;
 import ru.edalik.electronics.store.user.service.model.dto.BalanceDto;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceHoldDto;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceHoldRequestDto;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceOperationDto;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceOperationResultDto;
+import ru.edalik.electronics.store.user.service.model.dto.UserRevisionDto;
+import ru.edalik.electronics.store.user.service.model.entity.BalanceHold;
+import ru.edalik.electronics.store.user.service.model.enums.BalanceHoldStatus;
+import ru.edalik.electronics.store.user.service.model.enums.BalanceOperation;
+import ru.edalik.electronics.store.user.service.model.exception.HoldNotActiveException;
+import ru.edalik.electronics.store.user.service.model.exception.IdempotencyKeyReusedException;
 import ru.edalik.electronics.store.user.service.model.exception.InsufficientFunds;
 import ru.edalik.electronics.store.user.service.model.exception.NotFoundException;
+import ru.edalik.electronics.store.user.service.service.interfaces.BalanceHoldService;
 import ru.edalik.electronics.store.user.service.service.interfaces.BalanceService;
+import ru.edalik.electronics.store.user.service.service.interfaces.IdempotencyService;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserRevisionService;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
+import static org.hamcrest.Matchers.closeTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -31,8 +63,19 @@ class BalanceControllerTest {
     static final BigDecimal AMOUNT = BigDecimal.ONE;
     static final String DEPOSIT = "/deposit";
     static final String PAYMENT = "/payment";
+    static final String BATCH = "/batch";
+    static final String HOLDS = "/holds";
+    static final UUID HOLD_ID = UUID.randomUUID();
     static final String USER_NOT_FOUND = "User not found";
     static final String NOT_FOUND = "Not Found";
+    static final String IDEMPOTENCY_KEY = "order-42";
+    static final Instant BALANCE_MODIFIED_TIME = Instant.parse("2024-02-20T11:30:45Z");
+    static final UserRevisionDto REVISION = new UserRevisionDto(
+        3L,
+        new BigDecimal("10.50"),
+        Instant.parse("2024-02-19T11:30:45Z"),
+        BALANCE_MODIFIED_TIME
+    );
 
     @Autowired
     MockMvc mockMvc;
@@ -43,6 +86,26 @@ class BalanceControllerTest {
     @MockitoBean
     BalanceService balanceService;
 
+    @MockitoBean
+    IdempotencyService idempotencyService;
+
+    @MockitoBean
+    UserRevisionService userRevisionService;
+
+    @MockitoBean
+    BalanceHoldService balanceHoldService;
+
+    @MockitoBean
+    BalanceHoldMapper balanceHoldMapper;
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(3).run();
+            return null;
+        }).when(idempotencyService).execute(any(), any(), any(), any());
+    }
+
     @Test
     void getUserBalance_ExistingUser_ReturnsBalance() throws Exception {
         when(balanceService.getBalance()).thenReturn(AMOUNT);
@@ -52,6 +115,56 @@ class BalanceControllerTest {
             .andExpect(jsonPath("$.amount").value(AMOUNT));
     }
 
+    @Test
+    void getUserBalance_WithoutConditionalHeaders_SkipsRevisionLookup() throws Exception {
+        when(balanceService.getBalance()).thenReturn(REVISION.balance());
+
+        mockMvc.perform(get(BASE_URL))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"10.50\""))
+            .andExpect(header().doesNotExist(HttpHeaders.LAST_MODIFIED));
+
+        verify(userRevisionService, never()).getRevision();
+    }
+
+    @Test
+    void getUserBalance_MatchingIfNoneMatch_ReturnsNotModifiedWithoutLoadingBalance() throws Exception {
+        when(userRevisionService.getRevision()).thenReturn(Optional.of(REVISION));
+
+        mockMvc.perform(get(BASE_URL).header(HttpHeaders.IF_NONE_MATCH, "\"10.50\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"10.50\""))
+            .andExpect(content().string(""));
+
+        verify(balanceService, never()).getBalance();
+    }
+
+    @Test
+    void getUserBalance_StaleIfNoneMatch_ReturnsBalanceFromRevision() throws Exception {
+        when(userRevisionService.getRevision()).thenReturn(Optional.of(REVISION));
+
+        mockMvc.perform(get(BASE_URL).header(HttpHeaders.IF_NONE_MATCH, "\"9.50\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"10.50\""))
+            .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, BALANCE_MODIFIED_TIME.toEpochMilli()))
+            .andExpect(jsonPath("$.amount").value(closeTo(REVISION.balance().doubleValue(), 0.0)));
+
+        verify(balanceService, never()).getBalance();
+    }
+
+    @Test
+    void getUserBalance_NotModifiedSince_ReturnsNotModified() throws Exception {
+        when(userRevisionService.getRevision()).thenReturn(Optional.of(REVISION));
+
+        mockMvc.perform(get(BASE_URL).header(
+                HttpHeaders.IF_MODIFIED_SINCE,
+                DateTimeFormatter.RFC_1123_DATE_TIME.format(BALANCE_MODIFIED_TIME.atZone(ZoneOffset.UTC))
+            ))
+            .andExpect(status().isNotModified());
+
+        verify(balanceService, never()).getBalance();
+    }
+
     @Test
     void getUserBalance_UserNotFound_ReturnsNotFound() throws Exception {
         when(balanceService.getBalance()).thenThrow(new NotFoundException(USER_NOT_FOUND));
@@ -122,4 +235,172 @@ class BalanceControllerTest {
             .andExpect(jsonPath("$.error").value(NOT_FOUND));
     }
 
-}
\ No newline at end of file
+    @Test
+    void deposit_WithIdempotencyKey_PassesKeyThrough() throws Exception {
+        BalanceDto dto = new BalanceDto(AMOUNT);
+
+        mockMvc.perform(post(BASE_URL + DEPOSIT)
+                .header(BalanceController.IDEMPOTENCY_KEY, IDEMPOTENCY_KEY)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+            .andExpect(status().isOk());
+
+        verify(idempotencyService).execute(eq(IDEMPOTENCY_KEY), eq(BalanceOperation.DEPOSIT), eq(AMOUNT), any());
+    }
+
+    @Test
+    void payment_WithoutIdempotencyKey_PassesNullKey() throws Exception {
+        BalanceDto dto = new BalanceDto(AMOUNT);
+
+        mockMvc.perform(post(BASE_URL + PAYMENT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+            .andExpect(status().isOk());
+
+        verify(idempotencyService).execute(isNull(), eq(BalanceOperation.PAYMENT), eq(AMOUNT), any());
+    }
+
+    @Test
+    void payment_ReusedIdempotencyKey_ReturnsConflict() throws Exception {
+        BalanceDto dto = new BalanceDto(AMOUNT);
+        doThrow(new IdempotencyKeyReusedException(IDEMPOTENCY_KEY))
+            .when(idempotencyService).execute(eq(IDEMPOTENCY_KEY), any(), any(), any());
+
+        mockMvc.perform(post(BASE_URL + PAYMENT)
+                .header(BalanceController.IDEMPOTENCY_KEY, IDEMPOTENCY_KEY)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(dto)))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.error").value("Conflict"));
+    }
+
+    @Test
+    void batch_ValidRequest_ReturnsPerOperationResults() throws Exception {
+        List<BalanceOperationDto> operations = List.of(
+            new BalanceOperationDto(BalanceOperation.DEPOSIT, AMOUNT),
+            new BalanceOperationDto(BalanceOperation.PAYMENT, AMOUNT)
+        );
+        when(balanceService.applyBatch(operations)).thenReturn(
+            List.of(
+                new BalanceOperationResultDto(BalanceOperation.DEPOSIT, AMOUNT, AMOUNT),
+                new BalanceOperationResultDto(BalanceOperation.PAYMENT, AMOUNT, BigDecimal.ZERO)
+            )
+        );
+
+        mockMvc.perform(post(BASE_URL + BATCH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BalanceBatchDto(operations))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0].balance").value(AMOUNT))
+            .andExpect(jsonPath("$[1].operation").value("PAYMENT"))
+            .andExpect(jsonPath("$[1].balance").value(0));
+    }
+
+    @Test
+    void batch_EmptyOperations_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post(BASE_URL + BATCH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BalanceBatchDto(List.of()))))
+            .andExpect(status().isBadRequest());
+
+        verify(balanceService, never()).applyBatch(any());
+    }
+
+    @Test
+    void batch_NegativeAmount_ReturnsBadRequest() throws Exception {
+        List<BalanceOperationDto> operations = List.of(
+            new BalanceOperationDto(BalanceOperation.DEPOSIT, AMOUNT.negate())
+        );
+
+        mockMvc.perform(post(BASE_URL + BATCH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BalanceBatchDto(operations))))
+            .andExpect(status().isBadRequest());
+
+        verify(balanceService, never()).applyBatch(any());
+    }
+
+    @Test
+    void batch_InsufficientFunds_ReturnsBadRequest() throws Exception {
+        List<BalanceOperationDto> operations = List.of(
+            new BalanceOperationDto(BalanceOperation.PAYMENT, AMOUNT)
+        );
+        when(balanceService.applyBatch(operations)).thenThrow(new InsufficientFunds());
+
+        mockMvc.perform(post(BASE_URL + BATCH)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BalanceBatchDto(operations))))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Insufficient funds"));
+    }
+
+    @Test
+    void createHold_ValidRequest_ReturnsCreated() throws Exception {
+        BalanceHold hold = BalanceHold.builder().id(HOLD_ID).amount(AMOUNT).status(BalanceHoldStatus.ACTIVE).build();
+        when(balanceHoldService.create(AMOUNT, Duration.ofMinutes(5))).thenReturn(hold);
+        when(balanceHoldMapper.toDto(hold)).thenReturn(
+            BalanceHoldDto.builder().id(HOLD_ID).amount(AMOUNT).status(BalanceHoldStatus.ACTIVE).build()
+        );
+
+        mockMvc.perform(post(BASE_URL + HOLDS)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BalanceHoldRequestDto(AMOUNT, Duration.ofMinutes(5)))))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.id").value(HOLD_ID.toString()))
+            .andExpect(jsonPath("$.status").value("ACTIVE"));
+    }
+
+    @Test
+    void createHold_InsufficientFunds_ReturnsBadRequest() throws Exception {
+        when(balanceHoldService.create(AMOUNT, null)).thenThrow(new InsufficientFunds());
+
+        mockMvc.perform(post(BASE_URL + HOLDS)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BalanceHoldRequestDto(AMOUNT, null))))
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.message").value("Insufficient funds"));
+    }
+
+    @Test
+    void createHold_NegativeAmount_ReturnsBadRequest() throws Exception {
+        mockMvc.perform(post(BASE_URL + HOLDS)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new BalanceHoldRequestDto(AMOUNT.negate(), null))))
+            .andExpect(status().isBadRequest());
+
+        verify(balanceHoldService, never()).create(any(), any());
+    }
+
+    @Test
+    void captureHold_ActiveHold_ReturnsOk() throws Exception {
+        BalanceHold hold = BalanceHold.builder().id(HOLD_ID).status(BalanceHoldStatus.CAPTURED).build();
+        when(balanceHoldService.capture(HOLD_ID)).thenReturn(hold);
+        when(balanceHoldMapper.toDto(hold)).thenReturn(
+            BalanceHoldDto.builder().id(HOLD_ID).status(BalanceHoldStatus.CAPTURED).build()
+        );
+
+        mockMvc.perform(post(BASE_URL + HOLDS + "/" + HOLD_ID + "/capture"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("CAPTURED"));
+    }
+
+    @Test
+    void captureHold_InactiveHold_ReturnsConflict() throws Exception {
+        when(balanceHoldService.capture(HOLD_ID)).thenThrow(new HoldNotActiveException("Hold is RELEASED"));
+
+        mockMvc.perform(post(BASE_URL + HOLDS + "/" + HOLD_ID + "/capture"))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.error").value("Conflict"));
+    }
+
+    @Test
+    void releaseHold_UnknownHold_ReturnsNotFound() throws Exception {
+        when(balanceHoldService.release(HOLD_ID)).thenThrow(new NotFoundException("Hold not found"));
+
+        mockMvc.perform(post(BASE_URL + HOLDS + "/" + HOLD_ID + "/release"))
+            .andExpect(status().isNotFound())
+            .andExpect(jsonPath("$.error").value(NOT_FOUND));
+    }
+
+}
@@ -6,27 +6,51 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.edalik.electronics.store.user.service.mapper.UserMapper;
+import ru.edalik.electronics.store.user.service.model.dto.UserBulkRequestDto;
 import ru.edalik.electronics.store.user.service.model.dto.UserDto;
+import ru.edalik.electronics.store.user.service.model.dto.UserRevisionDto;
 import ru.edalik.electronics.store.user.service.model.dto.UserUpdateDto;
 import ru.edalik.electronics.store.user.service.model.entity.User;
 import ru.edalik.electronics.store.user.service.model.exception.NotFoundException;
+import ru.edalik.electronics.store.user.service.model.exception.PreconditionFailedException;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserRevisionService;
 import ru.edalik.electronics.store.user.service.service.interfaces.UserService;
 
+import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(UserController.class)
@@ -36,6 +60,13 @@ class UserControllerTest {
     static final String BASE_URL = "/api/v1/users";
     static final String USER_NOT_FOUND_MSG = "User not found";
     static final String NOT_FOUND = "Not Found";
+    static final Instant PROFILE_MODIFIED_TIME = Instant.parse("2024-02-20T11:30:45Z");
+    static final UserRevisionDto REVISION = new UserRevisionDto(
+        3L,
+        new BigDecimal("10.50"),
+        PROFILE_MODIFIED_TIME,
+        Instant.parse("2024-02-19T11:30:45Z")
+    );
 
     @Autowired
     MockMvc mockMvc;
@@ -49,24 +80,80 @@ class UserControllerTest {
     @MockitoBean
     UserMapper userMapper;
 
+    @MockitoBean
+    UserRevisionService userRevisionService;
+
     @Test
     @SneakyThrows
     void getUserById_ExistingUser_ReturnsUserDto() {
-        User user = mock(User.class);
-        UserDto expectedDto = mock(UserDto.class);
+        UserDto expectedDto = UserDto.builder().login("login").build();
 
-        when(userService.getOrCreate()).thenReturn(user);
-        when(userMapper.toDto(user)).thenReturn(expectedDto);
+        when(userService.getProfile()).thenReturn(expectedDto);
 
         mockMvc.perform(get(BASE_URL))
             .andExpect(status().isOk())
             .andExpect(content().json(objectMapper.writeValueAsString(expectedDto)));
     }
 
+    @Test
+    @SneakyThrows
+    void getUserById_WithoutConditionalHeaders_SkipsRevisionLookup() {
+        when(userService.getProfile()).thenReturn(
+            UserDto.builder().login("login").version(3L).balance(new BigDecimal("10.50")).build()
+        );
+
+        mockMvc.perform(get(BASE_URL))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"3-10.50\""));
+
+        verify(userRevisionService, never()).getRevision();
+    }
+
+    @Test
+    @SneakyThrows
+    void getUserById_MatchingIfNoneMatch_ReturnsNotModifiedWithoutLoadingProfile() {
+        when(userRevisionService.getRevision()).thenReturn(Optional.of(REVISION));
+
+        mockMvc.perform(get(BASE_URL).header(HttpHeaders.IF_NONE_MATCH, "W/\"2-10.50\", \"3-10.50\""))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"3-10.50\""))
+            .andExpect(content().string(""));
+
+        verify(userService, never()).getProfile();
+    }
+
+    @Test
+    @SneakyThrows
+    void getUserById_BalanceChanged_ReturnsProfile() {
+        when(userRevisionService.getRevision()).thenReturn(Optional.of(REVISION));
+        when(userService.getProfile()).thenReturn(
+            UserDto.builder().login("login").version(3L).balance(new BigDecimal("10.50")).build()
+        );
+
+        mockMvc.perform(get(BASE_URL).header(HttpHeaders.IF_NONE_MATCH, "\"3-9.50\""))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"3-10.50\""))
+            .andExpect(header().dateValue(HttpHeaders.LAST_MODIFIED, PROFILE_MODIFIED_TIME.toEpochMilli()))
+            .andExpect(jsonPath("$.login").value("login"));
+    }
+
+    @Test
+    @SneakyThrows
+    void getUserById_ModifiedAfterIfModifiedSince_ReturnsProfile() {
+        when(userRevisionService.getRevision()).thenReturn(Optional.of(REVISION));
+        when(userService.getProfile()).thenReturn(UserDto.builder().login("login").version(3L).build());
+
+        mockMvc.perform(get(BASE_URL).header(
+                HttpHeaders.IF_MODIFIED_SINCE,
+                DateTimeFormatter.RFC_1123_DATE_TIME.format(PROFILE_MODIFIED_TIME.minusSeconds(1).atZone(ZoneOffset.UTC))
+            ))
+            .andExpect(status().isOk());
+    }
+
     @Test
     @SneakyThrows
     void getUserById_UserNotFound_ReturnsNotFound() {
-        when(userService.getOrCreate()).thenThrow(new NotFoundException(USER_NOT_FOUND_MSG));
+        when(userService.getProfile()).thenThrow(new NotFoundException(USER_NOT_FOUND_MSG));
 
         mockMvc.perform(get(BASE_URL))
             .andExpect(status().isNotFound())
@@ -76,11 +163,15 @@ class UserControllerTest {
     @Test
     @SneakyThrows
     void update_ValidRequest_ReturnsUpdatedUser() {
-        UserUpdateDto requestDto = mock(UserUpdateDto.class);
+        UserUpdateDto requestDto = validUpdateDto();
         User user = mock(User.class);
-        UserDto expectedDto = mock(UserDto.class);
+        UserDto expectedDto = UserDto.builder()
+            .name(requestDto.name())
+            .version(1L)
+            .balance(BigDecimal.TEN)
+            .build();
 
-        when(userService.update(requestDto)).thenReturn(user);
+        when(userService.update(any(UserUpdateDto.class), isNull())).thenReturn(user);
         when(userMapper.toDto(user)).thenReturn(expectedDto);
 
         mockMvc.perform(
@@ -88,9 +179,98 @@ class UserControllerTest {
                     .contentType(MediaType.APPLICATION_JSON)
                     .content(objectMapper.writeValueAsString(requestDto))
             )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.name").value(requestDto.name()))
+            .andExpect(jsonPath("$.version").value(1));
+
+        verify(userService).update(requestDto, null);
+    }
+
+    @Test
+    @SneakyThrows
+    void update_IfMatchHeader_PassesExpectedVersionAndReturnsETag() {
+        UserUpdateDto requestDto = validUpdateDto();
+        User user = mock(User.class);
+
+        when(userService.update(requestDto, 3L)).thenReturn(user);
+        when(userMapper.toDto(user)).thenReturn(UserDto.builder().version(4L).balance(BigDecimal.TEN).build());
+
+        mockMvc.perform(
+                put(BASE_URL)
+                    .header(HttpHeaders.IF_MATCH, "\"3-10\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(requestDto))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"4-10\""))
+            .andExpect(jsonPath("$.version").value(4));
+    }
+
+    @Test
+    @SneakyThrows
+    void update_WildcardIfMatch_DoesNotPassExpectedVersion() {
+        UserUpdateDto requestDto = validUpdateDto();
+        User user = mock(User.class);
+
+        when(userService.update(requestDto, null)).thenReturn(user);
+        when(userMapper.toDto(user)).thenReturn(UserDto.builder().version(1L).build());
+
+        mockMvc.perform(
+                put(BASE_URL)
+                    .header(HttpHeaders.IF_MATCH, "*")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(requestDto))
+            )
             .andExpect(status().isOk());
     }
 
+    @Test
+    @SneakyThrows
+    void update_WeakIfMatch_ReturnsPreconditionFailed() {
+        mockMvc.perform(
+                put(BASE_URL)
+                    .header(HttpHeaders.IF_MATCH, "W/\"3\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(validUpdateDto()))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        verify(userService, never()).update(any(), any());
+    }
+
+    @Test
+    @SneakyThrows
+    void update_StaleVersion_ReturnsPreconditionFailed() {
+        UserUpdateDto requestDto = validUpdateDto();
+        when(userService.update(requestDto, 2L)).thenThrow(new PreconditionFailedException("stale"));
+
+        mockMvc.perform(
+                put(BASE_URL)
+                    .header(HttpHeaders.IF_MATCH, "\"2\"")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(requestDto))
+            )
+            .andExpect(status().isPreconditionFailed())
+            .andExpect(jsonPath("$.error").value("Precondition Failed"));
+    }
+
+    @Test
+    @SneakyThrows
+    void update_RetriesExhausted_ReturnsConflict() {
+        UserUpdateDto requestDto = validUpdateDto();
+        when(userService.update(requestDto, null)).thenThrow(
+            new ObjectOptimisticLockingFailureException(User.class, UUID.randomUUID())
+        );
+
+        mockMvc.perform(
+                put(BASE_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(requestDto))
+            )
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.error").value("Conflict"));
+    }
+
     @Test
     @SneakyThrows
     void update_InvalidRequest_ReturnsBadRequest() {
@@ -122,7 +302,7 @@ class UserControllerTest {
             LocalDate.of(1990, 1, 1),
             "+79991234567"
         );
-        when(userService.update(requestDto)).thenThrow(new NotFoundException(USER_NOT_FOUND_MSG));
+        when(userService.update(requestDto, null)).thenThrow(new NotFoundException(USER_NOT_FOUND_MSG));
 
         mockMvc.perform(
                 put(BASE_URL)
@@ -152,4 +332,46 @@ class UserControllerTest {
             .andExpect(jsonPath("$.error").value(NOT_FOUND));
     }
 
-}
\ No newline at end of file
+    @Test
+    @SneakyThrows
+    void getUsersByIds_ExistingUsers_StreamsJsonArray() {
+        UUID id = UUID.randomUUID();
+        UserDto user = UserDto.builder().id(id).login("login").build();
+        doAnswer(invocation -> {
+            invocation.<Consumer<UserDto>>getArgument(1).accept(user);
+            return null;
+        }).when(userService).forEachById(eq(Set.of(id)), any());
+
+        MvcResult result = mockMvc.perform(post(BASE_URL + "/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new UserBulkRequestDto(Set.of(id)))))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].id").value(id.toString()));
+    }
+
+    @Test
+    @SneakyThrows
+    void getUsersByIds_EmptyIds_ReturnsBadRequest() {
+        mockMvc.perform(post(BASE_URL + "/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new UserBulkRequestDto(Set.of()))))
+            .andExpect(status().isBadRequest());
+    }
+
+    private static UserUpdateDto validUpdateDto() {
+        return new UserUpdateDto(
+            "Иван",
+            "Иванов",
+            "Иванович",
+            true,
+            LocalDate.of(1990, 1, 1),
+            "+79991234567"
+        );
+    }
+
+}
@@ -0,0 +1,221 @@
+package ru.edalik.electronics.store.user.service.repository;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.edalik.electronics.store.user.service.UserServiceApplication;
+import ru.edalik.electronics.store.user.service.model.dto.UserDto;
+import ru.edalik.electronics.store.user.service.model.dto.UserRevisionDto;
+import ru.edalik.electronics.store.user.service.model.dto.UserSearchCursor;
+import ru.edalik.electronics.store.user.service.model.entity.User;
+
+import java.io.IOException;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserJdbcRepositoryTest {
+
+    static final int USERS = 20000;
+    static final int PAGE_SIZE = 50;
+
+    static EmbeddedPostgres postgres;
+
+    static ConfigurableApplicationContext context;
+
+    static JdbcTemplate jdbcTemplate;
+
+    static UserJdbcRepository userJdbcRepository;
+
+    final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        context = new SpringApplicationBuilder(UserServiceApplication.class)
+            .run(
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--cache.invalidation.enabled=false"
+            );
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        userJdbcRepository = context.getBean(UserJdbcRepository.class);
+
+        jdbcTemplate.update("""
+            INSERT INTO users (id, login, email, phone_number, name, surname, created_time)
+            SELECT gen_random_uuid(), 'user-' || g, 'user-' || g || '@example.com', '+7999' || lpad(g::text, 7, '0'),
+                   'Name' || g, 'Surname' || g, timestamp '2024-01-01' + g * interval '1 second'
+            FROM generate_series(1, ?) g
+            """, USERS);
+        jdbcTemplate.execute("ANALYZE users");
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Test
+    void search_DeepPage_ShouldReadSameRowsAsFirstPage() {
+        UserSearchCursor deepCursor = jdbcTemplate.queryForObject(
+            "SELECT created_time, id FROM users ORDER BY created_time, id OFFSET ? LIMIT 1",
+            (resultSet, rowNum) -> new UserSearchCursor(
+                resultSet.getTimestamp("created_time").toInstant(),
+                resultSet.getObject("id", UUID.class)
+            ),
+            2 * PAGE_SIZE
+        );
+
+        JsonNode firstPage = explain(null, null);
+        JsonNode deepPage = explain(null, deepCursor);
+
+        for (JsonNode plan : List.of(firstPage, deepPage)) {
+            JsonNode scan = findNode(plan, "Index Name", "idx_users_created_time_id");
+            assertThat(scan).isNotNull();
+            assertThat(scan.path("Node Type").asText()).isEqualTo("Index Scan");
+            assertThat(scan.path("Scan Direction").asText()).isEqualTo("Backward");
+            assertThat(scan.path("Actual Rows").asInt()).isEqualTo(PAGE_SIZE + 1);
+            assertThat(findNode(plan, "Node Type", "Sort")).isNull();
+            assertThat(findNode(plan, "Node Type", "Seq Scan", "users")).isNull();
+        }
+    }
+
+    @Test
+    void search_WithQuery_ShouldUseTrigramIndex() {
+        JsonNode plan = explain("user-12345@", null);
+
+        assertThat(findNode(plan, "Index Name", "idx_users_search_trgm")).isNotNull();
+        assertThat(findNode(plan, "Node Type", "Seq Scan", "users")).isNull();
+    }
+
+    @Test
+    void search_ShouldWalkAllPagesWithoutGapsOrDuplicates() {
+        List<UUID> ids = new ArrayList<>();
+        UserSearchCursor cursor = null;
+        List<UserDto> page;
+        do {
+            page = userJdbcRepository.search("user-1999", cursor, 4);
+            page.forEach(user -> ids.add(user.id()));
+            cursor = page.isEmpty() ? null : UserSearchCursor.of(page.get(page.size() - 1));
+        } while (page.size() == 4);
+
+        assertThat(ids).hasSize(11).doesNotHaveDuplicates();
+    }
+
+    @Test
+    void search_ShouldEscapeLikeWildcards() {
+        assertThat(userJdbcRepository.search("user_1%", null, PAGE_SIZE)).isEmpty();
+    }
+
+    @Test
+    void getOrCreate_ShouldInsertOnce_AndReturnStoredRowAfterwards() {
+        UUID id = UUID.randomUUID();
+        ZonedDateTime createdTime = ZonedDateTime.now().truncatedTo(ChronoUnit.MICROS);
+
+        User created = userJdbcRepository.getOrCreate(id, "first-login", "first@example.com", createdTime).orElseThrow();
+        jdbcTemplate.update(
+            "INSERT INTO balance_ledger (user_id, operation, amount, created_time) VALUES (?, 'DEPOSIT', 10, now())",
+            id
+        );
+        User existing = userJdbcRepository.getOrCreate(id, "other-login", null, createdTime.plusDays(1)).orElseThrow();
+
+        assertThat(created.getLogin()).isEqualTo("first-login");
+        assertThat(created.getBalance()).isEqualByComparingTo("0");
+        assertThat(created.getHeldAmount()).isEqualByComparingTo("0");
+        assertThat(created.getVersion()).isZero();
+        assertThat(created.isNew()).isFalse();
+        assertThat(existing.getLogin()).isEqualTo("first-login");
+        assertThat(existing.getEmail()).isEqualTo("first@example.com");
+        assertThat(existing.getCreatedTime().toInstant()).isEqualTo(createdTime.toInstant());
+        assertThat(existing.getBalance()).isEqualByComparingTo("10");
+        assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE id = ?", Long.class, id))
+            .isEqualTo(1L);
+    }
+
+    @Test
+    void findRevisionById_ShouldTrackLedgerChanges_WithoutTouchingVersion() {
+        UUID id = UUID.randomUUID();
+        jdbcTemplate.update(
+            "INSERT INTO users (id, login, created_time) VALUES (?, 'revision', timestamp '2024-01-01')",
+            id
+        );
+
+        UserRevisionDto created = userJdbcRepository.findRevisionById(id).orElseThrow();
+        jdbcTemplate.update("""
+            INSERT INTO balance_ledger (user_id, operation, amount, created_time)
+            VALUES (?, 'DEPOSIT', 10, timestamp '2024-01-02')
+            """, id);
+        UserRevisionDto deposited = userJdbcRepository.findRevisionById(id).orElseThrow();
+
+        assertThat(deposited.version()).isEqualTo(created.version());
+        assertThat(deposited.balance()).isEqualByComparingTo("10");
+        assertThat(deposited.balanceModifiedTime()).isAfter(created.balanceModifiedTime());
+        assertThat(deposited.modifiedTime()).isEqualTo(deposited.balanceModifiedTime());
+        assertThat(deposited.profileModifiedTime()).isEqualTo(created.profileModifiedTime());
+    }
+
+    @Test
+    void findRevisionById_ShouldReturnEmpty_WhenUserNotExists() {
+        assertThat(userJdbcRepository.findRevisionById(UUID.randomUUID())).isEmpty();
+    }
+
+    @Test
+    void findRevisionById_ShouldUsePrimaryKeyLookup() throws IOException {
+        String plan = jdbcTemplate.queryForObject(
+            "EXPLAIN (ANALYZE, FORMAT JSON) " + UserJdbcRepository.SELECT_USER_REVISION,
+            String.class,
+            UUID.randomUUID()
+        );
+
+        assertThat(findNode(objectMapper.readTree(plan).get(0).get("Plan"), "Node Type", "Seq Scan", "users")).isNull();
+    }
+
+    private JsonNode explain(String query, UserSearchCursor after) {
+        UserJdbcRepository.SearchQuery searchQuery = UserJdbcRepository.searchQuery(query, after, PAGE_SIZE + 1);
+        String plan = jdbcTemplate.queryForObject(
+            "EXPLAIN (ANALYZE, FORMAT JSON) " + searchQuery.sql(),
+            String.class,
+            searchQuery.args()
+        );
+
+        try {
+            return objectMapper.readTree(plan).get(0).get("Plan");
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static JsonNode findNode(JsonNode node, String field, String value) {
+        return findNode(node, field, value, null);
+    }
+
+    private static JsonNode findNode(JsonNode node, String field, String value, String relation) {
+        if (value.equals(node.path(field).asText())
+            && (relation == null || relation.equals(node.path("Relation Name").asText()))) {
+            return node;
+        }
+
+        for (JsonNode child : node.path("Plans")) {
+            JsonNode found = findNode(child, field, value, relation);
+            if (found != null) {
+                return found;
+            }
+        }
+
+        return null;
+    }
+
+}
@@ -0,0 +1,149 @@
+package ru.edalik.electronics.store.user.service.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceDto;
+import ru.edalik.electronics.store.user.service.model.entity.BalanceHold;
+import ru.edalik.electronics.store.user.service.model.entity.User;
+import ru.edalik.electronics.store.user.service.model.enums.BalanceHoldStatus;
+import ru.edalik.electronics.store.user.service.model.exception.HoldNotActiveException;
+import ru.edalik.electronics.store.user.service.model.exception.InsufficientFunds;
+import ru.edalik.electronics.store.user.service.repository.BalanceHoldRepository;
+import ru.edalik.electronics.store.user.service.repository.UserRepository;
+import ru.edalik.electronics.store.user.service.service.interfaces.BalanceHoldService;
+import ru.edalik.electronics.store.user.service.service.interfaces.BalanceService;
+import ru.edalik.electronics.store.user.service.service.security.UserContextService;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class BalanceHoldConcurrencyTest {
+
+    static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(100);
+    static final BigDecimal AMOUNT = BigDecimal.valueOf(60);
+    static final int THREADS = 16;
+    static final int HOLDS_PER_THREAD = 20;
+
+    @Autowired
+    BalanceHoldService balanceHoldService;
+
+    @Autowired
+    BalanceService balanceService;
+
+    @Autowired
+    BalanceHoldRepository balanceHoldRepository;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @MockitoBean
+    UserContextService userContextService;
+
+    final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        when(userContextService.getUserGuid()).thenReturn(userId);
+        userRepository.save(
+            User.builder()
+                .id(userId)
+                .login("holds")
+                .balanceSnapshot(INITIAL_BALANCE)
+                .build()
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        balanceHoldRepository.deleteAll(
+            balanceHoldRepository.findAll().stream().filter(hold -> hold.getUserId().equals(userId)).toList()
+        );
+        userRepository.deleteById(userId);
+    }
+
+    @Test
+    void create_ShouldReserveFunds_AndHideThemFromPayments() {
+        balanceHoldService.create(AMOUNT, null);
+
+        assertThat(balance()).isEqualByComparingTo("40");
+        assertThatThrownBy(() -> balanceService.payment(new BalanceDto(AMOUNT)))
+            .isInstanceOf(InsufficientFunds.class);
+        assertThatThrownBy(() -> balanceHoldService.create(AMOUNT, null))
+            .isInstanceOf(InsufficientFunds.class);
+    }
+
+    @Test
+    void capture_ShouldDebitHeldFunds_Once() {
+        BalanceHold hold = balanceHoldService.create(AMOUNT, null);
+
+        balanceHoldService.capture(hold.getId());
+
+        assertThat(balance()).isEqualByComparingTo("40");
+        assertThat(balanceHoldRepository.findById(hold.getId()).orElseThrow().getStatus())
+            .isEqualTo(BalanceHoldStatus.CAPTURED);
+        assertThatThrownBy(() -> balanceHoldService.capture(hold.getId()))
+            .isInstanceOf(HoldNotActiveException.class);
+        assertThatThrownBy(() -> balanceHoldService.release(hold.getId()))
+            .isInstanceOf(HoldNotActiveException.class);
+        assertThat(balance()).isEqualByComparingTo("40");
+    }
+
+    @Test
+    void release_ShouldRestoreAvailableBalance() {
+        BalanceHold hold = balanceHoldService.create(AMOUNT, null);
+
+        balanceHoldService.release(hold.getId());
+
+        assertThat(balance()).isEqualByComparingTo(INITIAL_BALANCE);
+        balanceService.payment(new BalanceDto(INITIAL_BALANCE));
+        assertThat(balance()).isZero();
+    }
+
+    @Test
+    void create_ShouldNeverOverReserve_WhenHoldsRace() throws InterruptedException {
+        AtomicInteger succeeded = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        for (int i = 0; i < THREADS; i++) {
+            executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < HOLDS_PER_THREAD; j++) {
+                    try {
+                        balanceHoldService.create(BigDecimal.ONE, null);
+                        succeeded.incrementAndGet();
+                    } catch (InsufficientFunds e) {
+                        // expected once the balance is fully reserved
+                    }
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(succeeded.get()).isEqualTo(INITIAL_BALANCE.intValue());
+        assertThat(balance()).isZero();
+    }
+
+    private BigDecimal balance() {
+        return userRepository.findById(userId).orElseThrow().getBalance();
+    }
+
+}
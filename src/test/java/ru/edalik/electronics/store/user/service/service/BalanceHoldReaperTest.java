@@ -0,0 +1,112 @@
+package ru.edalik.electronics.store.user.service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.edalik.electronics.store.user.service.config.properties.BalanceHoldProperties;
+import ru.edalik.electronics.store.user.service.model.entity.BalanceHold;
+import ru.edalik.electronics.store.user.service.model.enums.BalanceHoldStatus;
+import ru.edalik.electronics.store.user.service.repository.BalanceHoldRepository;
+import ru.edalik.electronics.store.user.service.repository.UserRepository;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserCacheService;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceHoldReaperTest {
+
+    static final int BATCH_SIZE = 2;
+
+    @Mock
+    BalanceHoldRepository balanceHoldRepository;
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    UserCacheService userCacheService;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    BalanceHoldReaper reaper;
+
+    @BeforeEach
+    void setUp() {
+        reaper = new BalanceHoldReaper(
+            balanceHoldRepository,
+            userRepository,
+            userCacheService,
+            transactionTemplate,
+            new BalanceHoldProperties(Duration.ofMinutes(15), Duration.ofHours(1), true, BATCH_SIZE)
+        );
+    }
+
+    @Test
+    void reapBatch_ShouldExpireHolds_AndReleaseHeldAmountOncePerUser() {
+        UUID userId = UUID.randomUUID();
+        BalanceHold first = hold(userId, "10");
+        BalanceHold second = hold(userId, "5");
+        when(balanceHoldRepository.lockExpired(any(), eq(BATCH_SIZE))).thenReturn(List.of(first, second));
+
+        int expired = reaper.reapBatch();
+
+        assertThat(expired).isEqualTo(2);
+        assertThat(List.of(first, second)).allMatch(hold -> hold.getStatus() == BalanceHoldStatus.EXPIRED);
+        verify(userRepository).releaseHeld(eq(new BigDecimal("15")), eq(userId), any());
+        verify(userCacheService).evict(userId);
+    }
+
+    @Test
+    void reap_ShouldSweepUntilBatchIsNotFull() {
+        when(transactionTemplate.execute(any())).thenAnswer(
+            invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null)
+        );
+        when(balanceHoldRepository.lockExpired(any(), anyInt())).thenReturn(
+            List.of(hold(UUID.randomUUID(), "1"), hold(UUID.randomUUID(), "1")),
+            List.of(hold(UUID.randomUUID(), "1")),
+            List.of()
+        );
+
+        reaper.reap();
+
+        verify(balanceHoldRepository, times(2)).lockExpired(any(), eq(BATCH_SIZE));
+        verify(userRepository, times(3)).releaseHeld(any(), any(), any());
+    }
+
+    @Test
+    void reapBatch_ShouldDoNothing_WhenNoHoldsExpired() {
+        when(balanceHoldRepository.lockExpired(any(), eq(BATCH_SIZE))).thenReturn(List.of());
+
+        assertThat(reaper.reapBatch()).isZero();
+        verify(userRepository, never()).releaseHeld(any(), any(), any());
+    }
+
+    private static BalanceHold hold(UUID userId, String amount) {
+        return BalanceHold.builder()
+            .id(UUID.randomUUID())
+            .userId(userId)
+            .amount(new BigDecimal(amount))
+            .status(BalanceHoldStatus.ACTIVE)
+            .expiresTime(ZonedDateTime.now().minusSeconds(1))
+            .build();
+    }
+
+}
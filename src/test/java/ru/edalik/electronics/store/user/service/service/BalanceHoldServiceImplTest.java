@@ -0,0 +1,187 @@
+package ru.edalik.electronics.store.user.service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.edalik.electronics.store.user.service.config.properties.BalanceHoldProperties;
+import ru.edalik.electronics.store.user.service.model.entity.BalanceHold;
+import ru.edalik.electronics.store.user.service.model.enums.BalanceHoldStatus;
+import ru.edalik.electronics.store.user.service.model.exception.HoldNotActiveException;
+import ru.edalik.electronics.store.user.service.model.exception.InsufficientFunds;
+import ru.edalik.electronics.store.user.service.model.exception.NotFoundException;
+import ru.edalik.electronics.store.user.service.repository.BalanceHoldRepository;
+import ru.edalik.electronics.store.user.service.repository.UserRepository;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserCacheService;
+import ru.edalik.electronics.store.user.service.service.metrics.DatabaseMetrics;
+import ru.edalik.electronics.store.user.service.service.security.UserContextService;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceHoldServiceImplTest {
+
+    static final UUID USER_ID = UUID.randomUUID();
+    static final UUID HOLD_ID = UUID.randomUUID();
+    static final BigDecimal AMOUNT = BigDecimal.valueOf(50.0);
+    static final Duration DEFAULT_TTL = Duration.ofMinutes(15);
+    static final Duration MAX_TTL = Duration.ofHours(1);
+
+    @Mock
+    BalanceHoldRepository balanceHoldRepository;
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    BalanceServiceImpl balanceService;
+
+    @Mock
+    UserContextService userContextService;
+
+    @Mock
+    UserCacheService userCacheService;
+
+    @Mock
+    DatabaseMetrics databaseMetrics;
+
+    BalanceHoldServiceImpl balanceHoldService;
+
+    @BeforeEach
+    void setUp() {
+        balanceHoldService = new BalanceHoldServiceImpl(
+            balanceHoldRepository,
+            userRepository,
+            balanceService,
+            userContextService,
+            userCacheService,
+            new BalanceHoldProperties(DEFAULT_TTL, MAX_TTL, false, 500),
+            databaseMetrics
+        );
+        lenient().when(userContextService.getUserGuid()).thenReturn(USER_ID);
+        lenient().when(balanceHoldRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void create_ShouldReserveFunds_WhenAvailableBalanceIsSufficient() {
+        when(userRepository.hold(eq(AMOUNT), eq(USER_ID), any())).thenReturn(1);
+
+        BalanceHold hold = balanceHoldService.create(AMOUNT, Duration.ofMinutes(5));
+
+        assertEquals(USER_ID, hold.getUserId());
+        assertEquals(AMOUNT, hold.getAmount());
+        assertEquals(BalanceHoldStatus.ACTIVE, hold.getStatus());
+        assertEquals(Duration.ofMinutes(5), Duration.between(hold.getCreatedTime(), hold.getExpiresTime()));
+        verify(userCacheService).evict(USER_ID);
+    }
+
+    @Test
+    void create_ShouldApplyDefaultTtl_WhenTtlIsMissing() {
+        when(userRepository.hold(eq(AMOUNT), eq(USER_ID), any())).thenReturn(1);
+
+        BalanceHold hold = balanceHoldService.create(AMOUNT, null);
+
+        assertEquals(DEFAULT_TTL, Duration.between(hold.getCreatedTime(), hold.getExpiresTime()));
+    }
+
+    @Test
+    void create_ShouldCapTtl_AtMaxTtl() {
+        when(userRepository.hold(eq(AMOUNT), eq(USER_ID), any())).thenReturn(1);
+
+        BalanceHold hold = balanceHoldService.create(AMOUNT, Duration.ofDays(1));
+
+        assertEquals(MAX_TTL, Duration.between(hold.getCreatedTime(), hold.getExpiresTime()));
+    }
+
+    @Test
+    void create_ShouldThrowInsufficientFunds_WhenAvailableBalanceIsLow() {
+        when(userRepository.hold(eq(AMOUNT), eq(USER_ID), any())).thenReturn(0);
+        when(userRepository.existsById(USER_ID)).thenReturn(true);
+
+        assertThrows(InsufficientFunds.class, () -> balanceHoldService.create(AMOUNT, null));
+        verify(balanceHoldRepository, never()).save(any());
+        verify(databaseMetrics, never()).rowCountMismatch(any());
+    }
+
+    @Test
+    void create_ShouldThrowNotFound_WhenUserNotExists() {
+        when(userRepository.hold(eq(AMOUNT), eq(USER_ID), any())).thenReturn(0);
+        when(userRepository.existsById(USER_ID)).thenReturn(false);
+
+        assertThrows(NotFoundException.class, () -> balanceHoldService.create(AMOUNT, null));
+        verify(databaseMetrics).rowCountMismatch(BalanceHoldServiceImpl.HOLD_OPERATION);
+    }
+
+    @Test
+    void capture_ShouldChargeHeldAmount_WhenHoldIsActive() {
+        BalanceHold hold = hold(BalanceHoldStatus.ACTIVE, ZonedDateTime.now().plusMinutes(1));
+        when(balanceHoldRepository.findWithLockByIdAndUserId(HOLD_ID, USER_ID)).thenReturn(Optional.of(hold));
+
+        BalanceHold result = balanceHoldService.capture(HOLD_ID);
+
+        assertEquals(BalanceHoldStatus.CAPTURED, result.getStatus());
+        verify(balanceService).captureHeld(USER_ID, AMOUNT);
+    }
+
+    @Test
+    void capture_ShouldThrowHoldNotActive_WhenHoldWasReleased() {
+        BalanceHold hold = hold(BalanceHoldStatus.RELEASED, ZonedDateTime.now().plusMinutes(1));
+        when(balanceHoldRepository.findWithLockByIdAndUserId(HOLD_ID, USER_ID)).thenReturn(Optional.of(hold));
+
+        assertThrows(HoldNotActiveException.class, () -> balanceHoldService.capture(HOLD_ID));
+        verify(balanceService, never()).captureHeld(any(), any());
+    }
+
+    @Test
+    void capture_ShouldThrowHoldNotActive_WhenHoldExpiredBeforeReaping() {
+        BalanceHold hold = hold(BalanceHoldStatus.ACTIVE, ZonedDateTime.now().minusSeconds(1));
+        when(balanceHoldRepository.findWithLockByIdAndUserId(HOLD_ID, USER_ID)).thenReturn(Optional.of(hold));
+
+        assertThrows(HoldNotActiveException.class, () -> balanceHoldService.capture(HOLD_ID));
+        assertEquals(BalanceHoldStatus.ACTIVE, hold.getStatus());
+    }
+
+    @Test
+    void capture_ShouldThrowNotFound_WhenHoldBelongsToAnotherUser() {
+        when(balanceHoldRepository.findWithLockByIdAndUserId(HOLD_ID, USER_ID)).thenReturn(Optional.empty());
+
+        assertThrows(NotFoundException.class, () -> balanceHoldService.capture(HOLD_ID));
+    }
+
+    @Test
+    void release_ShouldReturnHeldAmount_WhenHoldIsActive() {
+        BalanceHold hold = hold(BalanceHoldStatus.ACTIVE, ZonedDateTime.now().plusMinutes(1));
+        when(balanceHoldRepository.findWithLockByIdAndUserId(HOLD_ID, USER_ID)).thenReturn(Optional.of(hold));
+
+        BalanceHold result = balanceHoldService.release(HOLD_ID);
+
+        assertEquals(BalanceHoldStatus.RELEASED, result.getStatus());
+        verify(userRepository).releaseHeld(eq(AMOUNT), eq(USER_ID), any());
+        verify(userCacheService).evict(USER_ID);
+    }
+
+    private static BalanceHold hold(BalanceHoldStatus status, ZonedDateTime expiresTime) {
+        return BalanceHold.builder()
+            .id(HOLD_ID)
+            .userId(USER_ID)
+            .amount(AMOUNT)
+            .status(status)
+            .expiresTime(expiresTime)
+            .build();
+    }
+
+}
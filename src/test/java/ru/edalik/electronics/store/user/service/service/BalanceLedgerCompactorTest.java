@@ -0,0 +1,91 @@
+package ru.edalik.electronics.store.user.service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.edalik.electronics.store.user.service.config.properties.BalanceLedgerProperties;
+import ru.edalik.electronics.store.user.service.model.entity.User;
+import ru.edalik.electronics.store.user.service.repository.BalanceLedgerRepository;
+import ru.edalik.electronics.store.user.service.repository.UserRepository;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceLedgerCompactorTest {
+
+    static final UUID USER_ID = UUID.randomUUID();
+    static final long POSITION = 10L;
+    static final long LAST_ENTRY_ID = 42L;
+    static final BigDecimal DEPOSITS = BigDecimal.valueOf(250);
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    BalanceLedgerRepository balanceLedgerRepository;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    BalanceLedgerCompactor compactor;
+
+    final User testUser = User.builder().id(USER_ID).ledgerPosition(POSITION).build();
+
+    @BeforeEach
+    void setUp() {
+        lenient().doAnswer(invocation -> {
+            invocation.<Consumer<Object>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+
+        compactor = new BalanceLedgerCompactor(
+            userRepository,
+            balanceLedgerRepository,
+            transactionTemplate,
+            new BalanceLedgerProperties(100, Duration.ofMinutes(1))
+        );
+    }
+
+    @Test
+    void compact_ShouldFoldPendingDepositsIntoSnapshot() {
+        when(balanceLedgerRepository.findUsersWithPendingDeposits(any(ZonedDateTime.class), any(Limit.class))).thenReturn(List.of(USER_ID));
+        when(userRepository.findWithExclusiveLockById(USER_ID)).thenReturn(Optional.of(testUser));
+        when(balanceLedgerRepository.findLastEntryId(eq(USER_ID), eq(POSITION), any(ZonedDateTime.class)))
+            .thenReturn(Optional.of(LAST_ENTRY_ID));
+        when(balanceLedgerRepository.sumDeposits(USER_ID, POSITION, LAST_ENTRY_ID)).thenReturn(DEPOSITS);
+
+        compactor.compact();
+
+        verify(userRepository).applySnapshot(USER_ID, DEPOSITS, LAST_ENTRY_ID);
+    }
+
+    @Test
+    void compact_ShouldSkipUser_WhenUserWasDeleted() {
+        when(balanceLedgerRepository.findUsersWithPendingDeposits(any(ZonedDateTime.class), any(Limit.class))).thenReturn(List.of(USER_ID));
+        when(userRepository.findWithExclusiveLockById(USER_ID)).thenReturn(Optional.empty());
+
+        compactor.compact();
+
+        verify(userRepository, never()).applySnapshot(any(), any(), anyLong());
+    }
+
+}
@@ -0,0 +1,150 @@
+package ru.edalik.electronics.store.user.service.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceDto;
+import ru.edalik.electronics.store.user.service.model.entity.User;
+import ru.edalik.electronics.store.user.service.model.exception.InsufficientFunds;
+import ru.edalik.electronics.store.user.service.repository.UserRepository;
+import ru.edalik.electronics.store.user.service.service.interfaces.BalanceService;
+import ru.edalik.electronics.store.user.service.service.security.UserContextService;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@Slf4j
+@SpringBootTest
+class BalanceServiceConcurrencyTest {
+
+    static final BigDecimal INITIAL_BALANCE = BigDecimal.valueOf(100);
+    static final BalanceDto PAYMENT = new BalanceDto(BigDecimal.ONE);
+    static final int THREADS = 16;
+    static final int PAYMENTS_PER_THREAD = 20;
+
+    @Autowired
+    BalanceService balanceService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    UserContextService userContextService;
+
+    final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        when(userContextService.getUserGuid()).thenReturn(userId);
+        userRepository.save(
+            User.builder()
+                .id(userId)
+                .login("concurrency")
+                .balanceSnapshot(INITIAL_BALANCE)
+                .build()
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(userId);
+    }
+
+    @Test
+    void payment_ShouldNeverOverdraw_WhenPaymentsRace() throws InterruptedException {
+        AtomicInteger succeeded = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        List<Long> latencies = race(() -> {
+            try {
+                balanceService.payment(PAYMENT);
+                succeeded.incrementAndGet();
+            } catch (InsufficientFunds e) {
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertThat(succeeded.get()).isEqualTo(INITIAL_BALANCE.intValue());
+        assertThat(rejected.get()).isEqualTo(THREADS * PAYMENTS_PER_THREAD - INITIAL_BALANCE.intValue());
+        assertThat(userRepository.findById(userId).orElseThrow().getBalance()).isZero();
+
+        log.info("Guarded debit p99: {} us", p99(latencies));
+    }
+
+    @Test
+    void payment_ShouldReportTailLatency_AgainstReadThenUpdatePath() throws InterruptedException {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        List<Long> readThenUpdate = race(() -> transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findById(userId).orElseThrow();
+            if (user.getBalance().compareTo(PAYMENT.amount()) >= 0) {
+                userRepository.payment(PAYMENT.amount(), userId);
+            }
+        }));
+
+        balanceService.deposit(new BalanceDto(INITIAL_BALANCE));
+
+        List<Long> guarded = race(() -> {
+            try {
+                balanceService.payment(PAYMENT);
+            } catch (InsufficientFunds e) {
+                // expected once the balance is drained
+            }
+        });
+
+        log.info("Read-then-update p99: {} us, guarded debit p99: {} us", p99(readThenUpdate), p99(guarded));
+        assertThat(userRepository.findById(userId).orElseThrow().getBalance()).isNotNegative();
+    }
+
+    private static List<Long> race(Runnable payment) throws InterruptedException {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        for (int i = 0; i < THREADS; i++) {
+            executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < PAYMENTS_PER_THREAD; j++) {
+                    long begin = System.nanoTime();
+                    payment.run();
+                    latencies.add(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - begin));
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+        assertThat(latencies).hasSize(THREADS * PAYMENTS_PER_THREAD);
+
+        return latencies;
+    }
+
+    private static long p99(List<Long> latencies) {
+        List<Long> sorted = new ArrayList<>(latencies);
+        Collections.sort(sorted);
+        return sorted.get((int) Math.ceil(sorted.size() * 0.99) - 1);
+    }
+
+}
@@ -3,23 +3,40 @@ package ru.edalik.electronics.store.user.service.service;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import ru.edalik.electronics.store.user.service.model.dto.BalanceDto;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceOperationDto;
+import ru.edalik.electronics.store.user.service.model.dto.BalanceOperationResultDto;
+import ru.edalik.electronics.store.user.service.model.dto.event.BalanceChangedEventDto;
+import ru.edalik.electronics.store.user.service.model.entity.BalanceLedgerEntry;
 import ru.edalik.electronics.store.user.service.model.entity.User;
+import ru.edalik.electronics.store.user.service.model.enums.BalanceOperation;
+import ru.edalik.electronics.store.user.service.model.enums.OutboxEventType;
 import ru.edalik.electronics.store.user.service.model.exception.InsufficientFunds;
 import ru.edalik.electronics.store.user.service.model.exception.NotFoundException;
+import ru.edalik.electronics.store.user.service.repository.BalanceLedgerRepository;
 import ru.edalik.electronics.store.user.service.repository.UserRepository;
+import ru.edalik.electronics.store.user.service.service.interfaces.OutboxService;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserCacheService;
+import ru.edalik.electronics.store.user.service.service.metrics.DatabaseMetrics;
 import ru.edalik.electronics.store.user.service.service.security.UserContextService;
 
 import java.math.BigDecimal;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static ru.edalik.electronics.store.user.service.service.UserServiceImpl.USER_NOT_FOUND_BY_ID;
@@ -34,15 +51,28 @@ class BalanceServiceImplTest {
     @Mock
     UserRepository userRepository;
 
+    @Mock
+    BalanceLedgerRepository balanceLedgerRepository;
+
     @Mock
     UserContextService userContextService;
 
+    @Mock
+    UserCacheService userCacheService;
+
+    @Mock
+    OutboxService outboxService;
+
+    @Mock
+    DatabaseMetrics databaseMetrics;
+
     @InjectMocks
     BalanceServiceImpl balanceService;
 
     User testUser = User.builder()
         .id(USER_ID)
-        .balance(BALANCE)
+        .balanceSnapshot(BALANCE)
+        .ledgerPosition(0L)
         .build();
 
     BalanceDto balanceDto = new BalanceDto(AMOUNT);
@@ -54,7 +84,7 @@ class BalanceServiceImplTest {
 
     @Test
     void getBalance_ShouldReturnBalance_WhenUserExists() {
-        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(testUser));
+        when(userRepository.findBalanceById(USER_ID)).thenReturn(Optional.of(BALANCE));
 
         BigDecimal result = balanceService.getBalance();
 
@@ -63,22 +93,33 @@ class BalanceServiceImplTest {
 
     @Test
     void getBalance_ShouldThrowNotFoundException_WhenUserNotExists() {
-        when(userRepository.findById(USER_ID)).thenReturn(Optional.empty());
+        when(userRepository.findBalanceById(USER_ID)).thenReturn(Optional.empty());
 
         assertThrows(NotFoundException.class, () -> balanceService.getBalance());
     }
 
     @Test
-    void deposit_ShouldUpdateBalance_WhenUserExists() {
-        when(userRepository.deposit(balanceDto.amount(), USER_ID)).thenReturn(1);
+    void deposit_ShouldAppendLedgerEntry_WhenUserExists() {
+        ArgumentCaptor<BalanceLedgerEntry> captor = ArgumentCaptor.forClass(BalanceLedgerEntry.class);
+        when(userRepository.existsById(USER_ID)).thenReturn(true);
+
         balanceService.deposit(balanceDto);
 
-        verify(userRepository).deposit(balanceDto.amount(), USER_ID);
+        verify(balanceLedgerRepository).save(captor.capture());
+        assertEquals(USER_ID, captor.getValue().getUserId());
+        assertEquals(BalanceOperation.DEPOSIT, captor.getValue().getOperation());
+        assertEquals(AMOUNT, captor.getValue().getAmount());
+        verify(outboxService).record(
+            eq(USER_ID),
+            eq(OutboxEventType.BALANCE_DEPOSIT),
+            argThat(payload -> ((BalanceChangedEventDto) payload).amount().equals(AMOUNT))
+        );
+        verify(userCacheService).evict(USER_ID);
     }
 
     @Test
     void deposit_ShouldThrowNotFoundException_WhenUserNotExists() {
-        when(userRepository.deposit(balanceDto.amount(), USER_ID)).thenReturn(0);
+        when(userRepository.existsById(USER_ID)).thenReturn(false);
 
         Exception exception = assertThrows(
             NotFoundException.class,
@@ -86,54 +127,155 @@ class BalanceServiceImplTest {
         );
 
         assertEquals(USER_NOT_FOUND_BY_ID.formatted(USER_ID), exception.getMessage());
+        verify(balanceLedgerRepository, never()).save(any());
+        verify(outboxService, never()).record(any(), any(), any());
+        verify(userCacheService, never()).evict(any());
+    }
+
+    @Test
+    void depositAll_ShouldAppendLedgerEntryPerAmount_AndEvictOnce() {
+        when(userRepository.existsById(USER_ID)).thenReturn(true);
+
+        balanceService.depositAll(USER_ID, List.of(AMOUNT, BALANCE));
+
+        verify(balanceLedgerRepository).saveAll(argThat(entries -> ((List<?>) entries).size() == 2));
+        verify(outboxService, times(2)).record(eq(USER_ID), eq(OutboxEventType.BALANCE_DEPOSIT), any());
+        verify(userCacheService).evict(USER_ID);
     }
 
     @Test
     void payment_ShouldProcessPayment_WhenSufficientFunds() {
-        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(testUser));
         when(userRepository.payment(balanceDto.amount(), USER_ID)).thenReturn(1);
 
+        ArgumentCaptor<BalanceLedgerEntry> captor = ArgumentCaptor.forClass(BalanceLedgerEntry.class);
+
         balanceService.payment(balanceDto);
 
         verify(userRepository).payment(balanceDto.amount(), USER_ID);
+        verify(userRepository, never()).existsById(USER_ID);
+        verify(balanceLedgerRepository).save(captor.capture());
+        assertEquals(BalanceOperation.PAYMENT, captor.getValue().getOperation());
+        assertEquals(AMOUNT.negate(), captor.getValue().getAmount());
+        verify(outboxService).record(
+            eq(USER_ID),
+            eq(OutboxEventType.BALANCE_PAYMENT),
+            argThat(payload -> ((BalanceChangedEventDto) payload).amount().equals(AMOUNT))
+        );
     }
 
     @Test
     void payment_ShouldThrowInsufficientFunds_WhenBalanceTooLow() {
-        User userWithLowBalance = User.builder()
-            .id(USER_ID)
-            .balance(BigDecimal.TEN)
-            .build();
-
-        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(userWithLowBalance));
+        when(userRepository.payment(balanceDto.amount(), USER_ID)).thenReturn(0);
+        when(userRepository.existsById(USER_ID)).thenReturn(true);
 
         assertThrows(
             InsufficientFunds.class,
             () -> balanceService.payment(balanceDto)
         );
+        verify(balanceLedgerRepository, never()).save(any());
+        verify(databaseMetrics, never()).rowCountMismatch(any());
     }
 
     @Test
-    void payment_ShouldThrowNotFoundException_WhenUserNotExistsInFind() {
-        when(userRepository.findById(USER_ID)).thenReturn(Optional.empty());
+    void payment_ShouldThrowNotFoundException_WhenUserNotExists() {
+        when(userRepository.payment(balanceDto.amount(), USER_ID)).thenReturn(0);
+        when(userRepository.existsById(USER_ID)).thenReturn(false);
 
-        assertThrows(
+        Exception exception = assertThrows(
             NotFoundException.class,
             () -> balanceService.payment(balanceDto)
         );
+
+        assertEquals(USER_NOT_FOUND_BY_ID.formatted(USER_ID), exception.getMessage());
+        verify(databaseMetrics).rowCountMismatch(BalanceServiceImpl.PAYMENT_OPERATION);
     }
 
     @Test
-    void payment_ShouldThrowNotFoundException_WhenUserNotExistsInUpdate() {
-        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(testUser));
-        when(userRepository.payment(balanceDto.amount(), USER_ID)).thenReturn(0);
+    void captureHeld_ShouldDebitHeldAmount_AndRecordPayment() {
+        when(userRepository.captureHeld(AMOUNT, USER_ID)).thenReturn(1);
 
-        Exception exception = assertThrows(
-            NotFoundException.class,
-            () -> balanceService.payment(balanceDto)
+        ArgumentCaptor<BalanceLedgerEntry> captor = ArgumentCaptor.forClass(BalanceLedgerEntry.class);
+
+        balanceService.captureHeld(USER_ID, AMOUNT);
+
+        verify(balanceLedgerRepository).save(captor.capture());
+        assertEquals(BalanceOperation.PAYMENT, captor.getValue().getOperation());
+        assertEquals(AMOUNT.negate(), captor.getValue().getAmount());
+        verify(outboxService).record(eq(USER_ID), eq(OutboxEventType.BALANCE_PAYMENT), any());
+        verify(userCacheService).evict(USER_ID);
+    }
+
+    @Test
+    void captureHeld_ShouldThrowNotFoundException_WhenUserNotExists() {
+        when(userRepository.captureHeld(AMOUNT, USER_ID)).thenReturn(0);
+
+        assertThrows(NotFoundException.class, () -> balanceService.captureHeld(USER_ID, AMOUNT));
+        verify(balanceLedgerRepository, never()).save(any());
+    }
+
+    @Test
+    void applyBatch_ShouldReturnRunningBalance_AndDebitOnce() {
+        List<BalanceOperationDto> operations = List.of(
+            new BalanceOperationDto(BalanceOperation.PAYMENT, AMOUNT),
+            new BalanceOperationDto(BalanceOperation.DEPOSIT, AMOUNT),
+            new BalanceOperationDto(BalanceOperation.PAYMENT, BALANCE)
         );
+        when(userRepository.findWithExclusiveLockById(USER_ID)).thenReturn(Optional.of(testUser));
+        when(userRepository.findBalanceById(USER_ID)).thenReturn(Optional.of(BALANCE));
+        when(userRepository.debit(AMOUNT.add(BALANCE), USER_ID)).thenReturn(1);
 
-        assertEquals(USER_NOT_FOUND_BY_ID.formatted(USER_ID), exception.getMessage());
+        List<BalanceOperationResultDto> results = balanceService.applyBatch(operations);
+
+        assertEquals(
+            List.of(BALANCE.subtract(AMOUNT), BALANCE, BigDecimal.ZERO.setScale(1)),
+            results.stream().map(BalanceOperationResultDto::balance).toList()
+        );
+        verify(userRepository).debit(AMOUNT.add(BALANCE), USER_ID);
+        verify(balanceLedgerRepository).saveAll(argThat(entries -> ((List<?>) entries).size() == 3));
+        verify(outboxService, times(2)).record(eq(USER_ID), eq(OutboxEventType.BALANCE_PAYMENT), any());
+        verify(outboxService).record(eq(USER_ID), eq(OutboxEventType.BALANCE_DEPOSIT), any());
+        verify(userCacheService).evict(USER_ID);
+    }
+
+    @Test
+    void applyBatch_ShouldThrowInsufficientFunds_WithoutWriting_WhenAnyPaymentOverdraws() {
+        List<BalanceOperationDto> operations = List.of(
+            new BalanceOperationDto(BalanceOperation.PAYMENT, AMOUNT),
+            new BalanceOperationDto(BalanceOperation.PAYMENT, BALANCE)
+        );
+        when(userRepository.findWithExclusiveLockById(USER_ID)).thenReturn(Optional.of(testUser));
+        when(userRepository.findBalanceById(USER_ID)).thenReturn(Optional.of(BALANCE));
+
+        assertThrows(InsufficientFunds.class, () -> balanceService.applyBatch(operations));
+
+        verify(userRepository, never()).debit(any(), any());
+        verify(balanceLedgerRepository, never()).saveAll(any());
+        verify(outboxService, never()).record(any(), any(), any());
+        verify(userCacheService, never()).evict(any());
+    }
+
+    @Test
+    void applyBatch_ShouldThrowWithoutWriting_WhenDebitUpdatesNoRows() {
+        List<BalanceOperationDto> operations = List.of(new BalanceOperationDto(BalanceOperation.PAYMENT, AMOUNT));
+        when(userRepository.findWithExclusiveLockById(USER_ID)).thenReturn(Optional.of(testUser));
+        when(userRepository.findBalanceById(USER_ID)).thenReturn(Optional.of(BALANCE));
+        when(userRepository.debit(AMOUNT, USER_ID)).thenReturn(0);
+
+        assertThrows(NotFoundException.class, () -> balanceService.applyBatch(operations));
+
+        verify(databaseMetrics).rowCountMismatch(BalanceServiceImpl.DEBIT_OPERATION);
+        verify(balanceLedgerRepository, never()).saveAll(any());
+        verify(outboxService, never()).record(any(), any(), any());
+        verify(userCacheService, never()).evict(any());
+    }
+
+    @Test
+    void applyBatch_ShouldThrowNotFoundException_WhenUserNotExists() {
+        when(userRepository.findWithExclusiveLockById(USER_ID)).thenReturn(Optional.empty());
+
+        List<BalanceOperationDto> operations = List.of(new BalanceOperationDto(BalanceOperation.DEPOSIT, AMOUNT));
+
+        assertThrows(NotFoundException.class, () -> balanceService.applyBatch(operations));
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,139 @@
+package ru.edalik.electronics.store.user.service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.edalik.electronics.store.user.service.config.properties.IdempotencyProperties;
+import ru.edalik.electronics.store.user.service.model.entity.IdempotencyKey;
+import ru.edalik.electronics.store.user.service.model.entity.IdempotencyKeyId;
+import ru.edalik.electronics.store.user.service.model.enums.BalanceOperation;
+import ru.edalik.electronics.store.user.service.model.exception.IdempotencyKeyReusedException;
+import ru.edalik.electronics.store.user.service.repository.IdempotencyKeyRepository;
+import ru.edalik.electronics.store.user.service.service.security.UserContextService;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceImplTest {
+
+    static final UUID USER_ID = UUID.randomUUID();
+    static final String KEY = "order-42";
+    static final BigDecimal AMOUNT = BigDecimal.TEN;
+    static final IdempotencyKeyId KEY_ID = new IdempotencyKeyId(USER_ID, KEY);
+
+    @Mock
+    IdempotencyKeyRepository idempotencyKeyRepository;
+
+    @Mock
+    UserContextService userContextService;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    AtomicInteger executions = new AtomicInteger();
+
+    IdempotencyServiceImpl idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(userContextService.getUserGuid()).thenReturn(USER_ID);
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(
+            invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null)
+        );
+
+        idempotencyService = new IdempotencyServiceImpl(
+            idempotencyKeyRepository,
+            userContextService,
+            transactionTemplate,
+            new IdempotencyProperties(100, Duration.ofMinutes(1), Duration.ofHours(1)),
+            meterRegistry
+        );
+    }
+
+    @Test
+    void execute_ShouldRunActionWithoutClaim_WhenKeyIsAbsent() {
+        idempotencyService.execute(null, BalanceOperation.DEPOSIT, AMOUNT, executions::incrementAndGet);
+
+        assertEquals(1, executions.get());
+        verifyNoInteractions(idempotencyKeyRepository);
+    }
+
+    @Test
+    void execute_ShouldRunActionOnce_WhenKeyIsRetried() {
+        when(idempotencyKeyRepository.claim(USER_ID, KEY, BalanceOperation.DEPOSIT.name(), AMOUNT)).thenReturn(1);
+
+        idempotencyService.execute(KEY, BalanceOperation.DEPOSIT, AMOUNT, executions::incrementAndGet);
+        idempotencyService.execute(KEY, BalanceOperation.DEPOSIT, AMOUNT, executions::incrementAndGet);
+
+        assertEquals(1, executions.get());
+        verify(idempotencyKeyRepository, times(1)).claim(USER_ID, KEY, BalanceOperation.DEPOSIT.name(), AMOUNT);
+        assertEquals(1.0, meterRegistry.counter("idempotency.replays", "source", "cache").count());
+    }
+
+    @Test
+    void execute_ShouldReplayFromDatabase_WhenKeyWasClaimedElsewhere() {
+        when(idempotencyKeyRepository.claim(USER_ID, KEY, BalanceOperation.PAYMENT.name(), AMOUNT)).thenReturn(0);
+        when(idempotencyKeyRepository.findById(KEY_ID)).thenReturn(Optional.of(storedKey(BalanceOperation.PAYMENT)));
+
+        idempotencyService.execute(KEY, BalanceOperation.PAYMENT, AMOUNT, executions::incrementAndGet);
+
+        assertEquals(0, executions.get());
+        assertEquals(1.0, meterRegistry.counter("idempotency.replays", "source", "database").count());
+    }
+
+    @Test
+    void execute_ShouldThrowIdempotencyKeyReused_WhenOperationDiffers() {
+        when(idempotencyKeyRepository.claim(USER_ID, KEY, BalanceOperation.PAYMENT.name(), AMOUNT)).thenReturn(0);
+        when(idempotencyKeyRepository.findById(KEY_ID)).thenReturn(Optional.of(storedKey(BalanceOperation.DEPOSIT)));
+
+        assertThrows(
+            IdempotencyKeyReusedException.class,
+            () -> idempotencyService.execute(KEY, BalanceOperation.PAYMENT, AMOUNT, executions::incrementAndGet)
+        );
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void execute_ShouldNotRememberKey_WhenActionFails() {
+        when(idempotencyKeyRepository.claim(USER_ID, KEY, BalanceOperation.PAYMENT.name(), AMOUNT)).thenReturn(1);
+
+        assertThrows(
+            IllegalStateException.class,
+            () -> idempotencyService.execute(KEY, BalanceOperation.PAYMENT, AMOUNT, () -> {
+                throw new IllegalStateException();
+            })
+        );
+        idempotencyService.execute(KEY, BalanceOperation.PAYMENT, AMOUNT, executions::incrementAndGet);
+
+        assertEquals(1, executions.get());
+    }
+
+    private static IdempotencyKey storedKey(BalanceOperation operation) {
+        return IdempotencyKey.builder()
+            .id(KEY_ID)
+            .operation(operation)
+            .amount(AMOUNT)
+            .build();
+    }
+
+}
@@ -0,0 +1,143 @@
+package ru.edalik.electronics.store.user.service.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.edalik.electronics.store.user.service.config.CacheConfig;
+import ru.edalik.electronics.store.user.service.config.properties.UserCacheProperties;
+import ru.edalik.electronics.store.user.service.model.dto.UserDto;
+import ru.edalik.electronics.store.user.service.service.cache.LocalUserCacheInvalidationBus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserCacheServiceImplTest {
+
+    static final UUID USER_ID = UUID.randomUUID();
+
+    final UserCacheServiceImpl userCacheService = new UserCacheServiceImpl(
+        new CacheConfig().cacheManager(new UserCacheProperties(100, Duration.ofMinutes(1))),
+        new LocalUserCacheInvalidationBus()
+    );
+
+    final AtomicInteger loads = new AtomicInteger();
+
+    final Supplier<UserDto> loader = () -> {
+        loads.incrementAndGet();
+        return UserDto.builder().id(USER_ID).build();
+    };
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void get_ShouldLoadOnce_WhenCalledRepeatedly() {
+        userCacheService.get(USER_ID, loader);
+        userCacheService.get(USER_ID, loader);
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void evict_ShouldForceReload() {
+        userCacheService.get(USER_ID, loader);
+        userCacheService.evict(USER_ID);
+        userCacheService.get(USER_ID, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void evictAll_ShouldForceReloadOfEachId() {
+        UUID otherId = UUID.randomUUID();
+        userCacheService.get(USER_ID, loader);
+        userCacheService.get(otherId, loader);
+
+        userCacheService.evictAll(List.of(USER_ID, otherId));
+        userCacheService.get(USER_ID, loader);
+        userCacheService.get(otherId, loader);
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void evict_ShouldBeDeferredUntilCommit_WhenTransactionIsActive() {
+        userCacheService.get(USER_ID, loader);
+        TransactionSynchronizationManager.initSynchronization();
+
+        userCacheService.evict(USER_ID);
+        userCacheService.get(USER_ID, loader);
+        assertEquals(1, loads.get());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        userCacheService.get(USER_ID, loader);
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_ShouldShareInFlightLoad_WhenCalledConcurrently() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        UserDto loaded = UserDto.builder().id(USER_ID).build();
+
+        CompletableFuture<UserDto> first = CompletableFuture.supplyAsync(() -> userCacheService.get(USER_ID, () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return loaded;
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<UserDto> second = CompletableFuture.supplyAsync(() -> userCacheService.get(USER_ID, loader));
+        release.countDown();
+
+        assertSame(loaded, first.get(5, TimeUnit.SECONDS));
+        assertSame(loaded, second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_ShouldNotCacheLoad_WhenEvictedWhileLoading() {
+        userCacheService.get(USER_ID, () -> {
+            userCacheService.evict(USER_ID);
+            return loader.get();
+        });
+        userCacheService.get(USER_ID, loader);
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void get_ShouldNotCacheFailure() {
+        assertThrows(IllegalStateException.class, () -> userCacheService.get(USER_ID, () -> {
+            throw new IllegalStateException("Database is down");
+        }));
+        userCacheService.get(USER_ID, loader);
+
+        assertEquals(1, loads.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
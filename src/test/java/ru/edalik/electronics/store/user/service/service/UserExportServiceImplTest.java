@@ -0,0 +1,67 @@
+package ru.edalik.electronics.store.user.service.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.edalik.electronics.store.user.service.config.properties.UserExportProperties;
+import ru.edalik.electronics.store.user.service.model.dto.UserDto;
+import ru.edalik.electronics.store.user.service.repository.UserJdbcRepository;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class UserExportServiceImplTest {
+
+    static final int FETCH_SIZE = 500;
+
+    @Mock
+    UserJdbcRepository userJdbcRepository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    UserExportServiceImpl userExportService;
+
+    @BeforeEach
+    void setUp() {
+        userExportService = new UserExportServiceImpl(
+            userJdbcRepository,
+            new UserExportProperties(FETCH_SIZE),
+            transactionManager
+        );
+    }
+
+    @Test
+    void export_ShouldStreamRowsInReadOnlyTransaction() {
+        ZonedDateTime updatedSince = ZonedDateTime.now();
+        UserDto user = UserDto.builder().login("login").build();
+        doAnswer(invocation -> {
+            Consumer<UserDto> action = invocation.getArgument(2);
+            action.accept(user);
+            action.accept(user);
+            return null;
+        }).when(userJdbcRepository).findAllModifiedSince(eq(updatedSince), eq(FETCH_SIZE), any());
+
+        List<UserDto> exported = new ArrayList<>();
+        long count = userExportService.export(updatedSince, exported::add);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(exported).containsExactly(user, user);
+        verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly()));
+        verify(transactionManager).commit(any());
+    }
+
+}
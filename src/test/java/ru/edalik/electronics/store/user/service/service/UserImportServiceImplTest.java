@@ -0,0 +1,187 @@
+package ru.edalik.electronics.store.user.service.service;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.edalik.electronics.store.user.service.UserServiceApplication;
+import ru.edalik.electronics.store.user.service.model.entity.User;
+import ru.edalik.electronics.store.user.service.model.entity.UserImportJob;
+import ru.edalik.electronics.store.user.service.model.enums.UserImportFormat;
+import ru.edalik.electronics.store.user.service.model.enums.UserImportStatus;
+import ru.edalik.electronics.store.user.service.model.exception.ImportJobConflictException;
+import ru.edalik.electronics.store.user.service.model.exception.InvalidImportFileException;
+import ru.edalik.electronics.store.user.service.repository.UserImportJobRepository;
+import ru.edalik.electronics.store.user.service.repository.UserRepository;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class UserImportServiceImplTest {
+
+    static final int CHUNK_SIZE = 3;
+    static final long TIMEOUT_MILLIS = 30_000;
+
+    @TempDir
+    static Path directory;
+
+    static EmbeddedPostgres postgres;
+
+    static ConfigurableApplicationContext context;
+
+    static UserImportServiceImpl userImportService;
+
+    static UserImportJobRepository userImportJobRepository;
+
+    static UserRepository userRepository;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        context = new SpringApplicationBuilder(UserServiceApplication.class)
+            .run(
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--cache.invalidation.enabled=false",
+                "--outbox.relay-enabled=false",
+                "--import.users.directory=" + directory,
+                "--import.users.chunk-size=" + CHUNK_SIZE
+            );
+        userImportService = context.getBean(UserImportServiceImpl.class);
+        userImportJobRepository = context.getBean(UserImportJobRepository.class);
+        userRepository = context.getBean(UserRepository.class);
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Test
+    void start_Ndjson_ShouldInsertNewFillBlanksAndRejectInvalidRows() throws Exception {
+        User existing = userRepository.save(
+            User.builder().id(UUID.randomUUID()).login("existing-ndjson").surname("").build()
+        );
+        User complete = userRepository.save(
+            User.builder().id(UUID.randomUUID()).login("complete-ndjson").name("Петр").build()
+        );
+        UUID created = UUID.randomUUID();
+        Files.write(directory.resolve("users.ndjson"), List.of(
+            "{\"id\":\"%s\",\"login\":\"created-ndjson\",\"name\":\"Иван\"}".formatted(created),
+            ("{\"id\":\"%s\",\"login\":\"existing-ndjson\",\"name\":\"Анна\",\"surname\":\"Смирнова\","
+                + "\"birthdate\":\"1990.01.02\"}").formatted(existing.getId()),
+            "{\"id\":\"%s\",\"login\":\"complete-ndjson\",\"name\":\"Павел\"}".formatted(complete.getId()),
+            "",
+            "{\"id\":\"%s\"}".formatted(UUID.randomUUID()),
+            "{\"id\":\"%s\",\"login\":\"phone-ndjson\",\"phoneNumber\":\"123\"}".formatted(UUID.randomUUID()),
+            "{broken",
+            "{\"id\":\"%s\",\"login\":\"created-ndjson\",\"name\":\"Иван\",\"surname\":\"Иванов\"}".formatted(created),
+            "{\"id\":\"%s\",\"login\":\"complete-ndjson\"}".formatted(UUID.randomUUID())
+        ));
+
+        UserImportJob job = awaitFinished(userImportService.start("users.ndjson", UserImportFormat.NDJSON).getId());
+
+        assertThat(job.getStatus()).isEqualTo(UserImportStatus.COMPLETED);
+        assertThat(job.getProcessedRows()).isEqualTo(9);
+        assertThat(job.getRejectedRows()).isEqualTo(3);
+        assertThat(job.getImportedRows()).isEqualTo(3);
+        assertThat(job.getSkippedRows()).isEqualTo(2);
+        assertThat(job.getFinishedTime()).isNotNull();
+
+        User createdUser = userRepository.findById(created).orElseThrow();
+        assertThat(createdUser.getName()).isEqualTo("Иван");
+        assertThat(createdUser.getSurname()).isEqualTo("Иванов");
+        User existingUser = userRepository.findById(existing.getId()).orElseThrow();
+        assertThat(existingUser.getName()).isEqualTo("Анна");
+        assertThat(existingUser.getSurname()).isEqualTo("Смирнова");
+        assertThat(existingUser.getBirthdate()).isEqualTo(LocalDate.of(1990, 1, 2));
+        assertThat(userRepository.findById(complete.getId()).orElseThrow().getName()).isEqualTo("Петр");
+    }
+
+    @Test
+    void start_Csv_ShouldImportByHeader() throws Exception {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        Files.write(directory.resolve("users.csv"), List.of(
+            "login,id,surname,gender,phoneNumber",
+            "created-csv-1,%s,\"Петров, мл.\",true,+79991234567".formatted(first),
+            "created-csv-2,%s,,,".formatted(second)
+        ));
+
+        UserImportJob job = awaitFinished(userImportService.start("users.csv", UserImportFormat.CSV).getId());
+
+        assertThat(job.getStatus()).isEqualTo(UserImportStatus.COMPLETED);
+        assertThat(job.getImportedRows()).isEqualTo(2);
+        User firstUser = userRepository.findById(first).orElseThrow();
+        assertThat(firstUser.getSurname()).isEqualTo("Петров, мл.");
+        assertThat(firstUser.getGender()).isTrue();
+        assertThat(firstUser.getPhoneNumber()).isEqualTo("+79991234567");
+        assertThat(userRepository.findById(second).orElseThrow().getSurname()).isNull();
+    }
+
+    @Test
+    void run_ShouldResumeAfterLastCheckpoint() throws Exception {
+        List<UUID> ids = new ArrayList<>();
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < CHUNK_SIZE * 3; i++) {
+            UUID id = UUID.randomUUID();
+            ids.add(id);
+            lines.add("{\"id\":\"%s\",\"login\":\"resumed-%d\"}".formatted(id, i));
+        }
+        Files.write(directory.resolve("resumed.ndjson"), lines);
+        UserImportJob interrupted = userImportJobRepository.save(
+            UserImportJob.builder()
+                .fileName("resumed.ndjson")
+                .format(UserImportFormat.NDJSON)
+                .status(UserImportStatus.FAILED)
+                .processedRows(CHUNK_SIZE)
+                .importedRows(CHUNK_SIZE)
+                .build()
+        );
+
+        UserImportJob job = awaitFinished(userImportService.resume(interrupted.getId()).getId());
+
+        assertThat(job.getStatus()).isEqualTo(UserImportStatus.COMPLETED);
+        assertThat(job.getError()).isNull();
+        assertThat(job.getProcessedRows()).isEqualTo(CHUNK_SIZE * 3);
+        assertThat(job.getImportedRows()).isEqualTo(CHUNK_SIZE * 3);
+        assertThat(userRepository.findAllById(ids.subList(0, CHUNK_SIZE))).isEmpty();
+        assertThat(userRepository.findAllById(ids.subList(CHUNK_SIZE, ids.size()))).hasSize(CHUNK_SIZE * 2);
+        assertThatThrownBy(() -> userImportService.resume(job.getId()))
+            .isInstanceOf(ImportJobConflictException.class);
+    }
+
+    @Test
+    void start_FileOutsideDirectory_ShouldThrow() {
+        assertThatThrownBy(() -> userImportService.start("../users.csv", UserImportFormat.CSV))
+            .isInstanceOf(InvalidImportFileException.class);
+        assertThatThrownBy(() -> userImportService.start("missing.csv", UserImportFormat.CSV))
+            .isInstanceOf(InvalidImportFileException.class);
+    }
+
+    private static UserImportJob awaitFinished(UUID id) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        UserImportJob job = userImportService.get(id);
+        while (job.getStatus() == UserImportStatus.RUNNING && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            job = userImportService.get(id);
+        }
+
+        return job;
+    }
+
+}
@@ -0,0 +1,72 @@
+package ru.edalik.electronics.store.user.service.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.edalik.electronics.store.user.service.model.dto.UserDto;
+import ru.edalik.electronics.store.user.service.model.dto.UserPageDto;
+import ru.edalik.electronics.store.user.service.model.dto.UserSearchCursor;
+import ru.edalik.electronics.store.user.service.model.exception.InvalidCursorException;
+import ru.edalik.electronics.store.user.service.repository.UserJdbcRepository;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserSearchServiceImplTest {
+
+    @Mock
+    UserJdbcRepository userJdbcRepository;
+
+    @InjectMocks
+    UserSearchServiceImpl userSearchService;
+
+    @Test
+    void search_MoreRowsThanLimit_ShouldReturnNextCursor() {
+        List<UserDto> users = List.of(user(), user(), user());
+        when(userJdbcRepository.search(eq("ivan"), isNull(), eq(3))).thenReturn(users);
+
+        UserPageDto page = userSearchService.search("  ivan ", null, 2);
+
+        assertThat(page.items()).containsExactly(users.get(0), users.get(1));
+        assertThat(UserSearchCursor.decode(page.nextCursor())).isEqualTo(UserSearchCursor.of(users.get(1)));
+    }
+
+    @Test
+    void search_LastPage_ShouldNotReturnNextCursor() {
+        UserSearchCursor cursor = UserSearchCursor.of(user());
+        List<UserDto> users = List.of(user());
+        when(userJdbcRepository.search(isNull(), eq(cursor), eq(3))).thenReturn(users);
+
+        UserPageDto page = userSearchService.search(" ", cursor.encode(), 2);
+
+        assertThat(page.items()).containsExactly(users.get(0));
+        assertThat(page.nextCursor()).isNull();
+    }
+
+    @Test
+    void search_InvalidCursor_ShouldThrow() {
+        assertThatThrownBy(() -> userSearchService.search(null, "not-a-cursor", 2))
+            .isInstanceOf(InvalidCursorException.class);
+
+        verifyNoInteractions(userJdbcRepository);
+    }
+
+    private static UserDto user() {
+        return UserDto.builder()
+            .id(UUID.randomUUID())
+            .createdTime(ZonedDateTime.now())
+            .build();
+    }
+
+}
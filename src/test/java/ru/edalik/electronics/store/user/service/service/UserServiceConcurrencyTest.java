@@ -0,0 +1,112 @@
+package ru.edalik.electronics.store.user.service.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import ru.edalik.electronics.store.user.service.model.dto.UserUpdateDto;
+import ru.edalik.electronics.store.user.service.model.entity.User;
+import ru.edalik.electronics.store.user.service.model.exception.PreconditionFailedException;
+import ru.edalik.electronics.store.user.service.repository.UserRepository;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserService;
+import ru.edalik.electronics.store.user.service.service.security.UserContextService;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "optimistic-lock.max-attempts=100")
+class UserServiceConcurrencyTest {
+
+    static final int THREADS = 8;
+    static final int UPDATES_PER_THREAD = 10;
+
+    @Autowired
+    UserService userService;
+
+    @Autowired
+    UserRepository userRepository;
+
+    @MockitoBean
+    UserContextService userContextService;
+
+    final UUID userId = UUID.randomUUID();
+
+    @BeforeEach
+    void setUp() {
+        when(userContextService.getUserGuid()).thenReturn(userId);
+        userRepository.save(
+            User.builder()
+                .id(userId)
+                .login("optimistic")
+                .build()
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(userId);
+    }
+
+    @Test
+    void update_ShouldRejectStaleWrite_InsteadOfOverwriting() {
+        User stale = userRepository.findById(userId).orElseThrow();
+        userService.update(update("concurrent"), null);
+        stale.setSurname("stale");
+
+        assertThatThrownBy(() -> userRepository.saveAndFlush(stale))
+            .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        User user = userRepository.findById(userId).orElseThrow();
+        assertThat(user.getName()).isEqualTo("concurrent");
+        assertThat(user.getSurname()).isNull();
+    }
+
+    @Test
+    void update_ShouldRejectStaleIfMatch() {
+        long version = userService.update(update("first"), 0L).getVersion();
+
+        assertThat(version).isEqualTo(1L);
+        assertThatThrownBy(() -> userService.update(update("second"), 0L))
+            .isInstanceOf(PreconditionFailedException.class);
+        assertThat(userRepository.findById(userId).orElseThrow().getName()).isEqualTo("first");
+    }
+
+    @Test
+    void update_ShouldApplyEveryUpdateExactlyOnce_WhenUpdatesRace() throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+        for (int i = 0; i < THREADS; i++) {
+            int thread = i;
+            executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < UPDATES_PER_THREAD; j++) {
+                    userService.update(update("name-" + thread + "-" + j), null);
+                }
+                return null;
+            });
+        }
+
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+        assertThat(userRepository.findById(userId).orElseThrow().getVersion())
+            .isEqualTo((long) THREADS * UPDATES_PER_THREAD);
+    }
+
+    private static UserUpdateDto update(String name) {
+        return new UserUpdateDto(name, null, null, null, null, null);
+    }
+
+}
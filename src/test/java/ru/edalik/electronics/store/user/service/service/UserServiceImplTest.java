@@ -1,32 +1,59 @@
 package ru.edalik.electronics.store.user.service.service;
 
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import ru.edalik.electronics.store.user.service.mapper.UserMapper;
+import ru.edalik.electronics.store.user.service.model.dto.UserDto;
 import ru.edalik.electronics.store.user.service.model.dto.UserUpdateDto;
+import ru.edalik.electronics.store.user.service.model.dto.event.UserDeletedEventDto;
 import ru.edalik.electronics.store.user.service.model.entity.User;
+import ru.edalik.electronics.store.user.service.model.enums.OutboxEventType;
 import ru.edalik.electronics.store.user.service.model.exception.NotFoundException;
+import ru.edalik.electronics.store.user.service.model.exception.PreconditionFailedException;
+import ru.edalik.electronics.store.user.service.repository.UserJdbcRepository;
 import ru.edalik.electronics.store.user.service.repository.UserRepository;
+import ru.edalik.electronics.store.user.service.service.interfaces.OutboxService;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserCacheService;
+import ru.edalik.electronics.store.user.service.service.metrics.DatabaseMetrics;
+import ru.edalik.electronics.store.user.service.service.retry.OptimisticLockRetry;
 import ru.edalik.electronics.store.user.service.service.security.UserContextService;
+import ru.edalik.electronics.store.user.service.service.security.UserPrincipal;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
-import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
-import static org.mockito.Mockito.doReturn;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static ru.edalik.electronics.store.user.service.config.metrics.OperationOutcomeObservationFilter.OPERATION_TAG;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceImplTest {
@@ -34,44 +61,127 @@ class UserServiceImplTest {
     static final UUID USER_ID = UUID.randomUUID();
     static final String LOGIN = "login";
     static final String EMAIL = "email";
+    static final Long VERSION = 3L;
 
     @Mock
     UserRepository userRepository;
 
+    @Mock
+    UserJdbcRepository userJdbcRepository;
+
     @Mock
     UserMapper userMapper;
 
     @Mock
     UserContextService userContextService;
 
+    @Mock
+    UserCacheService userCacheService;
+
+    @Mock
+    OutboxService outboxService;
+
+    @Mock
+    OptimisticLockRetry optimisticLockRetry;
+
+    @Mock
+    DatabaseMetrics databaseMetrics;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    @Spy
+    ObservationRegistry observationRegistry = ObservationRegistry.create();
+
+    final List<String> observedOperations = new ArrayList<>();
+
     @Spy
     @InjectMocks
     UserServiceImpl userService;
 
-    final User testUser = User.builder().id(USER_ID).login(LOGIN).email(EMAIL).build();
+    final User testUser = User.builder().id(USER_ID).login(LOGIN).email(EMAIL).version(VERSION).build();
 
     final UserUpdateDto updateDto = mock(UserUpdateDto.class);
 
     @BeforeEach
     void setUp() {
+        observationRegistry.observationConfig().observationHandler(new ObservationHandler<>() {
+            @Override
+            public void onStart(Observation.Context context) {
+                observedOperations.add(context.getLowCardinalityKeyValue(OPERATION_TAG).getValue());
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return true;
+            }
+        });
         lenient().when(userContextService.getUserGuid()).thenReturn(USER_ID);
-        lenient().when(userContextService.getPreferredUserName()).thenReturn(LOGIN);
-        lenient().when(userContextService.getEmail()).thenReturn(EMAIL);
+        lenient().when(userContextService.getUser()).thenReturn(new UserPrincipal(USER_ID, LOGIN, EMAIL));
+        lenient().when(optimisticLockRetry.execute(eq(UserServiceImpl.UPDATE_OPERATION), any())).thenAnswer(
+            invocation -> invocation.<Supplier<User>>getArgument(1).get()
+        );
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(
+            invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null)
+        );
     }
 
     @Test
-    void getOrCreate_ShouldReturnUser_WhenUserExists() {
+    void getProfile_ShouldLoadThroughCache_WhenCacheMisses() {
+        UserDto expectedDto = UserDto.builder().id(USER_ID).build();
+        when(userCacheService.get(eq(USER_ID), any())).thenAnswer(
+            invocation -> invocation.<Supplier<UserDto>>getArgument(1).get()
+        );
+        when(userJdbcRepository.getOrCreate(eq(USER_ID), eq(LOGIN), eq(EMAIL), any())).thenReturn(Optional.of(testUser));
+        when(userMapper.toDto(testUser)).thenReturn(expectedDto);
+
+        UserDto result = userService.getProfile();
+
+        assertEquals(expectedDto, result);
+        assertEquals(List.of(UserServiceImpl.GET_OR_CREATE_OPERATION), observedOperations);
+    }
+
+    @Test
+    void getProfile_ShouldReadExistingUserWithoutInsert_WhenCacheMisses() {
+        UserDto expectedDto = UserDto.builder().id(USER_ID).build();
+        when(userCacheService.get(eq(USER_ID), any())).thenAnswer(
+            invocation -> invocation.<Supplier<UserDto>>getArgument(1).get()
+        );
         when(userRepository.findById(USER_ID)).thenReturn(Optional.of(testUser));
+        when(userMapper.toDto(testUser)).thenReturn(expectedDto);
+
+        UserDto result = userService.getProfile();
+
+        assertEquals(expectedDto, result);
+        verify(userJdbcRepository, never()).getOrCreate(any(), any(), any(), any());
+    }
+
+    @Test
+    void getProfile_ShouldNotQueryRepository_WhenCacheHits() {
+        UserDto cachedDto = UserDto.builder().id(USER_ID).build();
+        when(userCacheService.get(eq(USER_ID), any())).thenReturn(cachedDto);
+
+        UserDto result = userService.getProfile();
+
+        assertEquals(cachedDto, result);
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void getOrCreate_ShouldReturnUser_FromSingleStatement() {
+        when(userJdbcRepository.getOrCreate(eq(USER_ID), eq(LOGIN), eq(EMAIL), any())).thenReturn(Optional.of(testUser));
 
         User result = userService.getOrCreate();
 
         assertEquals(testUser, result);
+        verify(userRepository, never()).findById(any());
+        verify(userRepository, never()).insertIfAbsent(any(), any(), any(), any());
     }
 
     @Test
-    void getOrCreate_ShouldRegister_WhenUserNotExists() {
-        when(userRepository.findById(USER_ID)).thenReturn(Optional.empty());
-        doReturn(testUser).when(userService).register();
+    void getOrCreate_ShouldReadUser_WhenConcurrentInsertWasNotVisible() {
+        when(userJdbcRepository.getOrCreate(eq(USER_ID), eq(LOGIN), eq(EMAIL), any())).thenReturn(Optional.empty());
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(testUser));
 
         User result = userService.getOrCreate();
 
@@ -79,34 +189,75 @@ class UserServiceImplTest {
     }
 
     @Test
-    void register_ShouldSaveNewUser() {
-        ArgumentCaptor<User> captor = ArgumentCaptor.forClass(User.class);
-        when(userRepository.save(captor.capture())).thenReturn(testUser);
+    void register_ShouldInsertNewUser_WithoutReadingItBack() {
+        when(userRepository.insertIfAbsent(eq(USER_ID), eq(LOGIN), eq(EMAIL), any())).thenReturn(1);
+
+        User result = userService.register();
+
+        assertEquals(USER_ID, result.getId());
+        assertEquals(LOGIN, result.getLogin());
+        assertEquals(EMAIL, result.getEmail());
+        assertEquals(BigDecimal.ZERO, result.getBalance());
+        assertEquals(BigDecimal.ZERO, result.getHeldAmount());
+        assertEquals(0L, result.getVersion());
+        assertFalse(result.isNew());
+        verify(userRepository, never()).findById(any());
+        verify(userRepository, never()).save(any());
+    }
+
+    @Test
+    void register_ShouldReturnExistingUser_WhenConcurrentRequestWon() {
+        when(userRepository.insertIfAbsent(eq(USER_ID), eq(LOGIN), eq(EMAIL), any())).thenReturn(0);
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(testUser));
 
         User result = userService.register();
 
-        User capturedUser = captor.getValue();
         assertEquals(testUser, result);
-        assertThat(capturedUser).usingRecursiveComparison().isEqualTo(testUser);
     }
 
     @Test
     void update_ShouldUpdateUser_WhenUserExists() {
         User updatedUser = mock(User.class);
+        UserDto updatedDto = UserDto.builder().id(USER_ID).build();
         when(userRepository.findById(USER_ID)).thenReturn(Optional.of(testUser));
         when(userMapper.partialUpdate(updateDto, testUser)).thenReturn(updatedUser);
-        when(userRepository.save(updatedUser)).thenReturn(updatedUser);
+        when(userRepository.saveAndFlush(updatedUser)).thenReturn(updatedUser);
+        when(userMapper.toDto(updatedUser)).thenReturn(updatedDto);
 
-        User result = userService.update(updateDto);
+        User result = userService.update(updateDto, null);
 
         assertEquals(updatedUser, result);
+        verify(optimisticLockRetry).execute(eq(UserServiceImpl.UPDATE_OPERATION), any());
+        verify(outboxService).record(USER_ID, OutboxEventType.USER_UPDATED, updatedDto);
+        verify(userCacheService).evict(USER_ID);
+    }
+
+    @Test
+    void update_ShouldUpdateUser_WhenExpectedVersionMatches() {
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(testUser));
+        when(userMapper.partialUpdate(updateDto, testUser)).thenReturn(testUser);
+        when(userRepository.saveAndFlush(testUser)).thenReturn(testUser);
+
+        User result = userService.update(updateDto, VERSION);
+
+        assertEquals(testUser, result);
+    }
+
+    @Test
+    void update_ShouldThrowPreconditionFailed_WhenExpectedVersionIsStale() {
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(testUser));
+
+        assertThrows(PreconditionFailedException.class, () -> userService.update(updateDto, VERSION - 1));
+        verify(userRepository, never()).saveAndFlush(any());
+        verify(outboxService, never()).record(any(), any(), any());
+        verify(userCacheService, never()).evict(any());
     }
 
     @Test
     void update_ShouldThrowException_WhenUserNotExists() {
         when(userRepository.findById(USER_ID)).thenReturn(Optional.empty());
 
-        assertThrows(NotFoundException.class, () -> userService.update(updateDto));
+        assertThrows(NotFoundException.class, () -> userService.update(updateDto, null));
     }
 
     @Test
@@ -115,6 +266,8 @@ class UserServiceImplTest {
 
         assertDoesNotThrow(() -> userService.delete());
         verify(userRepository).customDeleteById(USER_ID);
+        verify(outboxService).record(USER_ID, OutboxEventType.USER_DELETED, new UserDeletedEventDto(USER_ID));
+        verify(userCacheService).evict(USER_ID);
     }
 
     @Test
@@ -122,7 +275,22 @@ class UserServiceImplTest {
         when(userRepository.customDeleteById(USER_ID)).thenReturn(0);
 
         assertThrows(NotFoundException.class, () -> userService.delete());
+        verify(databaseMetrics).rowCountMismatch(UserServiceImpl.DELETE_OPERATION);
         verify(userRepository).customDeleteById(USER_ID);
     }
 
-}
\ No newline at end of file
+    @Test
+    void forEachById_ShouldQueryInChunks() {
+        Set<UUID> ids = Stream.generate(UUID::randomUUID)
+            .limit(UserServiceImpl.BULK_CHUNK_SIZE * 2L + 1)
+            .collect(Collectors.toSet());
+        Consumer<UserDto> action = user -> {
+        };
+
+        userService.forEachById(ids, action);
+
+        verify(userJdbcRepository, times(2)).findAllById(argThat(chunk -> chunk.size() == UserServiceImpl.BULK_CHUNK_SIZE), eq(action));
+        verify(userJdbcRepository).findAllById(argThat(chunk -> chunk.size() == 1), eq(action));
+    }
+
+}
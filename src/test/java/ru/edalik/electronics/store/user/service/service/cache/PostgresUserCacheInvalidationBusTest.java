@@ -0,0 +1,114 @@
+package ru.edalik.electronics.store.user.service.service.cache;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.edalik.electronics.store.user.service.UserServiceApplication;
+import ru.edalik.electronics.store.user.service.model.dto.UserDto;
+import ru.edalik.electronics.store.user.service.service.interfaces.UserCacheService;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static ru.edalik.electronics.store.user.service.config.CacheConfig.USERS_CACHE;
+
+class PostgresUserCacheInvalidationBusTest {
+
+    static EmbeddedPostgres postgres;
+
+    static ConfigurableApplicationContext firstNode;
+
+    static ConfigurableApplicationContext secondNode;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        firstNode = startNode();
+        secondNode = startNode();
+
+        await().atMost(Duration.ofSeconds(10)).until(
+            () -> firstNode.getBean(PostgresUserCacheInvalidationBus.class).isListening()
+                && secondNode.getBean(PostgresUserCacheInvalidationBus.class).isListening()
+        );
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        secondNode.close();
+        firstNode.close();
+        postgres.close();
+    }
+
+    @Test
+    void evict_ShouldInvalidateOtherNode_WhenTransactionCommits() {
+        UUID id = UUID.randomUUID();
+        Cache secondCache = cache(secondNode);
+        secondNode.getBean(UserCacheService.class).get(id, () -> UserDto.builder().id(id).build());
+
+        firstNode.getBean(TransactionTemplate.class).executeWithoutResult(
+            status -> firstNode.getBean(UserCacheService.class).evict(id)
+        );
+
+        await().atMost(Duration.ofSeconds(2)).until(() -> secondCache.get(id) == null);
+    }
+
+    @Test
+    void evict_ShouldNotInvalidateOtherNode_WhenTransactionRollsBack() throws InterruptedException {
+        UUID id = UUID.randomUUID();
+        Cache secondCache = cache(secondNode);
+        secondNode.getBean(UserCacheService.class).get(id, () -> UserDto.builder().id(id).build());
+
+        firstNode.getBean(TransactionTemplate.class).executeWithoutResult(status -> {
+            firstNode.getBean(UserCacheService.class).evict(id);
+            status.setRollbackOnly();
+        });
+
+        Thread.sleep(500);
+        assertThat(secondCache.get(id)).isNotNull();
+    }
+
+    @Test
+    void evictAll_ShouldClearOtherNodeOnce_WhenTransactionCommits() {
+        UUID id = UUID.randomUUID();
+        UUID unrelated = UUID.randomUUID();
+        Cache secondCache = cache(secondNode);
+        UserCacheService secondCacheService = secondNode.getBean(UserCacheService.class);
+        secondCacheService.get(id, () -> UserDto.builder().id(id).build());
+        secondCacheService.get(unrelated, () -> UserDto.builder().id(unrelated).build());
+
+        firstNode.getBean(TransactionTemplate.class).executeWithoutResult(
+            status -> firstNode.getBean(UserCacheService.class).evictAll(List.of(id))
+        );
+
+        await().atMost(Duration.ofSeconds(2)).until(
+            () -> secondCache.get(id) == null && secondCache.get(unrelated) == null
+        );
+    }
+
+    private static ConfigurableApplicationContext startNode() {
+        return new SpringApplicationBuilder(UserServiceApplication.class)
+            .run(
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--cache.invalidation.enabled=true",
+                "--cache.invalidation.poll-timeout=100ms"
+            );
+    }
+
+    private static Cache cache(ConfigurableApplicationContext node) {
+        return node.getBean(CacheManager.class).getCache(USERS_CACHE);
+    }
+
+}
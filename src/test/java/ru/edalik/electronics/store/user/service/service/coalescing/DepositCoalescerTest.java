@@ -0,0 +1,126 @@
+package ru.edalik.electronics.store.user.service.service.coalescing;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import ru.edalik.electronics.store.user.service.config.properties.DepositCoalescingProperties;
+import ru.edalik.electronics.store.user.service.model.exception.NotFoundException;
+import ru.edalik.electronics.store.user.service.service.BalanceServiceImpl;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class DepositCoalescerTest {
+
+    static final UUID USER_ID = UUID.randomUUID();
+    static final int MAX_OPERATIONS = 3;
+    static final Duration WINDOW = Duration.ofMillis(50);
+
+    @Mock
+    BalanceServiceImpl balanceService;
+
+    DepositCoalescer depositCoalescer;
+
+    @AfterEach
+    void tearDown() {
+        depositCoalescer.stop();
+    }
+
+    @Test
+    void submit_ShouldApplyDepositsOfWindowInOneTransaction() throws Exception {
+        start(WINDOW);
+        CompletableFuture<Void> first = depositCoalescer.submit(USER_ID, BigDecimal.ONE);
+        CompletableFuture<Void> second = depositCoalescer.submit(USER_ID, BigDecimal.TEN);
+
+        CompletableFuture.allOf(first, second).get(1, TimeUnit.SECONDS);
+
+        verify(balanceService).depositAll(USER_ID, List.of(BigDecimal.ONE, BigDecimal.TEN));
+    }
+
+    @Test
+    void submit_ShouldFlushImmediately_WhenMaxOperationsReached() throws Exception {
+        start(Duration.ofMinutes(1));
+
+        List<CompletableFuture<Void>> futures = List.of(
+            depositCoalescer.submit(USER_ID, BigDecimal.ONE),
+            depositCoalescer.submit(USER_ID, BigDecimal.ONE),
+            depositCoalescer.submit(USER_ID, BigDecimal.ONE)
+        );
+
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get(1, TimeUnit.SECONDS);
+
+        verify(balanceService).depositAll(eq(USER_ID), eq(List.of(BigDecimal.ONE, BigDecimal.ONE, BigDecimal.ONE)));
+    }
+
+    @Test
+    void submit_ShouldNotAcknowledge_BeforeTransactionCommits() throws Exception {
+        start(WINDOW);
+        CountDownLatch committing = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            committing.countDown();
+            commit.await();
+            return null;
+        }).when(balanceService).depositAll(eq(USER_ID), any());
+
+        CompletableFuture<Void> future = depositCoalescer.submit(USER_ID, BigDecimal.ONE);
+
+        assertThat(committing.await(1, TimeUnit.SECONDS)).isTrue();
+        assertThat(future).isNotDone();
+
+        commit.countDown();
+        future.get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void deposit_ShouldRethrowFailureToEveryCaller() {
+        start(WINDOW);
+        NotFoundException exception = new NotFoundException("User was not found");
+        doThrow(exception).when(balanceService).depositAll(eq(USER_ID), any());
+
+        CompletableFuture<Void> other = depositCoalescer.submit(USER_ID, BigDecimal.TEN);
+
+        assertThatThrownBy(() -> depositCoalescer.deposit(USER_ID, BigDecimal.ONE)).isSameAs(exception);
+        assertThat(other).isCompletedExceptionally();
+    }
+
+    @Test
+    void stop_ShouldApplyPendingDeposits() {
+        start(Duration.ofMinutes(1));
+
+        CompletableFuture<Void> future = depositCoalescer.submit(USER_ID, BigDecimal.ONE);
+        depositCoalescer.stop();
+
+        verify(balanceService).depositAll(USER_ID, List.of(BigDecimal.ONE));
+        assertThat(future).isCompleted();
+    }
+
+    private void start(Duration window) {
+        depositCoalescer = new DepositCoalescer(
+            balanceService,
+            new SimpleAsyncTaskExecutor(),
+            new DepositCoalescingProperties(true, window, MAX_OPERATIONS),
+            new SimpleMeterRegistry()
+        );
+        depositCoalescer.start();
+    }
+
+}
@@ -0,0 +1,109 @@
+package ru.edalik.electronics.store.user.service.service.metrics;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocation;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener.RepositoryMethodInvocationResult;
+import ru.edalik.electronics.store.user.service.repository.OutboxEventRepository;
+import ru.edalik.electronics.store.user.service.repository.UserRepository;
+
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static ru.edalik.electronics.store.user.service.service.metrics.DatabaseMetrics.LOCKING_QUERY_METRIC;
+import static ru.edalik.electronics.store.user.service.service.metrics.DatabaseMetrics.METHOD_TAG;
+import static ru.edalik.electronics.store.user.service.service.metrics.DatabaseMetrics.OPERATION_TAG;
+import static ru.edalik.electronics.store.user.service.service.metrics.DatabaseMetrics.REPOSITORY_TAG;
+import static ru.edalik.electronics.store.user.service.service.metrics.DatabaseMetrics.ROW_COUNT_MISMATCH_METRIC;
+import static ru.edalik.electronics.store.user.service.service.metrics.DatabaseMetrics.STATE_TAG;
+
+class DatabaseMetricsTest {
+
+    final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    final DatabaseMetrics databaseMetrics = new DatabaseMetrics(meterRegistry);
+
+    @Test
+    void afterInvocation_LockingMethod_RecordsLockingQuery() throws NoSuchMethodException {
+        Method method = UserRepository.class.getMethod("findWithExclusiveLockById", UUID.class);
+
+        databaseMetrics.afterInvocation(invocation(method, TimeUnit.MILLISECONDS.toNanos(40)));
+
+        Timer timer = meterRegistry.get(LOCKING_QUERY_METRIC)
+            .tag(METHOD_TAG, "findWithExclusiveLockById")
+            .tag(STATE_TAG, "success")
+            .timer();
+        assertThat(timer.count()).isEqualTo(1);
+        assertThat(timer.totalTime(TimeUnit.MILLISECONDS)).isEqualTo(40);
+    }
+
+    @Test
+    void afterInvocation_NativeForUpdateQuery_RecordsLockingQuery() throws NoSuchMethodException {
+        Method method = OutboxEventRepository.class.getMethod("lockNextBatch", int.class);
+
+        databaseMetrics.afterInvocation(invocation(method, TimeUnit.MILLISECONDS.toNanos(15)));
+
+        Timer timer = meterRegistry.get(LOCKING_QUERY_METRIC)
+            .tag(REPOSITORY_TAG, "OutboxEventRepository")
+            .tag(METHOD_TAG, "lockNextBatch")
+            .timer();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    void afterInvocation_GuardedUpdate_RecordsLockingQuery() throws NoSuchMethodException {
+        Method method = UserRepository.class.getMethod("payment", BigDecimal.class, UUID.class);
+
+        databaseMetrics.afterInvocation(invocation(method, TimeUnit.MILLISECONDS.toNanos(25)));
+
+        Timer timer = meterRegistry.get(LOCKING_QUERY_METRIC)
+            .tag(REPOSITORY_TAG, "UserRepository")
+            .tag(METHOD_TAG, "payment")
+            .timer();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    void afterInvocation_NonLockingMethod_IsIgnored() throws NoSuchMethodException {
+        Method method = UserRepository.class.getMethod("findBalanceById", UUID.class);
+
+        databaseMetrics.afterInvocation(invocation(method, TimeUnit.MILLISECONDS.toNanos(40)));
+
+        assertThat(meterRegistry.find(LOCKING_QUERY_METRIC).timer()).isNull();
+    }
+
+    @Test
+    void rowCountMismatch_CountsPerOperation() {
+        databaseMetrics.rowCountMismatch("payment");
+        databaseMetrics.rowCountMismatch("payment");
+        databaseMetrics.rowCountMismatch("delete");
+
+        assertThat(meterRegistry.get(ROW_COUNT_MISMATCH_METRIC).tag(OPERATION_TAG, "payment").counter().count())
+            .isEqualTo(2);
+        assertThat(meterRegistry.get(ROW_COUNT_MISMATCH_METRIC).tag(OPERATION_TAG, "delete").counter().count())
+            .isEqualTo(1);
+    }
+
+    private static RepositoryMethodInvocation invocation(Method method, long durationNs) {
+        RepositoryMethodInvocationResult result = new RepositoryMethodInvocationResult() {
+
+            @Override
+            public State getState() {
+                return State.SUCCESS;
+            }
+
+            @Override
+            public Throwable getError() {
+                return null;
+            }
+
+        };
+
+        return new RepositoryMethodInvocation(method.getDeclaringClass(), method, result, durationNs);
+    }
+
+}
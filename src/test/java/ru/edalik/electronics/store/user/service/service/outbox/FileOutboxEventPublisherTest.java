@@ -0,0 +1,61 @@
+package ru.edalik.electronics.store.user.service.service.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ru.edalik.electronics.store.user.service.config.properties.OutboxProperties;
+import ru.edalik.electronics.store.user.service.model.entity.OutboxEvent;
+import ru.edalik.electronics.store.user.service.model.enums.OutboxEventType;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FileOutboxEventPublisherTest {
+
+    final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void publish_ShouldAppendOneJsonLinePerEvent() throws IOException {
+        Path file = directory.resolve("outbox").resolve("events.ndjson");
+        FileOutboxEventPublisher publisher = new FileOutboxEventPublisher(
+            objectMapper,
+            new OutboxProperties(true, 100, "file", file.toString())
+        );
+        UUID userId = UUID.randomUUID();
+
+        publisher.publish(List.of(event(1, userId, "{\"amount\":10}")));
+        publisher.publish(List.of(event(2, userId, "{\"amount\":20}")));
+
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(2);
+
+        JsonNode second = objectMapper.readTree(lines.get(1));
+        assertThat(second.get("id").asLong()).isEqualTo(2);
+        assertThat(second.get("aggregateId").asText()).isEqualTo(userId.toString());
+        assertThat(second.get("aggregateSequence").asLong()).isEqualTo(2);
+        assertThat(second.get("type").asText()).isEqualTo(OutboxEventType.BALANCE_DEPOSIT.name());
+        assertThat(second.get("payload").get("amount").asInt()).isEqualTo(20);
+    }
+
+    private static OutboxEvent event(long id, UUID aggregateId, String payload) {
+        return OutboxEvent.builder()
+            .id(id)
+            .aggregateId(aggregateId)
+            .aggregateSequence(id)
+            .eventType(OutboxEventType.BALANCE_DEPOSIT)
+            .payload(payload)
+            .createdTime(ZonedDateTime.now())
+            .build();
+    }
+
+}
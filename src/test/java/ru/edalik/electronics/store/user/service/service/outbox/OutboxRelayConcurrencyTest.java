@@ -0,0 +1,159 @@
+package ru.edalik.electronics.store.user.service.service.outbox;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.edalik.electronics.store.user.service.UserServiceApplication;
+import ru.edalik.electronics.store.user.service.model.entity.OutboxEvent;
+import ru.edalik.electronics.store.user.service.model.enums.OutboxEventType;
+import ru.edalik.electronics.store.user.service.repository.OutboxEventRepository;
+import ru.edalik.electronics.store.user.service.service.interfaces.OutboxService;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OutboxRelayConcurrencyTest {
+
+    static final int USERS = 5;
+    static final int EVENTS_PER_USER = 200;
+    static final int RELAYS = 4;
+    static final int WRITERS = 8;
+    static final int EVENTS_PER_WRITER = 25;
+
+    static EmbeddedPostgres postgres;
+
+    static ConfigurableApplicationContext context;
+
+    @BeforeAll
+    static void setUp() throws IOException {
+        postgres = EmbeddedPostgres.start();
+        context = new SpringApplicationBuilder(UserServiceApplication.class)
+            .run(
+                "--server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl("postgres", "postgres"),
+                "--spring.datasource.username=postgres",
+                "--spring.datasource.password=postgres",
+                "--cache.invalidation.enabled=false",
+                "--outbox.relay-enabled=true",
+                "--outbox.relay-interval=PT1H",
+                "--outbox.batch-size=25",
+                "--outbox.publisher=in-memory"
+            );
+    }
+
+    @AfterAll
+    static void tearDown() throws IOException {
+        context.close();
+        postgres.close();
+    }
+
+    @Test
+    void record_ShouldNumberEventsPerUserInInsertOrder_WhenWritersRace() throws Exception {
+        OutboxService outboxService = context.getBean(OutboxService.class);
+        OutboxEventRepository outboxEventRepository = context.getBean(OutboxEventRepository.class);
+        TransactionTemplate transactionTemplate = context.getBean(TransactionTemplate.class);
+        UUID userId = UUID.randomUUID();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> writers = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS);
+        for (int i = 0; i < WRITERS; i++) {
+            writers.add(executor.submit(() -> {
+                start.await();
+                for (int j = 0; j < EVENTS_PER_WRITER; j++) {
+                    transactionTemplate.executeWithoutResult(
+                        status -> outboxService.record(userId, OutboxEventType.BALANCE_DEPOSIT, Map.of())
+                    );
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> writer : writers) {
+            writer.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        List<OutboxEvent> recorded = outboxEventRepository.findAll().stream()
+            .filter(event -> event.getAggregateId().equals(userId))
+            .sorted(Comparator.comparing(OutboxEvent::getId))
+            .toList();
+        outboxEventRepository.deleteAllByIdInBatch(recorded.stream().map(OutboxEvent::getId).toList());
+
+        assertThat(recorded.stream().map(OutboxEvent::getAggregateSequence))
+            .containsExactlyElementsOf(LongStream.rangeClosed(1, WRITERS * EVENTS_PER_WRITER).boxed().toList());
+    }
+
+    @Test
+    void relay_ShouldPublishEveryEventOnceInOrderPerUser_WhenRelaysRunInParallel() throws Exception {
+        OutboxEventRepository outboxEventRepository = context.getBean(OutboxEventRepository.class);
+        OutboxRelay outboxRelay = context.getBean(OutboxRelay.class);
+        InMemoryOutboxEventPublisher publisher = context.getBean(InMemoryOutboxEventPublisher.class);
+        publisher.clear();
+
+        List<UUID> users = IntStream.range(0, USERS).mapToObj(i -> UUID.randomUUID()).toList();
+        List<OutboxEvent> events = new ArrayList<>();
+        for (int sequence = 0; sequence < EVENTS_PER_USER; sequence++) {
+            for (UUID user : users) {
+                events.add(
+                    OutboxEvent.builder()
+                        .aggregateId(user)
+                        .eventType(OutboxEventType.BALANCE_DEPOSIT)
+                        .payload("{\"sequence\":%d}".formatted(sequence))
+                        .build()
+                );
+            }
+        }
+        outboxEventRepository.saveAll(events);
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> relays = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(RELAYS);
+        for (int i = 0; i < RELAYS; i++) {
+            relays.add(executor.submit(() -> {
+                start.await();
+                while (outboxEventRepository.count() > 0) {
+                    outboxRelay.relay();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> relay : relays) {
+            relay.get(1, TimeUnit.MINUTES);
+        }
+        executor.shutdown();
+
+        List<OutboxEvent> published = publisher.getEvents();
+        assertThat(published).hasSize(USERS * EVENTS_PER_USER);
+        assertThat(published.stream().map(OutboxEvent::getId)).doesNotHaveDuplicates();
+
+        Map<UUID, List<Long>> publishedPerUser = published.stream().collect(
+            Collectors.groupingBy(
+                OutboxEvent::getAggregateId,
+                Collectors.mapping(OutboxEvent::getId, Collectors.toList())
+            )
+        );
+        assertThat(publishedPerUser).hasSize(USERS);
+        publishedPerUser.values().forEach(ids -> assertThat(ids).isSorted());
+    }
+
+}
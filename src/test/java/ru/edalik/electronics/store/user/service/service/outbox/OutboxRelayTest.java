@@ -0,0 +1,137 @@
+package ru.edalik.electronics.store.user.service.service.outbox;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.edalik.electronics.store.user.service.config.properties.OutboxProperties;
+import ru.edalik.electronics.store.user.service.model.entity.OutboxEvent;
+import ru.edalik.electronics.store.user.service.model.enums.OutboxEventType;
+import ru.edalik.electronics.store.user.service.repository.OutboxEventRepository;
+import ru.edalik.electronics.store.user.service.repository.OutboxEventRepository.AggregateHead;
+import ru.edalik.electronics.store.user.service.service.interfaces.OutboxEventPublisher;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    static final int BATCH_SIZE = 3;
+    static final UUID FIRST_USER = UUID.randomUUID();
+    static final UUID SECOND_USER = UUID.randomUUID();
+
+    @Mock
+    OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    OutboxEventPublisher outboxEventPublisher;
+
+    @Mock
+    TransactionTemplate transactionTemplate;
+
+    final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(transactionTemplate.execute(any())).thenAnswer(
+            invocation -> invocation.<TransactionCallback<Integer>>getArgument(0).doInTransaction(null)
+        );
+
+        outboxRelay = new OutboxRelay(
+            outboxEventRepository,
+            outboxEventPublisher,
+            transactionTemplate,
+            new OutboxProperties(true, BATCH_SIZE, "in-memory", "outbox/events.ndjson"),
+            meterRegistry
+        );
+    }
+
+    @Test
+    void relayBatch_ShouldPublishAndDelete_WhenBatchHoldsHeadOfEveryUser() {
+        List<OutboxEvent> events = List.of(event(1, FIRST_USER), event(2, SECOND_USER), event(3, FIRST_USER));
+        when(outboxEventRepository.lockNextBatch(BATCH_SIZE)).thenReturn(events);
+        when(outboxEventRepository.findHeads(any())).thenReturn(List.of(head(FIRST_USER, 1), head(SECOND_USER, 2)));
+
+        int published = outboxRelay.relayBatch();
+
+        assertThat(published).isEqualTo(3);
+        verify(outboxEventPublisher).publish(events);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+    }
+
+    @Test
+    void relayBatch_ShouldDeferUser_WhenEarlierEventIsLockedElsewhere() {
+        OutboxEvent first = event(5, FIRST_USER);
+        OutboxEvent second = event(6, SECOND_USER);
+        when(outboxEventRepository.lockNextBatch(BATCH_SIZE)).thenReturn(List.of(first, second));
+        when(outboxEventRepository.findHeads(any())).thenReturn(List.of(head(FIRST_USER, 4), head(SECOND_USER, 6)));
+
+        int published = outboxRelay.relayBatch();
+
+        assertThat(published).isEqualTo(1);
+        verify(outboxEventPublisher).publish(List.of(second));
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(6L));
+        assertThat(meterRegistry.counter("outbox.events", "result", "deferred").count()).isEqualTo(1);
+    }
+
+    @Test
+    void relay_ShouldDrainFullBatches_AndStopOnPartialBatch() {
+        when(outboxEventRepository.lockNextBatch(BATCH_SIZE)).thenReturn(
+            List.of(event(1, FIRST_USER), event(2, FIRST_USER), event(3, FIRST_USER)),
+            List.of(event(4, FIRST_USER))
+        );
+        when(outboxEventRepository.findHeads(any())).thenReturn(List.of(head(FIRST_USER, 1)), List.of(head(FIRST_USER, 4)));
+
+        outboxRelay.relay();
+
+        verify(outboxEventRepository, times(2)).lockNextBatch(BATCH_SIZE);
+        verify(outboxEventPublisher, times(2)).publish(any());
+    }
+
+    @Test
+    void relayBatch_ShouldNotPublish_WhenOutboxIsEmpty() {
+        when(outboxEventRepository.lockNextBatch(BATCH_SIZE)).thenReturn(List.of());
+
+        assertThat(outboxRelay.relayBatch()).isZero();
+        verify(outboxEventPublisher, never()).publish(any());
+    }
+
+    private static OutboxEvent event(long id, UUID aggregateId) {
+        return OutboxEvent.builder()
+            .id(id)
+            .aggregateId(aggregateId)
+            .eventType(OutboxEventType.BALANCE_DEPOSIT)
+            .payload("{}")
+            .build();
+    }
+
+    private static AggregateHead head(UUID aggregateId, long firstId) {
+        return new AggregateHead() {
+
+            public UUID getAggregateId() {
+                return aggregateId;
+            }
+
+            public Long getFirstId() {
+                return firstId;
+            }
+
+        };
+    }
+
+}
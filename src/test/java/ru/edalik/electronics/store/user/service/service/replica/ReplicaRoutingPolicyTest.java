@@ -0,0 +1,156 @@
+package ru.edalik.electronics.store.user.service.service.replica;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.edalik.electronics.store.user.service.config.properties.ReplicaProperties;
+import ru.edalik.electronics.store.user.service.service.security.UserAuthenticationToken;
+import ru.edalik.electronics.store.user.service.service.security.UserPrincipal;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.spy;
+import static ru.edalik.electronics.store.user.service.service.replica.ReplicaRoutingPolicy.REASON_TAG;
+import static ru.edalik.electronics.store.user.service.service.replica.ReplicaRoutingPolicy.ROUTING_METRIC;
+
+class ReplicaRoutingPolicyTest {
+
+    static final UUID USER_ID = UUID.randomUUID();
+
+    final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    ReplicaRoutingPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        policy = spy(new ReplicaRoutingPolicy(
+            mock(DataSource.class),
+            new ReplicaProperties(true, null, null, null, Duration.ofMinutes(1), 100, Duration.ofSeconds(1), Duration.ofSeconds(1)),
+            meterRegistry
+        ));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void readFromReplica_ByDefault_ReturnsTrue() {
+        assertThat(policy.readFromReplica()).isTrue();
+        assertThat(meterRegistry.get(ROUTING_METRIC).tag(REASON_TAG, "read_only").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void readFromReplica_PinnedUser_ReturnsFalseOnlyForThatUser() {
+        authenticate(USER_ID);
+        policy.pin(USER_ID);
+
+        assertThat(policy.readFromReplica()).isFalse();
+
+        authenticate(UUID.randomUUID());
+        assertThat(policy.readFromReplica()).isTrue();
+        assertThat(meterRegistry.get(ROUTING_METRIC).tag(REASON_TAG, "pinned").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void pinAfterCommit_WithoutSynchronization_PinsImmediately() {
+        authenticate(USER_ID);
+
+        policy.pinAfterCommit();
+
+        assertThat(policy.readFromReplica()).isFalse();
+    }
+
+    @Test
+    void pinAfterCommit_WithSynchronization_PinsOnCommit() {
+        authenticate(USER_ID);
+        TransactionSynchronizationManager.initSynchronization();
+
+        policy.pinAfterCommit();
+
+        assertThat(policy.readFromReplica()).isTrue();
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+        assertThat(policy.readFromReplica()).isFalse();
+    }
+
+    @Test
+    void pinAfterCommit_WithoutUser_DoesNothing() {
+        policy.pinAfterCommit();
+
+        assertThat(policy.readFromReplica()).isTrue();
+    }
+
+    @Test
+    void checkReplica_LagAboveMax_RoutesToPrimaryUntilCaughtUp() {
+        doReturn(5000L).when(policy).queryLag();
+        policy.checkReplica();
+
+        assertThat(policy.readFromReplica()).isFalse();
+        assertThat(meterRegistry.get(ROUTING_METRIC).tag(REASON_TAG, "lagging").counter().count()).isEqualTo(1);
+
+        doReturn(200L).when(policy).queryLag();
+        policy.checkReplica();
+
+        assertThat(policy.readFromReplica()).isTrue();
+    }
+
+    @Test
+    void checkReplica_UnknownLag_RoutesToPrimary() {
+        doReturn(null).when(policy).queryLag();
+
+        policy.checkReplica();
+
+        assertThat(policy.readFromReplica()).isFalse();
+    }
+
+    @Test
+    void checkReplica_QueryFails_RoutesToPrimaryUntilRecovered() {
+        doThrow(new DataAccessResourceFailureException("down")).when(policy).queryLag();
+        policy.checkReplica();
+
+        assertThat(policy.readFromReplica()).isFalse();
+        assertThat(meterRegistry.get(ROUTING_METRIC).tag(REASON_TAG, "unavailable").counter().count()).isEqualTo(1);
+
+        doReturn(0L).when(policy).queryLag();
+        policy.checkReplica();
+
+        assertThat(policy.readFromReplica()).isTrue();
+    }
+
+    @Test
+    void replicaFailed_RoutesToPrimary() {
+        policy.replicaFailed(new SQLException("Connection refused"));
+
+        assertThat(policy.readFromReplica()).isFalse();
+    }
+
+    private static void authenticate(UUID userId) {
+        Jwt jwt = Jwt.withTokenValue("token")
+            .header("alg", "none")
+            .subject(userId.toString())
+            .build();
+        SecurityContextHolder.getContext().setAuthentication(
+            new UserAuthenticationToken(jwt, List.of(), new UserPrincipal(userId, "login", "email"))
+        );
+    }
+
+}
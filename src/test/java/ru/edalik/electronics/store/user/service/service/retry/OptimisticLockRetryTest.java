@@ -0,0 +1,109 @@
+package ru.edalik.electronics.store.user.service.service.retry;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.edalik.electronics.store.user.service.config.properties.OptimisticLockProperties;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OptimisticLockRetryTest {
+
+    static final String OPERATION = "test.operation";
+
+    final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+
+    final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    final OptimisticLockRetry retry = new OptimisticLockRetry(
+        transactionTemplate,
+        new OptimisticLockProperties(3, Duration.ofMillis(1), Duration.ofMillis(2)),
+        meterRegistry
+    );
+
+    @BeforeEach
+    void setUp() {
+        when(transactionTemplate.execute(any())).thenAnswer(
+            invocation -> invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null)
+        );
+    }
+
+    @Test
+    void execute_ShouldReturnResult_WithoutConflicts() {
+        String result = retry.execute(OPERATION, () -> "result");
+
+        assertEquals("result", result);
+        assertEquals(1.0, operations());
+        assertEquals(0.0, conflicts("retried"));
+    }
+
+    @Test
+    void execute_ShouldRetryInNewTransaction_WhenConflictIsTransient() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = retry.execute(OPERATION, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new OptimisticLockingFailureException("conflict");
+            }
+            return "result";
+        });
+
+        assertEquals("result", result);
+        verify(transactionTemplate, times(3)).execute(any());
+        assertEquals(2.0, conflicts("retried"));
+        assertEquals(0.0, conflicts("exhausted"));
+    }
+
+    @Test
+    void execute_ShouldRethrowConflict_WhenAttemptsAreExhausted() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(OptimisticLockingFailureException.class, () -> retry.execute(OPERATION, () -> {
+            attempts.incrementAndGet();
+            throw new OptimisticLockingFailureException("conflict");
+        }));
+
+        assertEquals(3, attempts.get());
+        assertEquals(2.0, conflicts("retried"));
+        assertEquals(1.0, conflicts("exhausted"));
+    }
+
+    @Test
+    void execute_ShouldNotRetry_OtherExceptions() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> retry.execute(OPERATION, () -> {
+            attempts.incrementAndGet();
+            throw new IllegalStateException();
+        }));
+
+        assertEquals(1, attempts.get());
+    }
+
+    private double operations() {
+        return meterRegistry.counter(OptimisticLockRetry.OPERATIONS_METRIC, OptimisticLockRetry.OPERATION_TAG, OPERATION)
+            .count();
+    }
+
+    private double conflicts(String outcome) {
+        return meterRegistry.counter(
+            OptimisticLockRetry.CONFLICTS_METRIC,
+            OptimisticLockRetry.OPERATION_TAG, OPERATION,
+            OptimisticLockRetry.OUTCOME_TAG, outcome
+        ).count();
+    }
+
+}
@@ -0,0 +1,81 @@
+package ru.edalik.electronics.store.user.service.service.security;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingJwtDecoderTest {
+
+    static final Instant NOW = Instant.parse("2025-01-01T00:00:00Z");
+    static final Duration SKEW = Duration.ofSeconds(30);
+    static final String TOKEN = "header.payload.signature";
+
+    @Mock
+    JwtDecoder delegate;
+
+    CachingJwtDecoder jwtDecoder;
+
+    @BeforeEach
+    void setUp() {
+        jwtDecoder = new CachingJwtDecoder(delegate, 100, SKEW, Clock.fixed(NOW, ZoneOffset.UTC));
+    }
+
+    @Test
+    void decode_ShouldValidateOnce_WhenTokenIsReused() {
+        Jwt jwt = jwt(NOW.plusSeconds(300));
+        when(delegate.decode(TOKEN)).thenReturn(jwt);
+
+        assertSame(jwt, jwtDecoder.decode(TOKEN));
+        assertSame(jwt, jwtDecoder.decode(TOKEN));
+
+        verify(delegate, times(1)).decode(TOKEN);
+    }
+
+    @Test
+    void decode_ShouldNotCache_WhenTokenExpiresWithinSkew() {
+        Jwt jwt = jwt(NOW.plus(SKEW).minusSeconds(1));
+        when(delegate.decode(TOKEN)).thenReturn(jwt);
+
+        jwtDecoder.decode(TOKEN);
+        jwtDecoder.decode(TOKEN);
+
+        verify(delegate, times(2)).decode(TOKEN);
+    }
+
+    @Test
+    void decode_ShouldNotCache_WhenValidationFails() {
+        when(delegate.decode(TOKEN)).thenThrow(new BadJwtException("Invalid signature"));
+
+        assertThrows(BadJwtException.class, () -> jwtDecoder.decode(TOKEN));
+        assertThrows(BadJwtException.class, () -> jwtDecoder.decode(TOKEN));
+
+        verify(delegate, times(2)).decode(TOKEN);
+    }
+
+    private static Jwt jwt(Instant expiresAt) {
+        return Jwt.withTokenValue(TOKEN)
+            .header("alg", "RS256")
+            .subject("subject")
+            .issuedAt(NOW.minusSeconds(1))
+            .expiresAt(expiresAt)
+            .build();
+    }
+
+}
@@ -0,0 +1,238 @@
+package ru.edalik.electronics.store.user.service.service.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.web.client.RestClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RemoteJwkSetSourceTest {
+
+    static final String JWKS_PATH = "/certs";
+
+    final AtomicReference<JWKSet> servedKeys = new AtomicReference<>();
+
+    final AtomicInteger fetches = new AtomicInteger();
+
+    final AtomicBoolean unavailable = new AtomicBoolean();
+
+    final AtomicReference<Instant> now = new AtomicReference<>(Instant.parse("2025-01-01T00:00:00Z"));
+
+    HttpServer server;
+
+    RSAKey firstKey;
+
+    RSAKey secondKey;
+
+    @BeforeEach
+    void setUp() throws IOException, JOSEException {
+        firstKey = new RSAKeyGenerator(2048).keyID("first").generate();
+        secondKey = new RSAKeyGenerator(2048).keyID("second").generate();
+        servedKeys.set(new JWKSet(firstKey));
+
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext(JWKS_PATH, exchange -> {
+            fetches.incrementAndGet();
+            if (unavailable.get()) {
+                exchange.sendResponseHeaders(503, -1);
+                exchange.close();
+                return;
+            }
+            byte[] body = servedKeys.get().toString().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void prefetch_ShouldLoadKeysBeforeFirstToken() {
+        RemoteJwkSetSource jwkSetSource = jwkSetSource(Duration.ZERO);
+
+        jwkSetSource.prefetch();
+
+        assertNotNull(jwkSetSource.getJwkSet().getKeyByKeyId("first"));
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void prefetch_ShouldNotFail_WhenJwkSetIsUnavailable() {
+        RemoteJwkSetSource jwkSetSource = jwkSetSource("/missing", Duration.ZERO);
+
+        jwkSetSource.prefetch();
+
+        assertNull(jwkSetSource.getJwkSet());
+    }
+
+    @Test
+    void decode_ShouldUsePrefetchedKeys_WithoutFetchingPerToken() throws JOSEException {
+        RemoteJwkSetSource jwkSetSource = jwkSetSource(Duration.ofMinutes(1));
+        jwkSetSource.prefetch();
+        NimbusJwtDecoder jwtDecoder = jwtDecoder(jwkSetSource);
+
+        jwtDecoder.decode(sign(firstKey));
+        jwtDecoder.decode(sign(firstKey));
+
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void decode_ShouldRefetchKeys_WhenSigningKeyIsRotated() throws JOSEException {
+        RemoteJwkSetSource jwkSetSource = jwkSetSource(Duration.ZERO);
+        jwkSetSource.prefetch();
+        NimbusJwtDecoder jwtDecoder = jwtDecoder(jwkSetSource);
+        servedKeys.set(new JWKSet(secondKey));
+
+        Jwt jwt = jwtDecoder.decode(sign(secondKey));
+
+        assertEquals("second", jwt.getHeaders().get("kid"));
+        assertEquals(2, fetches.get());
+    }
+
+    @Test
+    void decode_ShouldRejectUnknownKey_WhenRefreshIsThrottled() throws JOSEException {
+        RemoteJwkSetSource jwkSetSource = jwkSetSource(Duration.ofMinutes(1));
+        jwkSetSource.prefetch();
+        NimbusJwtDecoder jwtDecoder = jwtDecoder(jwkSetSource);
+        String token = sign(secondKey);
+
+        assertThrows(JwtException.class, () -> jwtDecoder.decode(token));
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void decode_ShouldFailFast_WhenPrefetchFailedWithinRefreshInterval() throws JOSEException {
+        unavailable.set(true);
+        RemoteJwkSetSource jwkSetSource = jwkSetSource(Duration.ofMinutes(1), testClock());
+        jwkSetSource.prefetch();
+        NimbusJwtDecoder jwtDecoder = jwtDecoder(jwkSetSource);
+        String token = sign(firstKey);
+
+        assertThrows(JwtException.class, () -> jwtDecoder.decode(token));
+        assertThrows(JwtException.class, () -> jwtDecoder.decode(token));
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void decode_ShouldRetryFailedRefresh_OnlyAfterRefreshInterval() throws JOSEException {
+        RemoteJwkSetSource jwkSetSource = jwkSetSource(Duration.ofMinutes(1), testClock());
+        jwkSetSource.prefetch();
+        NimbusJwtDecoder jwtDecoder = jwtDecoder(jwkSetSource);
+        String token = sign(secondKey);
+        unavailable.set(true);
+        servedKeys.set(new JWKSet(secondKey));
+        now.set(now.get().plus(Duration.ofMinutes(2)));
+
+        assertThrows(JwtException.class, () -> jwtDecoder.decode(token));
+        assertThrows(JwtException.class, () -> jwtDecoder.decode(token));
+        assertEquals(2, fetches.get());
+
+        unavailable.set(false);
+        now.set(now.get().plus(Duration.ofMinutes(2)));
+
+        assertEquals("second", jwtDecoder.decode(token).getHeaders().get("kid"));
+        assertEquals(3, fetches.get());
+    }
+
+    private RemoteJwkSetSource jwkSetSource(Duration minRefreshInterval) {
+        return jwkSetSource(JWKS_PATH, minRefreshInterval);
+    }
+
+    private RemoteJwkSetSource jwkSetSource(String path, Duration minRefreshInterval) {
+        return jwkSetSource(path, minRefreshInterval, Clock.systemUTC());
+    }
+
+    private RemoteJwkSetSource jwkSetSource(Duration minRefreshInterval, Clock clock) {
+        return jwkSetSource(JWKS_PATH, minRefreshInterval, clock);
+    }
+
+    private RemoteJwkSetSource jwkSetSource(String path, Duration minRefreshInterval, Clock clock) {
+        return new RemoteJwkSetSource(
+            RestClient.create(),
+            "http://localhost:" + server.getAddress().getPort() + path,
+            minRefreshInterval,
+            clock
+        );
+    }
+
+    private Clock testClock() {
+        return new Clock() {
+            @Override
+            public ZoneId getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now.get();
+            }
+        };
+    }
+
+    private static NimbusJwtDecoder jwtDecoder(RemoteJwkSetSource jwkSetSource) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSetSource));
+        return new NimbusJwtDecoder(jwtProcessor);
+    }
+
+    private static String sign(RSAKey key) throws JOSEException {
+        SignedJWT jwt = new SignedJWT(
+            new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(),
+            new JWTClaimsSet.Builder()
+                .subject(UUID.randomUUID().toString())
+                .expirationTime(Date.from(Instant.now().plusSeconds(300)))
+                .build()
+        );
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+
+}
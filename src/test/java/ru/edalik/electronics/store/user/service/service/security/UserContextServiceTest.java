@@ -0,0 +1,63 @@
+package ru.edalik.electronics.store.user.service.service.security;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UserContextServiceTest {
+
+    static final UUID USER_ID = UUID.randomUUID();
+    static final String LOGIN = "login";
+    static final String EMAIL = "user@example.com";
+
+    final UserContextService userContextService = new UserContextService();
+
+    final Jwt jwt = Jwt.withTokenValue("token")
+        .header("alg", "none")
+        .subject(USER_ID.toString())
+        .claim("preferred_username", LOGIN)
+        .claim("email", EMAIL)
+        .claim("roles", List.of("ADMIN"))
+        .build();
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getUser_ShouldReturnResolvedPrincipal_WhenAuthenticatedThroughConverter() {
+        UserAuthenticationToken token = new UserAuthenticationConverter(new JwtGrantedAuthoritiesConverter()).convert(jwt);
+        SecurityContextHolder.getContext().setAuthentication(token);
+
+        UserPrincipal result = userContextService.getUser();
+
+        assertSame(token.getUser(), result);
+        assertEquals(new UserPrincipal(USER_ID, LOGIN, EMAIL), result);
+        assertEquals(USER_ID.toString(), token.getName());
+    }
+
+    @Test
+    void getUser_ShouldParseJwt_WhenAuthenticatedWithPlainJwtToken() {
+        SecurityContextHolder.getContext().setAuthentication(new JwtAuthenticationToken(jwt));
+
+        assertEquals(new UserPrincipal(USER_ID, LOGIN, EMAIL), userContextService.getUser());
+        assertEquals(USER_ID, userContextService.getUserGuid());
+    }
+
+    @Test
+    void getUser_ShouldThrowException_WhenNotAuthenticated() {
+        assertThrows(IllegalStateException.class, userContextService::getUser);
+    }
+
+}